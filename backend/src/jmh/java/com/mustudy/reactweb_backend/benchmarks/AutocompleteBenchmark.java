@@ -0,0 +1,79 @@
+package com.mustudy.reactweb_backend.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mustudy.reactweb_backend.search.AutocompleteIndex;
+
+/**
+ * Top-8 lookup latency of {@link AutocompleteIndex} over {@code dishes} distinct
+ * dish names plus 50k restaurant names with skewed popularity. One-letter
+ * prefixes match a large share of all keys, so they show that the
+ * segment-tree top-k does not depend on how many keys share the prefix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AutocompleteBenchmark {
+
+    private static final String[] STYLES = { "Braised", "Crispy", "Steamed", "Spicy", "Honey", "Roast", "Fried",
+            "Black Pepper", "Salted Egg", "Garlic", "Ginger", "Curry", "Satay", "Sichuan" };
+    private static final String[] INGREDIENTS = { "Char Siu", "Chicken", "Beef", "Pork", "Duck", "Goose", "Shrimp",
+            "Fish", "Squid", "Tofu", "Eggplant", "Mushroom", "Lamb", "Wonton", "Brisket", "Spare Ribs" };
+    private static final String[] DISHES = { "Rice", "Noodles", "Congee", "Soup", "Bao", "Dumplings", "Fried Rice",
+            "Rice Noodles", "Hot Pot", "Claypot Rice", "Cheung Fun", "Udon", "Salad", "Skewers", "Wrap" };
+
+    @Param("200000")
+    public int dishes;
+
+    @Param({ "c", "char s", "rice noo", "kitchen 12" })
+    public String prefix;
+
+    private AutocompleteIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        AutocompleteIndex.Builder builder = new AutocompleteIndex.Builder();
+        long begin = System.currentTimeMillis();
+        for (int i = 0; i < dishes; i++) {
+            String name = STYLES[random.nextInt(STYLES.length)] + " " + INGREDIENTS[random.nextInt(INGREDIENTS.length)]
+                    + " " + DISHES[random.nextInt(DISHES.length)] + " " + (i % 997);
+            builder.add(new AutocompleteIndex.Suggestion(AutocompleteIndex.DISH, name, null, popularity(random)));
+        }
+        for (int r = 1; r <= 50_000; r++) {
+            builder.add(new AutocompleteIndex.Suggestion(AutocompleteIndex.RESTAURANT, "Kitchen " + r, r,
+                    popularity(random)));
+        }
+        index = builder.build();
+        System.out.printf("%nindexed %d suggestions in %d ms%n", index.size(), System.currentTimeMillis() - begin);
+    }
+
+    // 大部份菜冇乜人叫，少數好受歡迎
+    private static long popularity(Random random) {
+        double r = random.nextDouble();
+        return (long) (r * r * r * 100_000);
+    }
+
+    @Benchmark
+    public List<AutocompleteIndex.Suggestion> complete() {
+        return index.complete(prefix, 8);
+    }
+}
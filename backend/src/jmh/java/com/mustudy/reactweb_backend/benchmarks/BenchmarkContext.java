@@ -0,0 +1,30 @@
+package com.mustudy.reactweb_backend.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.mustudy.reactweb_backend.ReactwebBackendApplication;
+
+/**
+ * Boots the application without the web tier against a private in-memory
+ * H2 database (test application.properties), for benchmarks that need
+ * repositories.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String database, String... extraProperties) {
+        String[] properties = new String[extraProperties.length + 2];
+        properties[0] = "spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        properties[1] = "logging.level.root=WARN";
+        System.arraycopy(extraProperties, 0, properties, 2, extraProperties.length);
+        return new SpringApplicationBuilder(ReactwebBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,51 @@
+package com.mustudy.reactweb_backend.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mustudy.reactweb_backend.services.CartService;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartServiceBenchmark {
+
+    private static final int CART_SIZE = 10;
+
+    private CartService cartService;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cartService = new CartService();
+        for (int i = 0; i < CART_SIZE; i++) {
+            cartService.addToCart("1", new CartService.CartItem(i, "Item " + i, 1, BigDecimal.valueOf(20 + i), null));
+        }
+    }
+
+    @Benchmark
+    public String addToCart() {
+        // 加已經喺購物車嘅商品（要 scan 成個 cart）
+        int itemId = next++ % CART_SIZE;
+        return cartService.addToCart("1", new CartService.CartItem(itemId, "Item", 1, BigDecimal.TEN, null));
+    }
+
+    @Benchmark
+    public Double getCartTotal() {
+        return cartService.getCartTotal("1");
+    }
+}
@@ -0,0 +1,47 @@
+package com.mustudy.reactweb_backend.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mustudy.reactweb_backend.models.Customer;
+import com.mustudy.reactweb_backend.services.JwtService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private Customer customer;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", "benchmark_secret_benchmark_secret_benchmark_secret");
+        ReflectionTestUtils.setField(jwtService, "expirationMinutes", 60L);
+
+        customer = new Customer();
+        customer.setCustid(1);
+        customer.setEmail("alice@email.com");
+        customer.setCustname("Alice Wong");
+    }
+
+    @Benchmark
+    public JwtService.JwtToken generateTokenForCustomer() {
+        return jwtService.generateTokenForCustomer(customer);
+    }
+}
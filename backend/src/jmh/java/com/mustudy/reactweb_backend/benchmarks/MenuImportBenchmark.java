@@ -0,0 +1,151 @@
+package com.mustudy.reactweb_backend.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mustudy.reactweb_backend.dto.MenuImportResult;
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+import com.mustudy.reactweb_backend.models.MenuItems;
+import com.mustudy.reactweb_backend.repositories.MenuItemsRepository;
+import com.mustudy.reactweb_backend.services.MenuImportService;
+import com.mustudy.reactweb_backend.services.MenuSearchService;
+
+/**
+ * Importing a menu of {@code items} new items into one restaurant, with the
+ * menu search index built beforehand so invalidation is part of the cost.
+ * {@code csv} and {@code json} stream the file through
+ * {@link MenuImportService} (batched JDBC inserts in one transaction, one
+ * index refresh after commit). {@code entities} is the obvious alternative:
+ * {@code MenuItemsRepository.saveAll} in one transaction, which goes through
+ * Hibernate and fires the search listener once per item. Each of those
+ * listener calls copies and rebuilds the growing search delta, so the cost is
+ * quadratic. It only runs with {@code entityItems} items, 5,000 by default,
+ * because 50,000 does not finish in reasonable time. The items added by each
+ * invocation are deleted before the next one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MenuImportBenchmark {
+
+    private static final String[] DISHES = { "Char Siu Rice", "Wonton Noodles", "Har Gow", "Siu Mai", "Egg Tart",
+            "Milk Tea", "Roast Goose", "Beef Brisket Noodles", "Pineapple Bun", "Congee with Century Egg" };
+    private static final String[] CATEGORIES = { "Dim Sum", "Main Course", "Noodles", "Rice", "Dessert", "Drinks" };
+
+    @Param("50000")
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private MenuImportService menuImportService;
+    private MenuItemsRepository menuItemsRepository;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbc;
+    private int restid;
+    private byte[] csv;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start("menu_import_benchmark",
+                "app.outbox.enabled=false",
+                "app.payments.reconcile-enabled=false",
+                "app.reviews.flush-enabled=false",
+                "app.search.indexer-enabled=false",
+                "app.autocomplete.enabled=false",
+                "app.popular.enabled=false",
+                "app.dispatch.enabled=false",
+                "app.rider-locations.flush-enabled=false");
+        menuImportService = context.getBean(MenuImportService.class);
+        menuItemsRepository = context.getBean(MenuItemsRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(10_000);
+        config.restaurants = 200;
+        config.menuItems = 4_000;
+        restid = new SyntheticDataGenerator(context.getBean(DataSource.class), config).generate().firstRestaurantId;
+        context.getBean(MenuSearchService.class).rebuild();
+
+        StringBuilder csvText = new StringBuilder("itemName,category,description,price\n");
+        StringBuilder jsonText = new StringBuilder("[");
+        for (int i = 0; i < items; i++) {
+            String name = DISHES[i % DISHES.length] + " No. " + i;
+            String category = CATEGORIES[i % CATEGORIES.length];
+            String price = (18 + i % 120) + ".50";
+            csvText.append(name).append(',').append(category).append(",\"Imported, house style\",").append(price)
+                    .append('\n');
+            jsonText.append(i == 0 ? "" : ",").append("{\"itemName\":\"").append(name).append("\",\"category\":\"")
+                    .append(category).append("\",\"description\":\"Imported, house style\",\"price\":").append(price)
+                    .append('}');
+        }
+        csv = csvText.toString().getBytes(StandardCharsets.UTF_8);
+        json = jsonText.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearImported() {
+        jdbc.update("DELETE FROM menu_items WHERE restid = ? AND description = 'Imported, house style'", restid);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MenuImportResult csv() throws Exception {
+        return menuImportService.importMenu(restid, new ByteArrayInputStream(csv), true);
+    }
+
+    @Benchmark
+    public MenuImportResult json() throws Exception {
+        return menuImportService.importMenu(restid, new ByteArrayInputStream(json), false);
+    }
+
+    @State(Scope.Benchmark)
+    public static class EntityBaseline {
+        @Param("5000")
+        public int entityItems;
+    }
+
+    @Benchmark
+    public int entities(EntityBaseline baseline) {
+        List<MenuItems> entities = new ArrayList<>(baseline.entityItems);
+        for (int i = 0; i < baseline.entityItems; i++) {
+            MenuItems item = new MenuItems();
+            item.setRestid(restid);
+            item.setItemName(DISHES[i % DISHES.length] + " No. " + i);
+            item.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            item.setDescription("Imported, house style");
+            item.setPrice(new BigDecimal((18 + i % 120) + ".50"));
+            entities.add(item);
+        }
+        return transactionTemplate.execute(status -> menuItemsRepository.saveAll(entities).size());
+    }
+}
@@ -0,0 +1,97 @@
+package com.mustudy.reactweb_backend.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mustudy.reactweb_backend.search.MenuSearchIndex;
+
+/**
+ * Top-20 query latency of {@link MenuSearchIndex} over a synthetic catalog of
+ * {@code items} menu items spread over 50k restaurants. Names are built from
+ * style, ingredient and dish word lists and descriptions add words from a
+ * generated long-tail vocabulary, so common words ("rice", "chicken") hit
+ * tens of thousands of items while the rest are rare. Queries cover a two-word
+ * exact match, a typo, a half-typed last word, and a two-letter prefix, which
+ * is the worst case because it expands to the most frequent matching terms.
+ *
+ * <p>Building the million-item index takes a few seconds and about 1 GB of
+ * heap; for a quick run use {@code -Djmh.args="-p items=100000 MenuSearchBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MenuSearchBenchmark {
+
+    private static final String[] STYLES = { "Braised", "Crispy", "Steamed", "Spicy", "Honey", "Roast", "Fried",
+            "Sweet and Sour", "Black Pepper", "Salted Egg", "Garlic", "Ginger", "Curry", "Satay", "Sichuan" };
+    private static final String[] INGREDIENTS = { "Char Siu", "Chicken", "Beef", "Pork", "Duck", "Goose", "Shrimp",
+            "Fish", "Squid", "Tofu", "Eggplant", "Mushroom", "Lamb", "Wonton", "Fish Ball", "Brisket", "Spare Ribs" };
+    private static final String[] DISHES = { "Rice", "Noodles", "Congee", "Soup", "Bao", "Dumplings", "Fried Rice",
+            "Rice Noodles", "Hot Pot", "Claypot Rice", "Cheung Fun", "Udon", "Salad", "Skewers", "Wrap" };
+    private static final String[] CATEGORIES = { "Dim Sum", "Main Course", "Noodles", "Rice", "Dessert", "Drinks",
+            "Snacks", "Soup", "Set Meal", "Vegetarian" };
+
+    @Param("1000000")
+    public int items;
+
+    @Param({ "char siu", "chiken rice", "beef noo", "ri", "house special" })
+    public String query;
+
+    private MenuSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        // 描述用嘅長尾字：大部份字只喺少數菜式出現
+        String[] vocabulary = new String[20000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 4 + random.nextInt(6);
+            for (int c = 0; c < length; c++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            vocabulary[i] = word.toString();
+        }
+        long begin = System.currentTimeMillis();
+        MenuSearchIndex.Builder builder = new MenuSearchIndex.Builder();
+        for (int i = 0; i < items; i++) {
+            String name = STYLES[random.nextInt(STYLES.length)] + " " + INGREDIENTS[random.nextInt(INGREDIENTS.length)]
+                    + " " + DISHES[random.nextInt(DISHES.length)];
+            StringBuilder description = new StringBuilder("House special");
+            for (int w = 0; w < 6; w++) {
+                // 平方令細 index 嘅字出現得多啲（近似 Zipf）
+                double r = random.nextDouble();
+                description.append(' ').append(vocabulary[(int) (r * r * vocabulary.length)]);
+            }
+            builder.add(new MenuSearchIndex.Item(i + 1, 1 + random.nextInt(50_000), name,
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], description.toString(),
+                    BigDecimal.valueOf(2000 + random.nextInt(10000), 2)));
+        }
+        index = builder.build();
+        System.out.printf("%nindexed %d items, %d terms in %d ms%n", index.size(), index.termCount(),
+                System.currentTimeMillis() - begin);
+    }
+
+    @Benchmark
+    public List<MenuSearchIndex.Hit> search() {
+        return index.search(query, 20, doc -> true);
+    }
+}
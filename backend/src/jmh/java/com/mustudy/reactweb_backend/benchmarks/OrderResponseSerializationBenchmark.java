@@ -0,0 +1,124 @@
+package com.mustudy.reactweb_backend.benchmarks;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mustudy.reactweb_backend.dto.OrderSummary;
+import com.mustudy.reactweb_backend.models.Customer;
+import com.mustudy.reactweb_backend.models.CustomerAddress;
+import com.mustudy.reactweb_backend.models.Orders;
+import com.mustudy.reactweb_backend.models.Restaurant;
+
+/**
+ * JSON encoding of the {@code /api/orders/available} body with {@code orders}
+ * ready orders. {@code entities} serializes {@link Orders} with customer,
+ * restaurant and address loaded, which is what Jackson produced after walking
+ * the lazy associations (each of those was also one extra query, not counted
+ * here). {@code summaries} serializes the flat {@link OrderSummary} list the
+ * endpoint returns now. Setup prints the body size of both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderResponseSerializationBenchmark {
+
+    @Param({ "50", "500" })
+    public int orders;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Map<String, Object> entityBody;
+    private Map<String, Object> summaryBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<Orders> entities = new ArrayList<>();
+        List<OrderSummary> summaries = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < orders; i++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setRestid(1 + i % 40);
+            restaurant.setRestname("Restaurant " + restaurant.getRestid());
+            restaurant.setEmail("rest" + restaurant.getRestid() + "@example.com");
+            restaurant.setDescription("Cantonese roast meats and noodles since 1985");
+            restaurant.setAddress(restaurant.getRestid() + " Nathan Road, Mong Kok");
+            restaurant.setLatitude(new BigDecimal("22.319300"));
+            restaurant.setLongitude(new BigDecimal("114.169400"));
+            restaurant.setPassHash1("$2a$10$abcdefghijklmnopqrstuv");
+            restaurant.setPassHash2("$2a$10$abcdefghijklmnopqrstuv");
+            restaurant.setCreatedTime(new Timestamp(now));
+
+            Customer customer = new Customer();
+            customer.setCustid(1000 + i);
+            customer.setCustname("Customer " + i);
+            customer.setPhone("9123" + (1000 + i));
+            customer.setEmail("customer" + i + "@example.com");
+            customer.setPassHash1("$2a$10$abcdefghijklmnopqrstuv");
+            customer.setPassHash2("$2a$10$abcdefghijklmnopqrstuv");
+            customer.setCreatedTime(new Timestamp(now));
+
+            CustomerAddress address = new CustomerAddress();
+            address.setAddressid(5000 + i);
+            address.setCustid(customer.getCustid());
+            address.setAddressLine1("Flat " + i + ", 12/F, Block B");
+            address.setAddressLine2("Whampoa Garden");
+            address.setCity("Kowloon");
+            address.setCreatedTime(new Timestamp(now));
+            address.setCustomer(customer);
+
+            Orders order = new Orders();
+            order.setOrderid(100_000 + i);
+            order.setCustid(customer.getCustid());
+            order.setRestid(restaurant.getRestid());
+            order.setAddressid(address.getAddressid());
+            order.setShippingAddress(address.getAddressLine1() + ", " + address.getAddressLine2());
+            order.setStatus(Orders.OrderStatus.ready);
+            order.setTotalAmount(new BigDecimal("128.50"));
+            order.setRemark(i % 3 == 0 ? "少甜" : null);
+            order.setChangeLog("[" + new Timestamp(now) + "] status: preparing -> ready");
+            order.setCreatedTime(new Timestamp(now));
+            order.setCustomer(customer);
+            order.setRestaurant(restaurant);
+            order.setCustomerAddress(address);
+            entities.add(order);
+
+            summaries.add(new OrderSummary(order.getOrderid(), order.getCustid(), order.getRestid(),
+                    restaurant.getRestname(), restaurant.getAddress(), order.getShippingAddress(), null,
+                    order.getStatus(), order.getTotalAmount(), order.getDiscountAmount(), order.getRemark(),
+                    order.getCreatedTime(), null, null));
+        }
+        entityBody = Map.of("success", true, "orders", entities);
+        summaryBody = Map.of("success", true, "orders", summaries);
+        System.out.printf("%n%d orders: entities %d bytes, summaries %d bytes%n", orders,
+                objectMapper.writeValueAsBytes(entityBody).length, objectMapper.writeValueAsBytes(summaryBody).length);
+    }
+
+    @Benchmark
+    public byte[] entities() throws Exception {
+        return objectMapper.writeValueAsBytes(entityBody);
+    }
+
+    @Benchmark
+    public byte[] summaries() throws Exception {
+        return objectMapper.writeValueAsBytes(summaryBody);
+    }
+}
@@ -0,0 +1,134 @@
+package com.mustudy.reactweb_backend.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+import com.mustudy.reactweb_backend.models.Payment;
+import com.mustudy.reactweb_backend.services.LocalPaymentGateway;
+import com.mustudy.reactweb_backend.services.PaymentService;
+
+/**
+ * One reconciliation pass over a payments table of {@code rows} rows (one
+ * payment per synthetic order) with 10% of them reset to pending before each
+ * iteration: {@link PaymentService#reconcile()} (keyset chunks, one gateway
+ * lookup and one batch update per chunk) against a per-row loop (select, lookup
+ * and update for every pending payment). The local gateway charges
+ * {@code lookupLatencyMs} per lookup call as a stand-in for the API round trip;
+ * H2 runs in process, so database round trips are not part of the numbers and a
+ * real MySQL widens the gap further.
+ *
+ * <p>The default million rows needs about 4 GB of heap for the in-memory H2
+ * database; for a quick run use {@code -Djmh.args="-p rows=100000 PaymentReconciliationBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PaymentReconciliationBenchmark {
+
+    @Param("1000000")
+    public int rows;
+
+    @Param("1")
+    public int lookupLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private LocalPaymentGateway gateway;
+    private JdbcTemplate jdbc;
+    private int firstPaymentId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start("payment_benchmark",
+                "app.outbox.enabled=false",
+                "app.payments.reconcile-enabled=false",
+                "app.payments.reconcile-grace-ms=0",
+                "app.payments.gateway.lookup-latency-ms=" + lookupLatencyMs);
+        paymentService = context.getBean(PaymentService.class);
+        gateway = context.getBean(LocalPaymentGateway.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(rows);
+        firstPaymentId = new SyntheticDataGenerator(context.getBean(DataSource.class), config).generate().firstPaymentId;
+
+        // 平台嗰邊：網上付款 98% 成功
+        for (int id = firstPaymentId; id < firstPaymentId + rows; id++) {
+            gateway.record("SYN-" + id, id % 50 == 0 ? Payment.PaymentStatus.failed : Payment.PaymentStatus.paid);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPending() {
+        jdbc.update("UPDATE payments SET payment_status = 'pending' WHERE MOD(invoiceID, 10) = 0");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Integer> batched() {
+        return paymentService.reconcile();
+    }
+
+    @Benchmark
+    public int perRow() {
+        List<Integer> pending = jdbc.queryForList(
+                "SELECT invoiceID FROM payments WHERE payment_status = 'pending' ORDER BY invoiceID", Integer.class);
+        int settled = 0;
+        for (Integer invoiceId : pending) {
+            Map<String, Object> row = jdbc.queryForMap("SELECT p.ext_ref_num, p.payment_method, p.receive_amount,"
+                    + " o.status, o.total_amount, o.discount_amount FROM payments p JOIN orders o ON o.orderid = p.orderid"
+                    + " WHERE p.invoiceID = ?", invoiceId);
+            Payment.PaymentStatus status = decide(row);
+            if (status != null) {
+                settled += jdbc.update("UPDATE payments SET payment_status = ? WHERE invoiceID = ? AND payment_status = 'pending'",
+                        status.name(), invoiceId);
+            }
+        }
+        return settled;
+    }
+
+    private Payment.PaymentStatus decide(Map<String, Object> row) {
+        BigDecimal due = ((BigDecimal) row.get("total_amount")).subtract((BigDecimal) row.get("discount_amount"));
+        if (((BigDecimal) row.get("receive_amount")).compareTo(due) != 0) {
+            return Payment.PaymentStatus.failed;
+        }
+        if ("cash_on_delivery".equals(row.get("payment_method"))) {
+            String orderStatus = (String) row.get("status");
+            return "delivered".equals(orderStatus) ? Payment.PaymentStatus.paid
+                    : "cancelled".equals(orderStatus) ? Payment.PaymentStatus.failed : null;
+        }
+        String extRefNum = (String) row.get("ext_ref_num");
+        Payment.PaymentStatus status = extRefNum == null ? null : gateway.lookup(List.of(extRefNum)).get(extRefNum);
+        if (status == null) {
+            return Payment.PaymentStatus.failed;
+        }
+        return status == Payment.PaymentStatus.pending ? null : status;
+    }
+}
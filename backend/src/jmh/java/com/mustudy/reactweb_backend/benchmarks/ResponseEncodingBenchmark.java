@@ -0,0 +1,134 @@
+package com.mustudy.reactweb_backend.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.mustudy.reactweb_backend.dto.MenuItemResponse;
+import com.mustudy.reactweb_backend.dto.OrderItemResponse;
+import com.mustudy.reactweb_backend.dto.OrderResponse;
+
+/**
+ * Encoding cost of two typical mobile responses: {@code menu} is
+ * {@code /api/menu/restaurant/{id}} with 60 items, {@code orders} is
+ * {@code /api/orders/customer/{id}} with 30 orders of 1-4 items each.
+ * {@code json} is the default, {@code jsonGzip} what Tomcat sends when the
+ * client accepts gzip, {@code cbor} and {@code smile} the binary encodings
+ * selected by Accept. Setup prints the body size of each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    private static final String[] DISHES = { "Char Siu Rice", "Wonton Noodles", "Har Gow", "Siu Mai", "Egg Tart",
+            "Milk Tea", "Roast Goose", "Beef Brisket Noodles", "Pineapple Bun", "Congee with Century Egg" };
+    private static final String[] CATEGORIES = { "Dim Sum", "Main Course", "Noodles", "Rice", "Dessert", "Drinks" };
+
+    @Param({ "menu", "orders" })
+    public String payload;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final CBORMapper cbor = new CBORMapper();
+    private final SmileMapper smile = new SmileMapper();
+    private Map<String, Object> body;
+
+    @Setup
+    public void setUp() throws Exception {
+        Random random = new Random(5);
+        body = "menu".equals(payload)
+                ? Map.of("success", true, "menuItems", menu(random))
+                : Map.of("success", true, "orders", orders(random));
+        System.out.printf("%n%s: json %d, json+gzip %d, cbor %d, smile %d bytes%n", payload,
+                json().length, jsonGzip().length, cbor().length, smile().length);
+    }
+
+    private static List<MenuItemResponse> menu(Random random) {
+        List<MenuItemResponse> items = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            String dish = DISHES[random.nextInt(DISHES.length)];
+            items.add(new MenuItemResponse(1000 + i, 42, dish + " " + (i + 1), "House special " + dish.toLowerCase(),
+                    BigDecimal.valueOf(15 + random.nextInt(120)).add(new BigDecimal("0.50")),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], null));
+            items.get(i).setStatus("active");
+        }
+        return items;
+    }
+
+    private static List<OrderResponse> orders(Random random) {
+        List<OrderResponse> orders = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 30; i++) {
+            OrderResponse order = new OrderResponse();
+            order.setOrderId(500_000 + i);
+            order.setStatus(i == 0 ? "out_for_delivery" : "delivered");
+            order.setTotalAmount(BigDecimal.valueOf(60 + random.nextInt(300)).add(new BigDecimal("0.50")));
+            order.setDiscountAmount(BigDecimal.ZERO);
+            order.setRemark(i % 4 == 0 ? "走冰少甜" : null);
+            order.setCreatedTime(new Timestamp(now - i * 86_400_000L));
+            order.setCustomerName("Chan Tai Man");
+            order.setRestaurantName("Restaurant " + (1 + random.nextInt(8)));
+            order.setShippingAddress("Flat 12B, 18/F, Block 3, Whampoa Garden, Hung Hom, Kowloon");
+            List<OrderItemResponse> items = new ArrayList<>();
+            for (int j = 1 + random.nextInt(4); j > 0; j--) {
+                OrderItemResponse item = new OrderItemResponse();
+                item.setItemId(1000 + random.nextInt(60));
+                item.setItemName(DISHES[random.nextInt(DISHES.length)]);
+                item.setQuantity(1 + random.nextInt(3));
+                item.setPrice(BigDecimal.valueOf(15 + random.nextInt(120)).add(new BigDecimal("0.50")));
+                items.add(item);
+            }
+            order.setOrderItems(items);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    @Benchmark
+    public byte[] json() throws Exception {
+        return json.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] jsonGzip() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            json.writeValue(gzip, body);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] cbor() throws Exception {
+        return cbor.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] smile() throws Exception {
+        return smile.writeValueAsBytes(body);
+    }
+}
@@ -0,0 +1,113 @@
+package com.mustudy.reactweb_backend.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mustudy.reactweb_backend.dispatch.RiderGrid;
+
+/**
+ * Candidate selection for one ready order: the 10 nearest free riders within
+ * 6 km of the restaurant, with {@code riders} riders spread over a
+ * Hong Kong-sized area and a fifth of them busy. {@code grid} uses
+ * {@link RiderGrid}; {@code scan} computes the distance to every rider, which
+ * is the cost of matching without a spatial index. Each invocation takes the
+ * next of 2,000 simulated orders from random restaurant locations.
+ * {@code locationUpdate} is the cost of one rider position report, mostly
+ * within the same cell and sometimes moving to the next one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RiderDispatchBenchmark {
+
+    private static final double KM = 6;
+    private static final int CANDIDATES = 10;
+
+    @Param({ "1000", "10000" })
+    public int riders;
+
+    private RiderGrid grid;
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[][] orders;
+    private int nextOrder;
+    private int nextRider;
+    private final Random random = new Random(11);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = new RiderGrid();
+        latitudes = new double[riders];
+        longitudes = new double[riders];
+        for (int id = 0; id < riders; id++) {
+            latitudes[id] = 22.20 + random.nextDouble() * 0.30;
+            longitudes[id] = 113.90 + random.nextDouble() * 0.40;
+            grid.update(id, latitudes[id], longitudes[id], 1);
+        }
+        orders = new double[2000][];
+        for (int i = 0; i < orders.length; i++) {
+            orders[i] = new double[] { 22.20 + random.nextDouble() * 0.30, 113.90 + random.nextDouble() * 0.40 };
+        }
+    }
+
+    private static boolean free(int riderId) {
+        return riderId % 5 != 0;
+    }
+
+    @Benchmark
+    public List<RiderGrid.Candidate> grid() {
+        double[] order = orders[nextOrder++ % orders.length];
+        return grid.nearest(order[0], order[1], KM, CANDIDATES, 0, RiderDispatchBenchmark::free);
+    }
+
+    @Benchmark
+    public List<RiderGrid.Candidate> scan() {
+        double[] order = orders[nextOrder++ % orders.length];
+        PriorityQueue<RiderGrid.Candidate> farthestFirst = new PriorityQueue<>(
+                Comparator.comparingDouble(RiderGrid.Candidate::distanceKm).reversed());
+        for (int id = 0; id < riders; id++) {
+            if (!free(id)) {
+                continue;
+            }
+            double distance = RiderGrid.distanceKm(order[0], order[1], latitudes[id], longitudes[id]);
+            if (distance <= KM) {
+                farthestFirst.add(new RiderGrid.Candidate(id, distance));
+                if (farthestFirst.size() > CANDIDATES) {
+                    farthestFirst.poll();
+                }
+            }
+        }
+        List<RiderGrid.Candidate> result = new ArrayList<>(farthestFirst);
+        result.sort(Comparator.comparingDouble(RiderGrid.Candidate::distanceKm));
+        return result;
+    }
+
+    @Benchmark
+    public void locationUpdate() {
+        int id = nextRider++ % riders;
+        // 每次報位置郁幾十米
+        latitudes[id] += (random.nextDouble() - 0.5) * 0.0005;
+        longitudes[id] += (random.nextDouble() - 0.5) * 0.0005;
+        grid.update(id, latitudes[id], longitudes[id], 2);
+    }
+}
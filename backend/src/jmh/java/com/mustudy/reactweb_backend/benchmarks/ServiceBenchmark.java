@@ -0,0 +1,128 @@
+package com.mustudy.reactweb_backend.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.mustudy.reactweb_backend.dto.LoginRequest;
+import com.mustudy.reactweb_backend.dto.LoginResponse;
+import com.mustudy.reactweb_backend.dto.MenuItemResponse;
+import com.mustudy.reactweb_backend.dto.RegisterRequest;
+import com.mustudy.reactweb_backend.load.LoadTestData;
+import com.mustudy.reactweb_backend.models.MenuItems;
+import com.mustudy.reactweb_backend.models.Orders;
+import com.mustudy.reactweb_backend.repositories.CustomerRepository;
+import com.mustudy.reactweb_backend.repositories.MenuItemsRepository;
+import com.mustudy.reactweb_backend.repositories.RestaurantRepository;
+import com.mustudy.reactweb_backend.services.AuthService;
+import com.mustudy.reactweb_backend.services.CartService;
+import com.mustudy.reactweb_backend.services.MenuService;
+import com.mustudy.reactweb_backend.services.OrderService;
+
+/**
+ * Service hot paths that hit the database: menu read, order creation and
+ * login, on a seeded H2 database inside a full Spring context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final String LOGIN_EMAIL = "bench@email.com";
+    private static final String LOGIN_PASSWORD = "password123";
+
+    private ConfigurableApplicationContext context;
+    private MenuService menuService;
+    private OrderService orderService;
+    private CartService cartService;
+    private AuthService authService;
+    private LoadTestData data;
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("service_benchmark");
+        menuService = context.getBean(MenuService.class);
+        orderService = context.getBean(OrderService.class);
+        cartService = context.getBean(CartService.class);
+        authService = context.getBean(AuthService.class);
+
+        data = LoadTestData.seed(
+                context.getBean(RestaurantRepository.class),
+                context.getBean(MenuItemsRepository.class),
+                context.getBean(CustomerRepository.class),
+                10, 50, 64);
+
+        RegisterRequest register = new RegisterRequest();
+        register.setUserType("customer");
+        register.setName("Bench Customer");
+        register.setEmail(LOGIN_EMAIL);
+        register.setPassword(LOGIN_PASSWORD);
+        register.setAddressLine1("1 Bench Road");
+        authService.registerUser(register);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /** 每條 benchmark thread 用自己嘅 customer，購物車唔會互相影響 */
+    @State(Scope.Thread)
+    public static class Customer {
+        Integer custid;
+        int iteration;
+
+        @Setup(Level.Trial)
+        public void setUp(ServiceBenchmark benchmark) {
+            custid = benchmark.data.customerIds.get(benchmark.threads.getAndIncrement() % benchmark.data.customerIds.size());
+        }
+    }
+
+    @Benchmark
+    public List<MenuItemResponse> getMenuByRestaurantDTO(Customer customer) {
+        Integer restid = data.restaurantIds.get(customer.iteration++ % data.restaurantIds.size());
+        return menuService.getMenuByRestaurantDTO(restid);
+    }
+
+    @Benchmark
+    public Orders createOrderFromCart(Customer customer) {
+        int offset = customer.iteration++;
+        MenuItems first = null;
+        for (int i = 0; i < 3; i++) {
+            MenuItems item = data.menuItems.get((offset * 3 + i) % data.menuItems.size());
+            if (first == null) {
+                first = item;
+            }
+            cartService.addToCart(customer.custid.toString(), new CartService.CartItem(
+                    item.getItemId(), item.getItemName(), 1, item.getPrice(), null));
+        }
+        return orderService.createOrderFromCart(customer.custid, first.getRestid(), null, "1 Bench Road", null);
+    }
+
+    @Benchmark
+    public LoginResponse login() {
+        LoginRequest request = new LoginRequest();
+        request.setUserType("customer");
+        request.setEmail(LOGIN_EMAIL);
+        request.setPassword(LOGIN_PASSWORD);
+        return authService.login(request);
+    }
+}
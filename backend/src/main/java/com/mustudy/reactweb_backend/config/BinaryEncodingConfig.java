@@ -0,0 +1,30 @@
+package com.mustudy.reactweb_backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * 手機 app 用 Accept: application/cbor / application/x-jackson-smile 攞 binary response，其他 client 照舊 JSON。
+ * 用 Spring Boot 嘅 Jackson2ObjectMapperBuilder 起 mapper，設定同 JSON 一樣；Boot 會將佢哋放返
+ * 預設 converter 嘅位置（JSON 後面），所以冇指定或者乜都收嘅 Accept 仍然係 JSON。
+ */
+@Configuration
+public class BinaryEncodingConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    // Smile 會 back-reference 重複嘅 field name，List 入面每個 object 嘅 key 只係寫一次
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+}
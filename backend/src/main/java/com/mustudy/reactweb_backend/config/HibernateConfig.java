@@ -0,0 +1,22 @@
+package com.mustudy.reactweb_backend.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(
+            @Value("${app.sql.sample-rate:0}") double sampleRate,
+            SqlStatementCounter sqlStatementCounter) {
+        SampledSqlLogger sampledSqlLogger = new SampledSqlLogger(sampleRate);
+        // Hibernate 只接受一個 StatementInspector，兩個串埋一齊
+        StatementInspector inspector = sql -> sqlStatementCounter.inspect(sampledSqlLogger.inspect(sql));
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+}
@@ -0,0 +1,30 @@
+package com.mustudy.reactweb_backend.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 按比例抽樣記錄 Hibernate 執行嘅 SQL（logger: sql.sample），
+ * 唔使喺 production 開 org.hibernate.SQL=DEBUG 都睇到實際 query。
+ */
+public class SampledSqlLogger implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger("sql.sample");
+
+    private final double sampleRate;
+
+    public SampledSqlLogger(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate && log.isInfoEnabled()) {
+            log.info("Sampled SQL: {}", sql);
+        }
+        return sql;
+    }
+}
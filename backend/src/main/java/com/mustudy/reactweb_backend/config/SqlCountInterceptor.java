@@ -0,0 +1,53 @@
+package com.mustudy.reactweb_backend.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 將每個 request 嘅 SQL 句數記錄落 http.server.requests.sql (tag: method, uri)，
+ * 配合 http.server.requests 一齊喺 /actuator/prometheus 睇。
+ */
+public class SqlCountInterceptor implements HandlerInterceptor {
+
+    static final String METRIC = "http.server.requests.sql";
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry registry;
+    // 每個 method + uri 嘅 summary 只 build 一次，hot path 唔使再 allocate builder / tags
+    private final ConcurrentHashMap<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public SqlCountInterceptor(SqlStatementCounter counter, MeterRegistry registry) {
+        this.counter = counter;
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        counter.begin();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        int statements = counter.end();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String method = request.getMethod();
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        summaries.computeIfAbsent(method + ' ' + uri, key -> DistributionSummary.builder(METRIC)
+                .description("SQL statements executed per request")
+                .baseUnit("statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(registry))
+                .record(statements);
+    }
+}
@@ -0,0 +1,38 @@
+package com.mustudy.reactweb_backend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * 計每個 request 經 Hibernate 執行咗幾多句 SQL，用嚟捉 N+1 query。
+ * begin() / end() 由 SqlCountInterceptor 喺 request 開始同結束時 call。
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> counter = new ThreadLocal<>();
+
+    public void begin() {
+        counter.set(new int[1]);
+    }
+
+    public int end() {
+        int[] count = counter.get();
+        counter.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    public int current() {
+        int[] count = counter.get();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = counter.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
@@ -1,6 +1,8 @@
 package com.mustudy.reactweb_backend.controller;
 
+import com.mustudy.reactweb_backend.services.ConnectionPoolService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
 
@@ -8,6 +10,8 @@ import javax.sql.DataSource;
 import java.util.List;
 import java.util.Map;
 
+// 只係 debug 用，第一次 call 先建，唔拖慢啟動
+@Lazy
 @RestController
 @RequestMapping("/api/db-food_order_system")
 @CrossOrigin(origins = "http://localhost:5173")
@@ -15,6 +19,9 @@ public class DatabaseTestController {
     
     @Autowired
     private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ConnectionPoolService connectionPoolService;
     
     @GetMapping("/food_order_system")
     public String testConnection() {
@@ -31,6 +38,12 @@ public class DatabaseTestController {
         return jdbcTemplate.queryForList("SHOW TABLES");
     }
     
+    // 連接池狀態（active / idle / pending + acquire time histogram）
+    @GetMapping("/pool")
+    public Map<String, Object> getPoolStats() {
+        return connectionPoolService.getPoolStats();
+    }
+
     @GetMapping("/customers")
     public List<Map<String, Object>> getCustomers() {
         return jdbcTemplate.queryForList("SELECT * FROM customer WHERE isValidate = TRUE");
@@ -0,0 +1,67 @@
+package com.mustudy.reactweb_backend.controller;
+
+import com.mustudy.reactweb_backend.dto.DeliveryTrackingResponse;
+import com.mustudy.reactweb_backend.dto.RiderTrackResponse;
+import com.mustudy.reactweb_backend.services.DeliveryService;
+import com.mustudy.reactweb_backend.services.RiderLocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/deliveries")
+@CrossOrigin(origins = "http://localhost:5173")
+public class DeliveryController {
+
+    @Autowired
+    private DeliveryService deliveryService;
+
+    @Autowired
+    private RiderLocationService riderLocationService;
+
+    // 追蹤畫面會不停 poll，送緊嘅單由 memory 返回
+    @GetMapping("/order/{orderid}")
+    public ResponseEntity<?> getTracking(@PathVariable Integer orderid) {
+        try {
+            DeliveryTrackingResponse tracking = deliveryService.getTracking(orderid);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "delivery", tracking
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    // 外賣員位置同路線；since = 上次攞到嘅最後一點時間（epoch 毫秒），之後只會返回新嘅點
+    @GetMapping("/order/{orderid}/location")
+    public ResponseEntity<?> getRiderLocation(
+            @PathVariable Integer orderid,
+            @RequestParam(required = false) Long since) {
+        try {
+            RiderTrackResponse track = riderLocationService.getTrack(orderid, since);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "track", track
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    @GetMapping("/restaurant/{restid}/estimate")
+    public ResponseEntity<?> getEstimate(@PathVariable Integer restid) {
+        Map<String, Object> response = new HashMap<>(deliveryService.getEstimate(restid));
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+}
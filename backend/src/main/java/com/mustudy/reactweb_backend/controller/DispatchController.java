@@ -0,0 +1,113 @@
+package com.mustudy.reactweb_backend.controller;
+
+import com.mustudy.reactweb_backend.dto.DispatchOffer;
+import com.mustudy.reactweb_backend.dto.LocationPoint;
+import com.mustudy.reactweb_backend.models.Orders;
+import com.mustudy.reactweb_backend.services.DispatchService;
+import com.mustudy.reactweb_backend.services.OrderService;
+import com.mustudy.reactweb_backend.services.RiderLocationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dispatch")
+@CrossOrigin(origins = "http://localhost:5173")
+public class DispatchController {
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private RiderLocationService riderLocationService;
+
+    @Autowired
+    private OrderService orderService;
+
+    // 外賣員開工 / 報位置
+    @PutMapping("/riders/{staffId}/location")
+    public ResponseEntity<?> updateLocation(
+            @PathVariable Integer staffId,
+            @RequestBody Map<String, Double> request) {
+        try {
+            LocationPoint point = new LocationPoint();
+            point.setLatitude(request.get("latitude"));
+            point.setLongitude(request.get("longitude"));
+            riderLocationService.record(staffId, List.of(point));
+            return ResponseEntity.ok(Map.of("success", true));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()));
+        }
+    }
+
+    // 外賣員 app 每幾秒報一次，可以一次過報幾點（例如收唔到網之後補報）
+    @PostMapping("/riders/{staffId}/locations")
+    public ResponseEntity<?> reportLocations(
+            @PathVariable Integer staffId,
+            @RequestBody List<LocationPoint> points) {
+        try {
+            int accepted = riderLocationService.record(staffId, points);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "success", true,
+                    "accepted", accepted));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()));
+        }
+    }
+
+    // 外賣員收工
+    @DeleteMapping("/riders/{staffId}/location")
+    public ResponseEntity<?> goOffline(@PathVariable Integer staffId) {
+        dispatchService.goOffline(staffId);
+        return ResponseEntity.ok(Map.of("success", true));
+    }
+
+    // 而家派咗邊張單俾呢個外賣員（冇就係 null）
+    @GetMapping("/riders/{staffId}/offer")
+    public ResponseEntity<?> getOffer(@PathVariable Integer staffId) {
+        DispatchOffer offer = dispatchService.getOffer(staffId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("offer", offer);
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/offers/{orderid}/accept")
+    public ResponseEntity<?> acceptOffer(
+            @PathVariable Integer orderid,
+            @RequestBody Map<String, Integer> request) {
+        try {
+            Orders order = dispatchService.acceptOffer(orderid, request.get("deliveryManId"));
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "接單成功",
+                    "order", orderService.toSummary(order)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()));
+        }
+    }
+
+    @PutMapping("/offers/{orderid}/decline")
+    public ResponseEntity<?> declineOffer(
+            @PathVariable Integer orderid,
+            @RequestBody Map<String, Integer> request) {
+        try {
+            dispatchService.declineOffer(orderid, request.get("deliveryManId"));
+            return ResponseEntity.ok(Map.of("success", true));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()));
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.mustudy.reactweb_backend.controller;
 
+import com.mustudy.reactweb_backend.dto.MenuImportResult;
 import com.mustudy.reactweb_backend.dto.MenuItemResponse;
-import com.mustudy.reactweb_backend.models.MenuItems;
+import com.mustudy.reactweb_backend.dto.MenuSearchResult;
+import com.mustudy.reactweb_backend.dto.PopularItem;
+import com.mustudy.reactweb_backend.services.MenuImportService;
+import com.mustudy.reactweb_backend.services.MenuSearchService;
 import com.mustudy.reactweb_backend.services.MenuService;
+import com.mustudy.reactweb_backend.services.PopularItemsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +23,15 @@ public class MenuController {
     @Autowired
     private MenuService menuService;
 
+    @Autowired
+    private MenuSearchService menuSearchService;
+
+    @Autowired
+    private PopularItemsService popularItemsService;
+
+    @Autowired
+    private MenuImportService menuImportService;
+
     @GetMapping("/restaurant/{restid}")
     public ResponseEntity<?> getMenuByRestaurant(@PathVariable Integer restid) {
         try {
@@ -33,13 +48,98 @@ public class MenuController {
         }
     }
     
+    // 批量新增 / 更新菜單：Content-Type text/csv（第一行 header）或者 application/json（array），body 直接 stream 入嚟
+    @PostMapping(value = "/restaurant/{restid}/import", consumes = { "text/csv", "application/json" })
+    public ResponseEntity<?> importMenu(
+            @PathVariable Integer restid,
+            @RequestHeader("Content-Type") String contentType,
+            InputStream body) {
+        try {
+            MenuImportResult result = menuImportService.importMenu(restid, body, contentType.startsWith("text/csv"));
+            if (!result.getErrors().isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "菜單資料有錯，冇任何改動",
+                    "result", result
+                ));
+            }
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "result", result
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    // 呢間餐廳嘅人氣菜式
+    @GetMapping("/restaurant/{restid}/popular")
+    public ResponseEntity<?> getPopularItems(
+            @PathVariable Integer restid,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<PopularItem> items = popularItemsService.getBestSellers(restid, limit);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "items", items
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    // 客人之前叫過嘅菜（再叫一次）
+    @GetMapping("/reorder/{custid}")
+    public ResponseEntity<?> getReorderItems(
+            @PathVariable Integer custid,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<PopularItem> items = popularItemsService.getReorderItems(custid, limit);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "items", items
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    // 全部餐廳搵菜式，例如 /api/menu/search?q=char siu&restid=3
+    @GetMapping("/search")
+    public ResponseEntity<?> searchMenu(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer restid,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<MenuSearchResult> results = menuSearchService.search(q, restid, limit);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "results", results
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
     @GetMapping("/category/{category}")
-    public List<MenuItems> getMenuByCategory(@PathVariable String category) {
+    public List<MenuItemResponse> getMenuByCategory(@PathVariable String category) {
         return menuService.getMenuByCategory(category);
     }
 
     @GetMapping("/restaurant/{restid}/category/{category}")
-    public List<MenuItems> getMenuByRestaurantAndCategory(
+    public List<MenuItemResponse> getMenuByRestaurantAndCategory(
             @PathVariable Integer restid, 
             @PathVariable String category) {
         return menuService.getMenuByRestaurantAndCategory(restid, category);
@@ -0,0 +1,25 @@
+package com.mustudy.reactweb_backend.controller;
+
+import com.mustudy.reactweb_backend.services.OrderMetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = "http://localhost:5173")
+public class MetricsController {
+
+    @Autowired
+    private OrderMetricsService orderMetricsService;
+
+    // 訂單指標：每分鐘落單數（全部 / 每間餐廳）、準備時間、外送時間
+    @GetMapping("/orders")
+    public ResponseEntity<?> getOrderMetrics(@RequestParam(defaultValue = "60") Integer window) {
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "metrics", orderMetricsService.getSnapshot(window)));
+    }
+}
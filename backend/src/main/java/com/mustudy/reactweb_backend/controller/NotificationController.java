@@ -0,0 +1,40 @@
+package com.mustudy.reactweb_backend.controller;
+
+import com.mustudy.reactweb_backend.models.Notification;
+import com.mustudy.reactweb_backend.services.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notifications")
+@CrossOrigin(origins = "http://localhost:5173")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    // 例如 /api/notifications/customer/1?limit=20，下一頁加 &before=<nextCursor>
+    @GetMapping("/{recipientType}/{receiverId}")
+    public ResponseEntity<?> getNotifications(
+            @PathVariable String recipientType,
+            @PathVariable Integer receiverId,
+            @RequestParam(required = false) Integer before,
+            @RequestParam(defaultValue = "20") Integer limit) {
+        try {
+            Notification.RecipientType type = Notification.RecipientType.valueOf(recipientType);
+            Map<String, Object> response = new HashMap<>(
+                    notificationService.getNotifications(type, receiverId, before, limit));
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+}
@@ -78,7 +78,7 @@ public class OrderController {
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Order status updated successfully",
-                    "order", order));
+                    "order", orderService.toSummary(order)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -93,7 +93,7 @@ public class OrderController {
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Order cancelled successfully",
-                    "order", order));
+                    "order", orderService.toSummary(order)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -120,7 +120,7 @@ public class OrderController {
     @GetMapping("/available")
     public ResponseEntity<?> getAvailableOrders() {
         try {
-            List<Orders> availableOrders = orderService.getAvailableOrders();
+            List<OrderSummary> availableOrders = orderService.getAvailableOrders();
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "orders", availableOrders));
@@ -142,7 +142,7 @@ public class OrderController {
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "接單成功",
-                    "order", order));
+                    "order", orderService.toSummary(order)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -158,7 +158,7 @@ public class OrderController {
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "訂單已完成",
-                    "order", order));
+                    "order", orderService.toSummary(order)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -174,7 +174,7 @@ public class OrderController {
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "訂單已標記為準備完成",
-                    "order", order));
+                    "order", orderService.toSummary(order)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -186,7 +186,7 @@ public class OrderController {
     @GetMapping("/delivery/{deliveryManId}")
     public ResponseEntity<?> getOrdersByDeliveryMan(@PathVariable Integer deliveryManId) {
         try {
-            List<Orders> orders = orderService.getOrdersByDeliveryMan(deliveryManId);
+            List<OrderSummary> orders = orderService.getOrdersByDeliveryMan(deliveryManId);
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "orders", orders));
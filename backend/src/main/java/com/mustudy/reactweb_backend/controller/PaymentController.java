@@ -0,0 +1,87 @@
+package com.mustudy.reactweb_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mustudy.reactweb_backend.dto.CreatePaymentRequest;
+import com.mustudy.reactweb_backend.dto.PaymentCallback;
+import com.mustudy.reactweb_backend.models.Payment;
+import com.mustudy.reactweb_backend.services.PaymentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/payments")
+@CrossOrigin(origins = "http://localhost:5173")
+public class PaymentController {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping
+    public ResponseEntity<?> createPayment(@RequestBody CreatePaymentRequest request) {
+        try {
+            Payment payment = paymentService.createPayment(request.getOrderid(), request.getPaymentMethod());
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "payment", payment
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    @GetMapping("/order/{orderid}")
+    public ResponseEntity<?> getPaymentsByOrder(@PathVariable Integer orderid) {
+        List<Payment> payments = paymentService.getPaymentsByOrder(orderid);
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "payments", payments
+        ));
+    }
+
+    // 付款平台 webhook：簽名唔啱 401；收低就返回 202，狀態由背景 thread 批量更新；queue 滿就 503 叫平台重試
+    @PostMapping("/callback")
+    public ResponseEntity<?> callback(@RequestBody byte[] body,
+                                      @RequestHeader(value = "X-Signature", required = false) String signature) {
+        if (!paymentService.verifyCallbackSignature(body, signature)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                "success", false,
+                "message", "簽名無效"
+            ));
+        }
+        try {
+            PaymentCallback callback = objectMapper.readValue(body, PaymentCallback.class);
+            if (!paymentService.acceptCallback(callback)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                    "success", false,
+                    "message", "系統繁忙，請稍後再試"
+                ));
+            }
+            return ResponseEntity.accepted().body(Map.of("success", true));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    // 手動觸發對數（平時背景 thread 定時做）
+    @PostMapping("/reconcile")
+    public ResponseEntity<?> reconcile() {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "result", paymentService.reconcile()
+        ));
+    }
+}
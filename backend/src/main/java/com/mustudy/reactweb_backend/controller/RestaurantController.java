@@ -0,0 +1,57 @@
+package com.mustudy.reactweb_backend.controller;
+
+import com.mustudy.reactweb_backend.dto.RestaurantCard;
+import com.mustudy.reactweb_backend.services.RestaurantDirectoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/restaurants")
+@CrossOrigin(origins = "http://localhost:5173")
+public class RestaurantController {
+
+    @Autowired
+    private RestaurantDirectoryService restaurantDirectoryService;
+
+    // 例如 /api/restaurants?sort=distance&lat=22.28&lng=114.16&page=0&size=20
+    @GetMapping
+    public ResponseEntity<?> browse(
+            @RequestParam(defaultValue = "rating") String sort,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "false") boolean includeInactive,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            Map<String, Object> response = new HashMap<>(
+                    restaurantDirectoryService.browse(includeInactive, sort, lat, lng, page, size));
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    @GetMapping("/{restid}")
+    public ResponseEntity<?> getRestaurant(@PathVariable Integer restid) {
+        try {
+            RestaurantCard restaurant = restaurantDirectoryService.getRestaurant(restid);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "restaurant", restaurant
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+}
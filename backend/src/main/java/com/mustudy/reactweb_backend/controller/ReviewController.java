@@ -0,0 +1,84 @@
+package com.mustudy.reactweb_backend.controller;
+
+import com.mustudy.reactweb_backend.dto.CreateReviewRequest;
+import com.mustudy.reactweb_backend.models.OrderReview;
+import com.mustudy.reactweb_backend.services.ReviewService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reviews")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ReviewController {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    // 新增或者修改評價（同一張單再提交就係修改）
+    @PostMapping
+    public ResponseEntity<?> submitReview(@RequestBody CreateReviewRequest request) {
+        try {
+            OrderReview review = reviewService.submitReview(
+                    request.getOrderid(), request.getCustid(), request.getRating(), request.getReviewText());
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "review", review
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    @GetMapping("/order/{orderid}")
+    public ResponseEntity<?> getReviewByOrder(@PathVariable Integer orderid) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "review", reviewService.getReviewByOrder(orderid)
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    @GetMapping("/restaurant/{restid}/rating")
+    public ResponseEntity<?> getRating(@PathVariable Integer restid) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "rating", reviewService.getRating(restid)
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    // 列表頁一次過攞幾間餐廳嘅評分，例如 /api/reviews/ratings?restids=1,2,3
+    @GetMapping("/ratings")
+    public ResponseEntity<?> getRatings(@RequestParam List<Integer> restids) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "ratings", reviewService.getRatings(restids)
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+}
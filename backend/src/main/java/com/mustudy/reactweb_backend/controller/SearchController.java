@@ -0,0 +1,37 @@
+package com.mustudy.reactweb_backend.controller;
+
+import com.mustudy.reactweb_backend.dto.AutocompleteSuggestion;
+import com.mustudy.reactweb_backend.services.AutocompleteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:5173")
+public class SearchController {
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    // 搜尋框每打一個字叫一次，例如 /api/search/autocomplete?q=char s
+    @GetMapping("/autocomplete")
+    public ResponseEntity<?> autocomplete(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        try {
+            List<AutocompleteSuggestion> suggestions = autocompleteService.complete(q, limit);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "suggestions", suggestions
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.mustudy.reactweb_backend.dispatch;
+
+/**
+ * 一個外賣員最近 capacity 個 GPS 位置嘅 ring buffer：時間一條 long[]，經緯度用百萬分之一度存做 int[]
+ * （約 0.1 m，夠準），每點唔使開 object。新位置蓋最舊嘅。寫（外賣員 app）同讀（追蹤畫面 / 寫 DB）
+ * 都好短，用 synchronized 就夠。
+ */
+public class LocationTrack {
+
+    private static final double SCALE = 1_000_000;
+
+    @FunctionalInterface
+    public interface PointConsumer {
+        void accept(long time, double latitude, double longitude);
+    }
+
+    private final long[] times;
+    private final int[] latitudes;
+    private final int[] longitudes;
+    private int next;
+    private int count;
+    // 寫 DB 用：上次睇到邊一點、上次寫咗邊一點（downsample）；pending 係交咗出去但未確認寫好嘅
+    private long scannedUntil = Long.MIN_VALUE;
+    private long lastSampleTime = Long.MIN_VALUE;
+    private long pendingScannedUntil = Long.MIN_VALUE;
+    private long pendingSampleTime = Long.MIN_VALUE;
+
+    public LocationTrack(int capacity) {
+        times = new long[capacity];
+        latitudes = new int[capacity];
+        longitudes = new int[capacity];
+    }
+
+    /** 加一點；比最新嗰點舊（網絡亂序 / 重送）就唔要 */
+    public synchronized boolean add(long time, double latitude, double longitude) {
+        if (count > 0 && time <= times[index(count - 1)]) {
+            return false;
+        }
+        times[next] = time;
+        latitudes[next] = (int) Math.round(latitude * SCALE);
+        longitudes[next] = (int) Math.round(longitude * SCALE);
+        next = (next + 1) % times.length;
+        count = Math.min(count + 1, times.length);
+        return true;
+    }
+
+    /** 最新嗰點，冇就返回 false */
+    public synchronized boolean latest(PointConsumer consumer) {
+        if (count == 0) {
+            return false;
+        }
+        emit(index(count - 1), consumer);
+        return true;
+    }
+
+    /** since 之後嘅點，由舊到新；返回幾多點 */
+    public synchronized int forEachSince(long since, PointConsumer consumer) {
+        int emitted = 0;
+        for (int i = firstAfter(since); i < count; i++) {
+            emit(index(i), consumer);
+            emitted++;
+        }
+        return emitted;
+    }
+
+    /**
+     * 上次之後新收到嘅點，每 intervalMs 最多交一點出去寫 DB；冇交嘅點之後都唔會再交。
+     * 要 call {@link #commitDrain()} 先當寫好；未 commit 之前再 drain 會由上次 commit 嗰度重新交過。
+     */
+    public synchronized int drainSamples(long intervalMs, PointConsumer consumer) {
+        int emitted = 0;
+        long scanned = scannedUntil;
+        long sampled = lastSampleTime;
+        for (int i = firstAfter(scannedUntil); i < count; i++) {
+            int at = index(i);
+            if (sampled == Long.MIN_VALUE || times[at] - sampled >= intervalMs) {
+                emit(at, consumer);
+                sampled = times[at];
+                emitted++;
+            }
+            scanned = times[at];
+        }
+        pendingScannedUntil = scanned;
+        pendingSampleTime = sampled;
+        return emitted;
+    }
+
+    /** 上次 drainSamples 交出去嘅點已經寫好，之後唔使再交 */
+    public synchronized void commitDrain() {
+        scannedUntil = Math.max(scannedUntil, pendingScannedUntil);
+        lastSampleTime = Math.max(lastSampleTime, pendingSampleTime);
+    }
+
+    // 第 i 舊嘅點喺 array 邊個位
+    private int index(int i) {
+        return (next - count + i + times.length) % times.length;
+    }
+
+    // 時間係遞增，binary search 第一點 > since
+    private int firstAfter(long since) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[index(mid)] <= since) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void emit(int at, PointConsumer consumer) {
+        consumer.accept(times[at], latitudes[at] / SCALE, longitudes[at] / SCALE);
+    }
+}
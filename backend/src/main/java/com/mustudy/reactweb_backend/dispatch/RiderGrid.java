@@ -0,0 +1,136 @@
+package com.mustudy.reactweb_backend.dispatch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * 外賣員位置嘅 grid index：地圖切做 CELL_DEGREES（約 1 km）嘅格，每格記住入面有邊幾個外賣員。
+ * 搵附近外賣員由餐廳嗰格開始一圈一圈向外擴，夠數而且下一圈唔會再近過已經搵到嘅就停，
+ * 唔使逐個外賣員計距離。位置更新只係喺兩格之間搬 id，thread-safe（ConcurrentHashMap）。
+ */
+public class RiderGrid {
+
+    static final double CELL_DEGREES = 0.01;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    public record Position(double latitude, double longitude, long updatedAt, long cell) {
+    }
+
+    public record Candidate(int riderId, double distanceKm) {
+    }
+
+    private final ConcurrentHashMap<Integer, Position> positions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Integer>> cells = new ConcurrentHashMap<>();
+
+    /** time = 位置係幾時錄嘅；比而家記住嗰個舊（例如兩個 request 同時報、遲咗嗰個）就唔蓋 */
+    public void update(int riderId, double latitude, double longitude, long time) {
+        long cell = cellOf(latitude, longitude);
+        positions.compute(riderId, (id, old) -> {
+            if (old != null && old.updatedAt() > time) {
+                return old;
+            }
+            if (old == null || old.cell() != cell) {
+                if (old != null) {
+                    leave(old.cell(), id);
+                }
+                // 加入同 leave 都喺 compute 入面做，唔會加咗入一個啱啱因為空咗而被移走嘅 set
+                cells.compute(cell, (c, riders) -> {
+                    Set<Integer> result = riders == null ? ConcurrentHashMap.newKeySet() : riders;
+                    result.add(id);
+                    return result;
+                });
+            }
+            return new Position(latitude, longitude, time, cell);
+        });
+    }
+
+    public void remove(int riderId) {
+        positions.computeIfPresent(riderId, (id, old) -> {
+            leave(old.cell(), id);
+            return null;
+        });
+    }
+
+    public Position positionOf(int riderId) {
+        return positions.get(riderId);
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * maxKm 之內、accept 接受、updatedAfter 之後有報過位置嘅外賣員，最近嘅 limit 個（由近到遠）。
+     */
+    public List<Candidate> nearest(double latitude, double longitude, double maxKm, int limit, long updatedAfter,
+            IntPredicate accept) {
+        int row = (int) Math.floor(latitude / CELL_DEGREES);
+        int column = (int) Math.floor(longitude / CELL_DEGREES);
+        // 一格最窄嗰邊有幾 km（經度方向隨緯度變窄）
+        double cellKm = CELL_DEGREES * KM_PER_DEGREE * Math.min(1, Math.cos(Math.toRadians(Math.abs(latitude) + 1)));
+        int maxRing = (int) Math.ceil(maxKm / cellKm);
+        List<Candidate> found = new ArrayList<>();
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                boolean edgeRow = r == row - ring || r == row + ring;
+                // 中間嘅行只睇左右兩格（圈邊），edge 嗰兩行成行睇
+                for (int c = column - ring; c <= column + ring; c += edgeRow || ring == 0 ? 1 : 2 * ring) {
+                    collect(key(r, c), latitude, longitude, maxKm, updatedAfter, accept, found);
+                }
+            }
+            // 第 ring + 1 圈最近都有 ring * cellKm 咁遠
+            if (found.size() >= limit) {
+                found.sort(Comparator.comparingDouble(Candidate::distanceKm));
+                if (found.get(limit - 1).distanceKm() <= ring * cellKm) {
+                    return List.copyOf(found.subList(0, limit));
+                }
+            }
+        }
+        found.sort(Comparator.comparingDouble(Candidate::distanceKm));
+        return List.copyOf(found.subList(0, Math.min(limit, found.size())));
+    }
+
+    private void collect(long cell, double latitude, double longitude, double maxKm, long updatedAfter,
+            IntPredicate accept, List<Candidate> found) {
+        Set<Integer> riders = cells.get(cell);
+        if (riders == null) {
+            return;
+        }
+        for (Integer riderId : riders) {
+            Position position = positions.get(riderId);
+            if (position == null || position.updatedAt() < updatedAfter || !accept.test(riderId)) {
+                continue;
+            }
+            double distance = distanceKm(latitude, longitude, position.latitude(), position.longitude());
+            if (distance <= maxKm) {
+                found.add(new Candidate(riderId, distance));
+            }
+        }
+    }
+
+    private void leave(long cell, int riderId) {
+        cells.computeIfPresent(cell, (c, riders) -> {
+            riders.remove(riderId);
+            return riders.isEmpty() ? null : riders;
+        });
+    }
+
+    static long cellOf(double latitude, double longitude) {
+        return key((int) Math.floor(latitude / CELL_DEGREES), (int) Math.floor(longitude / CELL_DEGREES));
+    }
+
+    private static long key(int row, int column) {
+        return (long) row << 32 | (column & 0xffffffffL);
+    }
+
+    // 幾 km 之內用 equirectangular 近似已經夠準，比 haversine 少幾個三角函數
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double x = Math.toRadians(lng2 - lng1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * 6371.0;
+    }
+}
@@ -0,0 +1,13 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.Data;
+
+@Data
+public class AutocompleteSuggestion {
+    // dish 或者 restaurant
+    private String type;
+    private String text;
+    // 只有 restaurant 先有
+    private Integer restid;
+    private Long popularity;
+}
@@ -0,0 +1,9 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.Data;
+
+@Data
+public class CreatePaymentRequest {
+    private Integer orderid;
+    private String paymentMethod;
+}
@@ -0,0 +1,11 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.Data;
+
+@Data
+public class CreateReviewRequest {
+    private Integer orderid;
+    private Integer custid;
+    private Integer rating;
+    private String reviewText;
+}
@@ -0,0 +1,15 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.Data;
+import java.sql.Timestamp;
+
+// 追蹤畫面：外賣員、派送狀態、預計 / 實際到達時間
+@Data
+public class DeliveryTrackingResponse {
+    private Integer orderid;
+    private Integer driverId;
+    private String deliveryStatus;
+    private Timestamp eta;
+    private Timestamp actualDeliveryTime;
+    private Long remainingMinutes;
+}
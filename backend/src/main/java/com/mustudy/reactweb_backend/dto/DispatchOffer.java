@@ -0,0 +1,13 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.Data;
+import java.sql.Timestamp;
+
+// 派俾外賣員嘅單，過咗 expiresAt 未接就會派俾下一個
+@Data
+public class DispatchOffer {
+    private Integer orderid;
+    private Integer restid;
+    private Double distanceKm;
+    private Timestamp expiresAt;
+}
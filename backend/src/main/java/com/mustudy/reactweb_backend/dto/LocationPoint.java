@@ -0,0 +1,19 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.Data;
+
+// 外賣員 app 報嘅位置；recordedTime 係 epoch 毫秒，唔傳就用 server 收到嘅時間
+@Data
+public class LocationPoint {
+    private Double latitude;
+    private Double longitude;
+    private Long recordedTime;
+
+    public static LocationPoint of(long time, double latitude, double longitude) {
+        LocationPoint point = new LocationPoint();
+        point.setLatitude(latitude);
+        point.setLongitude(longitude);
+        point.setRecordedTime(time);
+        return point;
+    }
+}
@@ -0,0 +1,15 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+// 有任何一行唔啱就成批唔寫（errors 最多列 50 行）
+@Data
+public class MenuImportResult {
+    private Integer restid;
+    private int rows;
+    private int inserted;
+    private int updated;
+    private List<String> errors = new ArrayList<>();
+}
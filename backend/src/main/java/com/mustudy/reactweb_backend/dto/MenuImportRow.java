@@ -0,0 +1,16 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+
+// 匯入檔嘅一行（CSV header / JSON field 同呢度名一樣）。有 itemId 或者同名嘅菜就更新，其他新增；
+// 更新時冇填嘅欄位保留原本嘅值，所以淨係改價錢嘅檔案只要 itemId,price 兩欄
+@Data
+public class MenuImportRow {
+    private Integer itemId;
+    private String itemName;
+    private String category;
+    private String description;
+    private BigDecimal price;
+    private String status;
+}
@@ -0,0 +1,13 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// 一次匯入 commit 之後發一次（唔係每個菜式一次），搜尋 / 自動完成收到就重新整理嗰間餐廳
+@Data
+@AllArgsConstructor
+public class MenuImportedEvent {
+    private Integer restid;
+    private int inserted;
+    private int updated;
+}
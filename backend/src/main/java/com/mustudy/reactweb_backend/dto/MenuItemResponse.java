@@ -1,14 +1,30 @@
 package com.mustudy.reactweb_backend.dto;
 
+import com.mustudy.reactweb_backend.models.MenuItems;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Data
+@NoArgsConstructor
 public class MenuItemResponse {
     private Integer itemId;
+    private Integer restid;
     private String itemName;
     private String description;
     private BigDecimal price;
     private String category;
     private String status;
-}
\ No newline at end of file
+
+    // MenuItemsRepository 嘅 JPQL projection 用
+    public MenuItemResponse(Integer itemId, Integer restid, String itemName, String description, BigDecimal price,
+            String category, MenuItems.ItemStatus status) {
+        this.itemId = itemId;
+        this.restid = restid;
+        this.itemName = itemName;
+        this.description = description;
+        this.price = price;
+        this.category = category;
+        this.status = status == null ? null : status.name();
+    }
+}
@@ -0,0 +1,15 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+public class MenuSearchResult {
+    private Integer itemId;
+    private Integer restid;
+    private String itemName;
+    private String category;
+    private BigDecimal price;
+    // 相關度，越高越前
+    private Float score;
+}
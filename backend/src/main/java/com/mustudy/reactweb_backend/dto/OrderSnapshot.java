@@ -0,0 +1,34 @@
+package com.mustudy.reactweb_backend.dto;
+
+import com.mustudy.reactweb_backend.models.Orders;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+// order_events.payload：事件發生嗰刻嘅訂單資料，listener 唔使再 query orders
+@Data
+public class OrderSnapshot {
+    private Integer orderid;
+    private Integer custid;
+    private Integer restid;
+    private Integer deliverManId;
+    private String status;
+    private BigDecimal totalAmount;
+    private Timestamp createdTime;
+    private Timestamp startDeliverTime;
+    private Timestamp endDeliverTime;
+
+    public static OrderSnapshot of(Orders order) {
+        OrderSnapshot snapshot = new OrderSnapshot();
+        snapshot.setOrderid(order.getOrderid());
+        snapshot.setCustid(order.getCustid());
+        snapshot.setRestid(order.getRestid());
+        snapshot.setDeliverManId(order.getDeliverManId());
+        snapshot.setStatus(order.getStatus() == null ? null : order.getStatus().name());
+        snapshot.setTotalAmount(order.getTotalAmount());
+        snapshot.setCreatedTime(order.getCreatedTime());
+        snapshot.setStartDeliverTime(order.getStartDeliverTime());
+        snapshot.setEndDeliverTime(order.getEndDeliverTime());
+        return snapshot;
+    }
+}
@@ -0,0 +1,48 @@
+package com.mustudy.reactweb_backend.dto;
+
+import com.mustudy.reactweb_backend.models.Orders;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+// 外賣員 / 餐廳睇嘅訂單：全部係平面欄位，JSON 唔會行入 entity 嘅 lazy 關聯
+@Data
+@NoArgsConstructor
+public class OrderSummary {
+    private Integer orderid;
+    private Integer custid;
+    private Integer restid;
+    private String restaurantName;
+    private String restaurantAddress;
+    private String shippingAddress;
+    private Integer deliverManId;
+    private String status;
+    private BigDecimal totalAmount;
+    private BigDecimal discountAmount;
+    private String remark;
+    private Timestamp createdTime;
+    private Timestamp startDeliverTime;
+    private Timestamp endDeliverTime;
+
+    // OrderRepository 嘅 JPQL projection 用
+    public OrderSummary(Integer orderid, Integer custid, Integer restid, String restaurantName,
+            String restaurantAddress, String shippingAddress, Integer deliverManId, Orders.OrderStatus status,
+            BigDecimal totalAmount, BigDecimal discountAmount, String remark, Timestamp createdTime,
+            Timestamp startDeliverTime, Timestamp endDeliverTime) {
+        this.orderid = orderid;
+        this.custid = custid;
+        this.restid = restid;
+        this.restaurantName = restaurantName;
+        this.restaurantAddress = restaurantAddress;
+        this.shippingAddress = shippingAddress;
+        this.deliverManId = deliverManId;
+        this.status = status == null ? null : status.name();
+        this.totalAmount = totalAmount;
+        this.discountAmount = discountAmount;
+        this.remark = remark;
+        this.createdTime = createdTime;
+        this.startDeliverTime = startDeliverTime;
+        this.endDeliverTime = endDeliverTime;
+    }
+}
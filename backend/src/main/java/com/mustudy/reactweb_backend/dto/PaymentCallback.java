@@ -0,0 +1,14 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 付款平台通知付款結果（webhook body；本地 gateway 用 Spring event 送同一樣嘢）
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentCallback {
+    private String extRefNum;
+    private String status;
+}
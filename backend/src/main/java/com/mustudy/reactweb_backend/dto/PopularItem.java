@@ -0,0 +1,15 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+public class PopularItem {
+    private Integer itemId;
+    private Integer restid;
+    private String itemName;
+    private String category;
+    private BigDecimal price;
+    // 叫過幾多份
+    private Integer orderCount;
+}
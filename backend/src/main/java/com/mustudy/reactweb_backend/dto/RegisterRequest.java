@@ -2,6 +2,8 @@ package com.mustudy.reactweb_backend.dto;
 
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class RegisterRequest {
     private String username;
@@ -23,6 +25,8 @@ public class RegisterRequest {
     private String description;
     private String address;
     private String cuisine;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
     
     // for deliveryStaff
     private String vehicleType;
@@ -0,0 +1,19 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.Data;
+
+// 餐廳列表每一格；distanceKm 只喺有傳位置時先有
+@Data
+public class RestaurantCard {
+    private Integer restid;
+    private String restname;
+    private String description;
+    private String address;
+    private String icon;
+    private Boolean isValidate;
+    private Double latitude;
+    private Double longitude;
+    private Double averageRating;
+    private Long ratingCount;
+    private Double distanceKm;
+}
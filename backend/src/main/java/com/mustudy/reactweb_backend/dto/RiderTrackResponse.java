@@ -0,0 +1,13 @@
+package com.mustudy.reactweb_backend.dto;
+
+import lombok.Data;
+import java.util.List;
+
+// 客人追蹤畫面：外賣員最新位置同最近行過嘅路線（由舊到新）
+@Data
+public class RiderTrackResponse {
+    private Integer orderid;
+    private Integer driverId;
+    private LocationPoint latest;
+    private List<LocationPoint> path;
+}
@@ -0,0 +1,101 @@
+package com.mustudy.reactweb_backend.metrics;
+
+import java.util.Arrays;
+
+/**
+ * 菜式 id → 叫過幾多份 + 最後一次叫嘅序號。open addressing（linear probing）放喺三條 int array，
+ * 唔使 boxing、冇 entry object，幾百萬個客 / 餐廳每個一份都唔會食好多 memory。
+ * 唔係 thread-safe：只有一條 thread 寫，讀嘅人攞 top() 計好嘅結果。
+ */
+public class ItemCounter {
+
+    // item id 由 1 開始，0 當空位
+    private int[] keys;
+    private int[] counts;
+    private int[] lastSeen;
+    private int size;
+
+    public ItemCounter() {
+        this(4);
+    }
+
+    public ItemCounter(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        keys = new int[capacity];
+        counts = new int[capacity];
+        lastSeen = new int[capacity];
+    }
+
+    public void add(int itemId, int quantity, int seq) {
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize();
+        }
+        int slot = slotOf(keys, itemId);
+        if (keys[slot] == 0) {
+            keys[slot] = itemId;
+            size++;
+        }
+        counts[slot] += quantity;
+        lastSeen[slot] = Math.max(lastSeen[slot], seq);
+    }
+
+    public int count(int itemId) {
+        int slot = slotOf(keys, itemId);
+        return keys[slot] == 0 ? 0 : counts[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 叫得最多嘅 n 個，同數就最近叫過嘅排先；返回 {itemId, count} 一對對攤平。
+     */
+    public int[] top(int n) {
+        int[] order = new int[size];
+        int at = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                order[at++] = slot;
+            }
+        }
+        // 通常每個客 / 餐廳只有幾十款菜，直接 sort 比 heap 快
+        Integer[] boxed = Arrays.stream(order).boxed().toArray(Integer[]::new);
+        Arrays.sort(boxed, (a, b) -> counts[a] != counts[b] ? Integer.compare(counts[b], counts[a])
+                : Integer.compare(lastSeen[b], lastSeen[a]));
+        int length = Math.min(n, boxed.length);
+        int[] top = new int[length * 2];
+        for (int i = 0; i < length; i++) {
+            top[i * 2] = keys[boxed[i]];
+            top[i * 2 + 1] = counts[boxed[i]];
+        }
+        return top;
+    }
+
+    private static int slotOf(int[] keys, int itemId) {
+        int mask = keys.length - 1;
+        // Fibonacci hashing，連續 id 都散得開
+        int slot = (itemId * 0x9E3779B9) >>> 1 & mask;
+        while (keys[slot] != 0 && keys[slot] != itemId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        int[] oldLastSeen = lastSeen;
+        keys = new int[oldKeys.length * 2];
+        counts = new int[keys.length];
+        lastSeen = new int[keys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slotOf(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+                lastSeen[slot] = oldLastSeen[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.mustudy.reactweb_backend.metrics;
+
+/**
+ * 最近 {@code capacity} 個樣本嘅平均值：ring buffer 加 running sum，add 只係減走最舊嗰個、加入新嗰個，
+ * 唔使成個 window 重新計。add 用 lock（寫少），mean() 讀 volatile，唔使 lock。
+ */
+public class RollingAverage {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+    private long sum;
+    private volatile double mean = Double.NaN;
+    private volatile int size;
+
+    public RollingAverage(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void add(long value) {
+        if (count == samples.length) {
+            sum -= samples[next];
+        } else {
+            count++;
+        }
+        samples[next] = value;
+        sum += value;
+        next = (next + 1) % samples.length;
+        mean = (double) sum / count;
+        size = count;
+    }
+
+    /** 未有樣本就係 NaN */
+    public double mean() {
+        return mean;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,66 @@
+package com.mustudy.reactweb_backend.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 按分鐘分 bucket 嘅 ring buffer counter，只保留最近 {@code slots} 分鐘。
+ * increment 冇 lock，只用 CAS；跨分鐘 reset 嗰一刻可能有極少數 count 計漏，統計用途可以接受。
+ */
+public class RollingCounter {
+
+    private final int slots;
+    private final long slotMillis;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray stamps;
+
+    public RollingCounter(int slots, long slotMillis) {
+        this.slots = slots;
+        this.slotMillis = slotMillis;
+        this.counts = new AtomicLongArray(slots);
+        this.stamps = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            stamps.set(i, -1);
+        }
+    }
+
+    /** 計入 {@code timeMillis} 嗰個 slot；舊到個格已經俾較新嘅 slot 用緊就唔計 */
+    public void increment(long timeMillis) {
+        long slot = timeMillis / slotMillis;
+        int index = (int) (slot % slots);
+        long stamp = stamps.get(index);
+        if (stamp > slot) {
+            return;
+        }
+        if (stamp != slot && stamps.compareAndSet(index, stamp, slot)) {
+            counts.set(index, 0);
+        }
+        counts.incrementAndGet(index);
+    }
+
+    /** 最近 {@code window} 個 slot 嘅總數 */
+    public long sum(long nowMillis, int window) {
+        long current = nowMillis / slotMillis;
+        long total = 0;
+        for (int i = 0; i < slots; i++) {
+            long stamp = stamps.get(i);
+            if (stamp > current - Math.min(window, slots) && stamp <= current) {
+                total += counts.get(i);
+            }
+        }
+        return total;
+    }
+
+    /** 最近 {@code window} 個 slot，由舊到新，每個 slot 一個數（冇 data 就係 0） */
+    public List<Long> series(long nowMillis, int window) {
+        long current = nowMillis / slotMillis;
+        int n = Math.min(window, slots);
+        List<Long> series = new ArrayList<>(n);
+        for (long slot = current - n + 1; slot <= current; slot++) {
+            int index = (int) Math.floorMod(slot, (long) slots);
+            series.add(stamps.get(index) == slot ? counts.get(index) : 0L);
+        }
+        return series;
+    }
+}
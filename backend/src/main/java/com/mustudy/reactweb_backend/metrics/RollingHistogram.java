@@ -0,0 +1,121 @@
+package com.mustudy.reactweb_backend.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 按時間分 bucket 嘅 log-linear histogram（每個 2 嘅次方再分 4 格，誤差約 25%），
+ * 只保留最近 {@code slots} 個時間段。record 冇 lock、冇 allocation。
+ */
+public class RollingHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+    // 每個時間段嘅 layout: [bucket counts..., count, sum, max]
+    private static final int COUNT = BUCKETS;
+    private static final int SUM = BUCKETS + 1;
+    private static final int MAX = BUCKETS + 2;
+    private static final int STRIDE = BUCKETS + 3;
+
+    private final int slots;
+    private final long slotMillis;
+    private final AtomicLongArray data;
+    private final AtomicLongArray stamps;
+
+    public RollingHistogram(int slots, long slotMillis) {
+        this.slots = slots;
+        this.slotMillis = slotMillis;
+        this.data = new AtomicLongArray(slots * STRIDE);
+        this.stamps = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            stamps.set(i, -1);
+        }
+    }
+
+    /** 記入 {@code timeMillis} 嗰個時間段；舊到個格已經俾較新嘅時間段用緊就唔記 */
+    public void record(long timeMillis, long value) {
+        if (value < 0) {
+            return;
+        }
+        long slot = timeMillis / slotMillis;
+        int index = (int) (slot % slots);
+        int base = index * STRIDE;
+        long stamp = stamps.get(index);
+        if (stamp > slot) {
+            return;
+        }
+        if (stamp != slot && stamps.compareAndSet(index, stamp, slot)) {
+            for (int i = 0; i < STRIDE; i++) {
+                data.set(base + i, 0);
+            }
+        }
+        data.incrementAndGet(base + bucketOf(value));
+        data.incrementAndGet(base + COUNT);
+        data.addAndGet(base + SUM, value);
+        data.accumulateAndGet(base + MAX, value, Math::max);
+    }
+
+    /** 合併最近 {@code window} 個時間段：count、mean、max 同 p50 / p90 / p99 */
+    public Map<String, Object> snapshot(long nowMillis, int window) {
+        long current = nowMillis / slotMillis;
+        long[] merged = new long[STRIDE];
+        for (int i = 0; i < slots; i++) {
+            long stamp = stamps.get(i);
+            if (stamp > current - Math.min(window, slots) && stamp <= current) {
+                int base = i * STRIDE;
+                for (int b = 0; b < BUCKETS; b++) {
+                    merged[b] += data.get(base + b);
+                }
+                merged[COUNT] += data.get(base + COUNT);
+                merged[SUM] += data.get(base + SUM);
+                merged[MAX] = Math.max(merged[MAX], data.get(base + MAX));
+            }
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        long count = merged[COUNT];
+        snapshot.put("count", count);
+        snapshot.put("mean", count == 0 ? 0 : merged[SUM] / count);
+        snapshot.put("max", merged[MAX]);
+        snapshot.put("p50", percentile(merged, 0.50));
+        snapshot.put("p90", percentile(merged, 0.90));
+        snapshot.put("p99", percentile(merged, 0.99));
+        return snapshot;
+    }
+
+    private static long percentile(long[] merged, double p) {
+        long count = merged[COUNT];
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(p * count);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += merged[b];
+            if (seen >= rank) {
+                return Math.min(upperBound(b), merged[MAX]);
+            }
+        }
+        return merged[MAX];
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) ((value >>> (exponent - 2)) & (SUB_BUCKETS - 1));
+        return (exponent - 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 1;
+        int sub = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - 2);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+}
@@ -2,6 +2,8 @@ package com.mustudy.reactweb_backend.models;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.sql.Timestamp;
 
 @Entity
@@ -23,19 +25,22 @@ public class Customer {
     @Column(length = 100)
     private String email;
     
+    @JdbcTypeCode(SqlTypes.CHAR)
     @Column(name = "pass_hash_1", nullable = false, length = 96)
     private String passHash1;
     
+    @JdbcTypeCode(SqlTypes.CHAR)
     @Column(name = "pass_hash_2", nullable = false, length = 64)
     private String passHash2;
     
     @Column(name = "icon")
     private String icon;
 
-    @Column(name = "isValidate")
+    // naming strategy 會將 camelCase 轉做 is_validate，用細楷先對得返 isValidate column
+    @Column(name = "isvalidate")
     private Boolean isValidate = true;
 
-    @Column(name = "latestLoginDate")
+    @Column(name = "latestlogindate")
     private Timestamp latestLoginDate;
 
     @Column(name = "change_log", columnDefinition = "TEXT")
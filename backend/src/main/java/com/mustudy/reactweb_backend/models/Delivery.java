@@ -0,0 +1,37 @@
+package com.mustudy.reactweb_backend.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "deliveries")
+@Data
+public class Delivery {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer deliveryid;
+
+    @Column(name = "orderid", nullable = false)
+    private Integer orderid;
+
+    @Column(name = "driver_id")
+    private Integer driverId;
+
+    // 預計到達時間，接單嗰刻按餐廳最近嘅外送時間計
+    private Timestamp eta;
+
+    @Column(name = "actual_delivery_time")
+    private Timestamp actualDeliveryTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "delivery_status")
+    private DeliveryStatus deliveryStatus = DeliveryStatus.assigned;
+
+    @Column(name = "created_time", updatable = false)
+    private Timestamp createdTime;
+
+    public enum DeliveryStatus {
+        assigned, in_transit, delivered, failed
+    }
+}
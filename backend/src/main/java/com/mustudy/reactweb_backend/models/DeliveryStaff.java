@@ -4,6 +4,7 @@ import java.sql.Timestamp;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
@@ -11,9 +12,14 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Data;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.mustudy.reactweb_backend.services.DispatchRiderListener;
 
 @Entity
 @Table(name = "delivery_staff")
+@EntityListeners(DispatchRiderListener.class)
 @Data
 public class DeliveryStaff {
     @Id
@@ -30,9 +36,11 @@ public class DeliveryStaff {
     @Column(name = "email", length = 100)
     private String email;
     
+    @JdbcTypeCode(SqlTypes.CHAR)
     @Column(name = "pass_hash_1", nullable = false, length = 96)
     private String passHash1;
     
+    @JdbcTypeCode(SqlTypes.CHAR)
     @Column(name = "pass_hash_2", nullable = false, length = 64)
     private String passHash2;
     
@@ -50,10 +58,11 @@ public class DeliveryStaff {
     @Column(name = "status")
     private StaffStatus status = StaffStatus.active;
     
-    @Column(name = "isValidate")
+    // naming strategy 會將 camelCase 轉做 is_validate，用細楷先對得返 isValidate column
+    @Column(name = "isvalidate")
     private Boolean isValidate = true;
     
-    @Column(name = "latestLoginDate")
+    @Column(name = "latestlogindate")
     private Timestamp latestLoginDate;
     
     @Column(name = "change_log", columnDefinition = "TEXT")
@@ -5,17 +5,22 @@ import lombok.Data;
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 
+import com.mustudy.reactweb_backend.services.MenuSearchListener;
+
 @Entity
 @Table(name = "menu_items")
+@EntityListeners(MenuSearchListener.class)
 @Data
 public class MenuItems {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "item_ID")
     private Integer itemId;
     
     private Integer restid;
     private String category;
     private String itemName;
+    @Column(columnDefinition = "TEXT")
     private String description;
     private BigDecimal price;
     
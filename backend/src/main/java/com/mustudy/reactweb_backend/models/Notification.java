@@ -0,0 +1,44 @@
+package com.mustudy.reactweb_backend.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "notifications")
+@Data
+public class Notification {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "Notification_ID")
+    private Integer notificationId;
+
+    @Column(name = "title", nullable = false, length = 200)
+    private String title;
+
+    @Column(name = "content", nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    // custid 或 restid，睇 recipientType
+    @Column(name = "Receiver_ID", nullable = false)
+    private Integer receiverId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "recipient_type", nullable = false)
+    private RecipientType recipientType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type")
+    private NotificationType type = NotificationType.order_update;
+
+    @Column(name = "created_time", updatable = false)
+    private Timestamp createdTime;
+
+    public enum RecipientType {
+        customer, restaurant
+    }
+
+    public enum NotificationType {
+        order_update, low_stock, promotion, delivery_alert, payment_issue
+    }
+}
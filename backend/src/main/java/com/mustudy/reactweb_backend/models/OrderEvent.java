@@ -0,0 +1,59 @@
+package com.mustudy.reactweb_backend.models;
+
+import com.mustudy.reactweb_backend.dto.OrderSnapshot;
+import jakarta.persistence.*;
+import lombok.Data;
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "order_events")
+@Data
+public class OrderEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "orderid", nullable = false)
+    private Integer orderid;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private EventType eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "old_status")
+    private Orders.OrderStatus oldStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status")
+    private Orders.OrderStatus newStatus;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "created_time", updatable = false)
+    private Timestamp createdTime;
+
+    @Column(name = "dispatched_time")
+    private Timestamp dispatchedTime;
+
+    // 已經成功處理咗嘅 listener（逗號分隔），重試時跳過
+    @Column(name = "delivered_to", length = 500)
+    private String deliveredTo;
+
+    // 有 dispatcher 處理緊，呢個時間之前其他 node 唔好攞
+    @Column(name = "claimed_until")
+    private Timestamp claimedUntil;
+
+    // dispatcher 由 payload decode 出嚟先交俾 listener
+    @Transient
+    private OrderSnapshot order;
+
+    public enum EventType {
+        order_created, status_changed
+    }
+}
@@ -14,6 +14,7 @@ public class OrderItems {
     private Integer orderitemid;
     
     private Integer orderid;
+    @Column(name = "item_ID")
     private Integer itemId;
     private Integer quantity = 1;
     private BigDecimal price;
@@ -31,6 +32,6 @@ public class OrderItems {
     private Orders order;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "itemId", insertable = false, updatable = false)
+    @JoinColumn(name = "item_ID", insertable = false, updatable = false)
     private MenuItems menuItem;
 }
\ No newline at end of file
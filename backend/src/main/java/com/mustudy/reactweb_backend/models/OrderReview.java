@@ -0,0 +1,33 @@
+package com.mustudy.reactweb_backend.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "order_reviews")
+@Data
+public class OrderReview {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer reviewid;
+
+    @Column(name = "orderid", nullable = false)
+    private Integer orderid;
+
+    // 1-5 星
+    @Column(name = "rating")
+    private Integer rating;
+
+    @Column(name = "review_text", columnDefinition = "TEXT")
+    private String reviewText;
+
+    @Column(name = "reviewed_by")
+    private Integer reviewedBy;
+
+    @Column(name = "created_time", updatable = false)
+    private Timestamp createdTime;
+
+    @Column(name = "updated_time")
+    private Timestamp updatedTime;
+}
@@ -18,6 +18,7 @@ public class Orders {
     private Integer addressid;
     
     private String shippingAddress; 
+    @Column(name = "deliver_man_ID")
     private Integer deliverManId;
     
     private Timestamp startDeliverTime;
@@ -26,10 +27,12 @@ public class Orders {
     @Enumerated(EnumType.STRING)
     private OrderStatus status = OrderStatus.pending;
     
+    @Column(columnDefinition = "TEXT")
     private String remark;
     private BigDecimal totalAmount = BigDecimal.ZERO;
     private BigDecimal discountAmount = BigDecimal.ZERO;
     
+    @Column(columnDefinition = "TEXT")
     private String changeLog;
     private Timestamp createdTime;
     
@@ -50,6 +53,6 @@ public class Orders {
     private CustomerAddress customerAddress;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "deliverManId", insertable = false, updatable = false)
+    @JoinColumn(name = "deliver_man_ID", insertable = false, updatable = false)
     private DeliveryStaff deliveryStaff;
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.mustudy.reactweb_backend.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "payments")
+@Data
+public class Payment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // naming strategy 會將 invoiceID 轉做 invoice_id，用細楷先對得返 column
+    @Column(name = "invoiceid")
+    private Integer invoiceId;
+
+    @Column(name = "orderid", nullable = false)
+    private Integer orderid;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false)
+    private PaymentMethod paymentMethod;
+
+    // 第三方付款平台嘅收據編號
+    @Column(name = "ext_ref_num", length = 100)
+    private String extRefNum;
+
+    @Column(name = "receive_amount", nullable = false)
+    private BigDecimal receiveAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status")
+    private PaymentStatus paymentStatus = PaymentStatus.pending;
+
+    @Column(name = "created_time", updatable = false)
+    private Timestamp createdTime;
+
+    public enum PaymentMethod {
+        credit_card, debit_card, paypal, cash_on_delivery
+    }
+
+    public enum PaymentStatus {
+        pending, paid, failed, refunded
+    }
+}
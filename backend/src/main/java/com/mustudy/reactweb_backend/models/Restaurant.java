@@ -5,14 +5,21 @@ import java.sql.Timestamp;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Data;
 
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.mustudy.reactweb_backend.services.RestaurantDirectoryListener;
+
 @Entity
 @Table(name = "restaurant")
+@EntityListeners(RestaurantDirectoryListener.class)
 @Data
 public class Restaurant {
     @Id
@@ -30,25 +37,43 @@ public class Restaurant {
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
-    @Column(name = "rating")
-    private BigDecimal rating;
+    // 平均分（四捨五入），只由 ReviewService 嘅 FLUSH_SQL 連同 rating_sum / rating_count 一齊更新；
+    // save() 唔寫呢三個 column，唔係登入之類 load 完再 save 會將舊嘅數寫返去，蓋走啱啱 flush 嘅差額
+    @Column(name = "rating", insertable = false, updatable = false)
+    private Integer rating;
+
+    @Column(name = "rating_sum", nullable = false, insertable = false, updatable = false)
+    private Integer ratingSum = 0;
+
+    @Column(name = "rating_count", nullable = false, insertable = false, updatable = false)
+    private Integer ratingCount = 0;
     
     @Column(name = "address", length = 200)
     private String address;
+
+    // 餐廳位置，列表按距離排序用
+    @Column(name = "latitude", precision = 9, scale = 6)
+    private BigDecimal latitude;
+
+    @Column(name = "longitude", precision = 9, scale = 6)
+    private BigDecimal longitude;
     
+    @JdbcTypeCode(SqlTypes.CHAR)
     @Column(name = "pass_hash_1", nullable = false, length = 96)
     private String passHash1;
     
+    @JdbcTypeCode(SqlTypes.CHAR)
     @Column(name = "pass_hash_2", nullable = false, length = 64)
     private String passHash2;
     
     @Column(name = "icon")
     private String icon;
     
-    @Column(name = "isValidate")
+    // naming strategy 會將 camelCase 轉做 is_validate，用細楷先對得返 isValidate column
+    @Column(name = "isvalidate")
     private Boolean isValidate = true;
     
-    @Column(name = "latestLoginDate")
+    @Column(name = "latestlogindate")
     private Timestamp latestLoginDate;
     
     @Column(name = "change_log", columnDefinition = "TEXT")
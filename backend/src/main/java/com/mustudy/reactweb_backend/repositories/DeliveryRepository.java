@@ -0,0 +1,13 @@
+package com.mustudy.reactweb_backend.repositories;
+
+import com.mustudy.reactweb_backend.models.Delivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface DeliveryRepository extends JpaRepository<Delivery, Integer> {
+
+    // 一張單可能有幾次派送（之前失敗重派），攞最新嗰次；用 idx_delivery_orderid
+    Optional<Delivery> findFirstByOrderidOrderByDeliveryidDesc(Integer orderid);
+}
@@ -1,7 +1,10 @@
 package com.mustudy.reactweb_backend.repositories;
 
+import com.mustudy.reactweb_backend.dto.MenuItemResponse;
 import com.mustudy.reactweb_backend.models.MenuItems;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -19,4 +22,15 @@ public interface MenuItemsRepository extends JpaRepository<MenuItems, Integer> {
     
     // 根據餐廳ID和分類查找
     List<MenuItems> findByRestidAndCategory(Integer restid, String category);
-}
\ No newline at end of file
+
+    String RESPONSE = "select new com.mustudy.reactweb_backend.dto.MenuItemResponse(m.itemId, m.restid, m.itemName,"
+            + " m.description, m.price, m.category, m.status) from MenuItems m";
+
+    // 分類頁直接 select 做 DTO，唔 load entity
+    @Query(RESPONSE + " where m.category = :category order by m.restid, m.itemId")
+    List<MenuItemResponse> findResponsesByCategory(@Param("category") String category);
+
+    @Query(RESPONSE + " where m.restid = :restid and m.category = :category order by m.itemId")
+    List<MenuItemResponse> findResponsesByRestidAndCategory(@Param("restid") Integer restid,
+            @Param("category") String category);
+}
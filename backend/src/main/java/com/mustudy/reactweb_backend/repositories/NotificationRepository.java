@@ -0,0 +1,19 @@
+package com.mustudy.reactweb_backend.repositories;
+
+import com.mustudy.reactweb_backend.models.Notification;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Integer> {
+
+    // keyset 分頁：idx_notif_Receiver_ID (recipient_type, Receiver_ID) 加埋 InnoDB 隱含嘅 primary key，
+    // 用 Notification_ID < cursor 向後翻頁，唔使 OFFSET
+    List<Notification> findByRecipientTypeAndReceiverIdOrderByNotificationIdDesc(
+            Notification.RecipientType recipientType, Integer receiverId, Limit limit);
+
+    List<Notification> findByRecipientTypeAndReceiverIdAndNotificationIdLessThanOrderByNotificationIdDesc(
+            Notification.RecipientType recipientType, Integer receiverId, Integer before, Limit limit);
+}
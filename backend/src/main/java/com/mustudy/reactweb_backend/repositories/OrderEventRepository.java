@@ -0,0 +1,46 @@
+package com.mustudy.reactweb_backend.repositories;
+
+import com.mustudy.reactweb_backend.models.OrderEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    // FOR UPDATE SKIP LOCKED：其他 node 攞緊嘅 event 直接跳過，唔使等 lock；租約未過嘅都唔攞
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OrderEvent e where e.dispatchedTime is null and e.attempts < :maxAttempts"
+            + " and (e.claimedUntil is null or e.claimedUntil < :now) order by e.eventId")
+    List<OrderEvent> findClaimable(@Param("maxAttempts") Integer maxAttempts, @Param("now") Timestamp now, Limit limit);
+
+    // 派完記低邊啲 listener 成功咗；dispatchedTime = null 即係未派完，放返出嚟俾下次 poll 重試
+    @Modifying
+    @Query("update OrderEvent e set e.deliveredTo = :deliveredTo, e.dispatchedTime = :dispatchedTime,"
+            + " e.claimedUntil = null where e.eventId = :eventId")
+    int recordDelivery(@Param("eventId") Long eventId, @Param("deliveredTo") String deliveredTo,
+            @Param("dispatchedTime") Timestamp dispatchedTime);
+
+    @Modifying
+    @Query("delete from OrderEvent e where e.dispatchedTime < :cutoff")
+    int deleteDispatchedBefore(@Param("cutoff") Timestamp cutoff);
+
+    // dead letter：試到上限都冇派到
+    @Query("select count(e) from OrderEvent e where e.dispatchedTime is null and e.attempts >= :maxAttempts")
+    long countDead(@Param("maxAttempts") Integer maxAttempts);
+
+    @Modifying
+    @Query("delete from OrderEvent e where e.dispatchedTime is null and e.attempts >= :maxAttempts"
+            + " and e.createdTime < :cutoff")
+    int deleteDeadBefore(@Param("maxAttempts") Integer maxAttempts, @Param("cutoff") Timestamp cutoff);
+}
@@ -1,9 +1,15 @@
 package com.mustudy.reactweb_backend.repositories;
 
+import com.mustudy.reactweb_backend.dto.OrderSummary;
 import com.mustudy.reactweb_backend.models.Orders;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Orders, Integer> {
@@ -21,4 +27,20 @@ public interface OrderRepository extends JpaRepository<Orders, Integer> {
     List<Orders> findByRestidAndStatus(Integer restid, Orders.OrderStatus status);
 
     List<Orders> findByDeliverManIdIsNullAndStatusIn(List<Orders.OrderStatus> statuses);
-}
\ No newline at end of file
+
+    // SELECT ... FOR UPDATE：同一張單嘅並發操作（例如評價）排隊做
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Orders> findWithLockByOrderid(Integer orderid);
+
+    // 列表直接 select 做 DTO：一句 SQL join 埋餐廳名，唔使 load entity 同 lazy 關聯
+    String SUMMARY = "select new com.mustudy.reactweb_backend.dto.OrderSummary(o.orderid, o.custid, o.restid,"
+            + " r.restname, r.address, o.shippingAddress, o.deliverManId, o.status, o.totalAmount,"
+            + " o.discountAmount, o.remark, o.createdTime, o.startDeliverTime, o.endDeliverTime)"
+            + " from Orders o left join o.restaurant r";
+
+    @Query(SUMMARY + " where o.deliverManId is null and o.status in :statuses order by o.orderid")
+    List<OrderSummary> findSummariesAvailable(@Param("statuses") List<Orders.OrderStatus> statuses);
+
+    @Query(SUMMARY + " where o.deliverManId = :deliverManId order by o.orderid desc")
+    List<OrderSummary> findSummariesByDeliverManId(@Param("deliverManId") Integer deliverManId);
+}
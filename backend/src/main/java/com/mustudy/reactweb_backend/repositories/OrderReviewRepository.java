@@ -0,0 +1,13 @@
+package com.mustudy.reactweb_backend.repositories;
+
+import com.mustudy.reactweb_backend.models.OrderReview;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface OrderReviewRepository extends JpaRepository<OrderReview, Integer> {
+
+    // 每張單一個評價；用 idx_review_orderid
+    Optional<OrderReview> findFirstByOrderidOrderByReviewidAsc(Integer orderid);
+}
@@ -0,0 +1,21 @@
+package com.mustudy.reactweb_backend.repositories;
+
+import com.mustudy.reactweb_backend.models.Payment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment, Integer> {
+
+    List<Payment> findByOrderid(Integer orderid);
+
+    @Transactional
+    @Modifying
+    @Query("update Payment p set p.extRefNum = :extRefNum where p.invoiceId = :invoiceId")
+    int updateExtRefNum(@Param("invoiceId") Integer invoiceId, @Param("extRefNum") String extRefNum);
+}
@@ -0,0 +1,196 @@
+package com.mustudy.reactweb_backend.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 打字自動完成（唔可變，建好之後 thread-safe）。每個建議（菜名 / 餐廳名）由每個字開頭切一條 key
+ * （"char siu rice" → "char siu rice"、"siu rice"、"rice"；中文每個字都係開頭），全部 key 排好序放喺 array，
+ * 即係攤平咗嘅 trie：同一個 prefix 嘅 key 一定連埋一段。key 位置上面再起一棵 segment tree 記住每段最受歡迎嗰個，
+ * 搵 top-k 只需要每次拆一段出嚟，O(k log n)，唔使睇晒成段。
+ */
+public final class AutocompleteIndex {
+
+    public static final String DISH = "dish";
+    public static final String RESTAURANT = "restaurant";
+
+    /** restid 只有餐廳先有；popularity = 被叫過幾多份 */
+    public record Suggestion(String type, String text, Integer restid, long popularity) {
+    }
+
+    private final String[] keys;
+    private final int[] targets;
+    private final Suggestion[] suggestions;
+    // segment tree：tree[node] = 呢段入面 popularity 最高嘅 key 位置；葉由 leaves 開始
+    private final int[] tree;
+    private final int leaves;
+
+    private AutocompleteIndex(String[] keys, int[] targets, Suggestion[] suggestions) {
+        this.keys = keys;
+        this.targets = targets;
+        this.suggestions = suggestions;
+        int size = 1;
+        while (size < Math.max(1, keys.length)) {
+            size <<= 1;
+        }
+        leaves = size;
+        tree = new int[size * 2];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < keys.length; i++) {
+            tree[size + i] = i;
+        }
+        for (int node = size - 1; node > 0; node--) {
+            tree[node] = better(tree[node * 2], tree[node * 2 + 1]);
+        }
+    }
+
+    public static AutocompleteIndex empty() {
+        return new Builder().build();
+    }
+
+    public int size() {
+        return suggestions.length;
+    }
+
+    public static final class Builder {
+        private final List<Suggestion> suggestions = new ArrayList<>();
+
+        public Builder add(Suggestion suggestion) {
+            suggestions.add(suggestion);
+            return this;
+        }
+
+        public AutocompleteIndex build() {
+            List<String> keys = new ArrayList<>();
+            List<Integer> targets = new ArrayList<>();
+            for (int s = 0; s < suggestions.size(); s++) {
+                String text = normalize(suggestions.get(s).text());
+                for (int start : wordStarts(text)) {
+                    keys.add(text.substring(start));
+                    targets.add(s);
+                }
+            }
+            Integer[] order = new Integer[keys.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> keys.get(a).compareTo(keys.get(b)));
+            String[] sortedKeys = new String[order.length];
+            int[] sortedTargets = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedKeys[i] = keys.get(order[i]);
+                sortedTargets[i] = targets.get(order[i]);
+            }
+            return new AutocompleteIndex(sortedKeys, sortedTargets, suggestions.toArray(new Suggestion[0]));
+        }
+    }
+
+    /** 細楷、頭尾空格去走、連續空白變一個空格 */
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    // 每個英文字 / 數字嘅開頭，同埋每個中文字
+    static List<Integer> wordStarts(String text) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < text.length();) {
+            int cp = text.codePointAt(i);
+            boolean han = Character.UnicodeScript.of(cp) == Character.UnicodeScript.HAN;
+            if (han || Character.isLetterOrDigit(cp) && (i == 0 || !Character.isLetterOrDigit(text.codePointBefore(i))
+                    || Character.UnicodeScript.of(text.codePointBefore(i)) == Character.UnicodeScript.HAN)) {
+                starts.add(i);
+            }
+            i += Character.charCount(cp);
+        }
+        return starts;
+    }
+
+    /** prefix 開頭（任何一個字開頭都得）嘅建議，最受歡迎排先，同一個建議只出一次 */
+    public List<Suggestion> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0 || keys.length == 0) {
+            return Collections.emptyList();
+        }
+        int lo = lowerBound(key);
+        int hi = lowerBound(key + Character.MAX_VALUE);
+        if (lo >= hi) {
+            return Collections.emptyList();
+        }
+        // 每個 entry = {段頭, 段尾, 段入面最高嗰個}；拎出最高嗰個之後，左右兩段放返入去
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compare(b[2], a[2]));
+        ranges.add(new int[] { lo, hi, best(lo, hi) });
+        List<Suggestion> result = new ArrayList<>(limit);
+        Set<Integer> seen = new HashSet<>();
+        while (!ranges.isEmpty() && result.size() < limit) {
+            int[] range = ranges.poll();
+            int at = range[2];
+            if (seen.add(targets[at])) {
+                result.add(suggestions[targets[at]]);
+            }
+            if (range[0] < at) {
+                ranges.add(new int[] { range[0], at, best(range[0], at) });
+            }
+            if (at + 1 < range[1]) {
+                ranges.add(new int[] { at + 1, range[1], best(at + 1, range[1]) });
+            }
+        }
+        return result;
+    }
+
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // [from, to) 入面 popularity 最高嘅 key 位置
+    private int best(int from, int to) {
+        int result = -1;
+        for (int l = from + leaves, r = to + leaves; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                result = better(result, tree[l++]);
+            }
+            if ((r & 1) == 1) {
+                result = better(result, tree[--r]);
+            }
+        }
+        return result;
+    }
+
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        return compare(a, b) >= 0 ? a : b;
+    }
+
+    // popularity 高嘅大；同分就短啲嘅名（更似用戶想搵嘅）、再按位置
+    private int compare(int a, int b) {
+        Suggestion x = suggestions[targets[a]];
+        Suggestion y = suggestions[targets[b]];
+        if (x.popularity() != y.popularity()) {
+            return Long.compare(x.popularity(), y.popularity());
+        }
+        if (x.text().length() != y.text().length()) {
+            return Integer.compare(y.text().length(), x.text().length());
+        }
+        return Integer.compare(b, a);
+    }
+}
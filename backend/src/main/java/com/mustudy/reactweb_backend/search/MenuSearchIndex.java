@@ -0,0 +1,406 @@
+package com.mustudy.reactweb_backend.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+
+/**
+ * 菜式全文搜尋嘅 inverted index（唔可變，建好之後 thread-safe）。
+ * <ul>
+ * <li>itemName / category / description 拆做 token：英文數字按字、中文逐個字；全部細楷</li>
+ * <li>term 排好序放喺 array，每個 term 一條 posting list：{@code doc << 3 | 邊幾個 field 有呢個字}，按 doc 排</li>
+ * <li>查詢每個字都要中（AND）；最後一個字當 prefix（打緊字），搵唔到嘅字容許打錯 1 個字母（8 個字母以上 2 個）</li>
+ * <li>分數：名 3、分類 2、描述 1，完全中 ×1、prefix ×0.8、打錯 ×0.6，加埋每個字</li>
+ * </ul>
+ * 由最細嘅 posting list 開始攞候選，其他字用 galloping search 逐個 check，所以常見字唔會拖慢罕見字嘅查詢；
+ * 夠晒 limit 個最高可能分數嘅結果就停。
+ */
+public final class MenuSearchIndex {
+
+    public static final int FIELD_NAME = 1;
+    public static final int FIELD_CATEGORY = 2;
+    public static final int FIELD_DESCRIPTION = 4;
+
+    static final float EXACT = 1.0f;
+    static final float PREFIX = 0.8f;
+    static final float FUZZY = 0.6f;
+    // prefix 太短會展開成好多 term，只揀最多 doc 嘅幾個
+    static final int MAX_PREFIX_TERMS = 64;
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MIN_FUZZY_LENGTH = 4;
+
+    /** 建 index 用嘅菜式資料；description 只用嚟拆字，唔會留喺 index */
+    public record Item(int itemId, int restid, String itemName, String category, String description, BigDecimal price) {
+    }
+
+    public record Hit(int itemId, int restid, String itemName, String category, BigDecimal price, float score) {
+    }
+
+    private final String[] terms;
+    private final int[][] postings;
+    // 每個 term 喺邊幾個 field 出現過（全部 doc OR 埋），用嚟計最高可能分數
+    private final byte[] termFields;
+    private final int[] itemIds;
+    private final int[] restids;
+    private final String[] names;
+    private final String[] categories;
+    private final BigDecimal[] prices;
+
+    private MenuSearchIndex(String[] terms, int[][] postings, byte[] termFields, int[] itemIds, int[] restids, String[] names,
+            String[] categories, BigDecimal[] prices) {
+        this.terms = terms;
+        this.postings = postings;
+        this.termFields = termFields;
+        this.itemIds = itemIds;
+        this.restids = restids;
+        this.names = names;
+        this.categories = categories;
+        this.prices = prices;
+    }
+
+    public static MenuSearchIndex empty() {
+        return new Builder().build();
+    }
+
+    public int size() {
+        return itemIds.length;
+    }
+
+    public int termCount() {
+        return terms.length;
+    }
+
+    /** 逐個菜式加入，最後 build()；唔係 thread-safe */
+    public static final class Builder {
+        private final Map<String, IntList> postings = new HashMap<>();
+        private final IntList itemIds = new IntList();
+        private final IntList restids = new IntList();
+        private final List<String> names = new ArrayList<>();
+        private final List<String> categories = new ArrayList<>();
+        private final List<BigDecimal> prices = new ArrayList<>();
+        private final Map<String, Integer> masks = new HashMap<>();
+
+        public Builder add(Item item) {
+            int doc = itemIds.size();
+            itemIds.add(item.itemId());
+            restids.add(item.restid());
+            names.add(item.itemName());
+            // 分類字串好多重複，共用同一個 instance
+            categories.add(item.category() == null ? null : item.category().intern());
+            prices.add(item.price());
+
+            masks.clear();
+            collect(item.itemName(), FIELD_NAME);
+            collect(item.category(), FIELD_CATEGORY);
+            collect(item.description(), FIELD_DESCRIPTION);
+            for (Map.Entry<String, Integer> entry : masks.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new IntList()).add(doc << 3 | entry.getValue());
+            }
+            return this;
+        }
+
+        private void collect(String text, int field) {
+            for (String token : tokenize(text)) {
+                masks.merge(token, field, (a, b) -> a | b);
+            }
+        }
+
+        public MenuSearchIndex build() {
+            String[] terms = postings.keySet().toArray(new String[0]);
+            Arrays.sort(terms);
+            int[][] lists = new int[terms.length][];
+            byte[] fields = new byte[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                lists[i] = postings.get(terms[i]).toArray();
+                for (int posting : lists[i]) {
+                    fields[i] |= posting & 7;
+                }
+            }
+            return new MenuSearchIndex(terms, lists, fields, itemIds.toArray(), restids.toArray(), names.toArray(new String[0]),
+                    categories.toArray(new String[0]), prices.toArray(new BigDecimal[0]));
+        }
+    }
+
+    /** 細楷；英文 / 數字連續嘅當一個字，中文（漢字）每個字一個 token，其他符號分隔 */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length();) {
+            int cp = lower.codePointAt(i);
+            i += Character.charCount(cp);
+            if (Character.UnicodeScript.of(cp) == Character.UnicodeScript.HAN) {
+                flush(word, tokens);
+                tokens.add(new String(Character.toChars(cp)));
+            } else if (Character.isLetterOrDigit(cp)) {
+                word.appendCodePoint(cp);
+            } else {
+                flush(word, tokens);
+            }
+        }
+        flush(word, tokens);
+        return tokens;
+    }
+
+    private static void flush(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    /**
+     * 搜尋，返回分數最高嘅 limit 個；accept 用嚟過濾 doc（例如已經被更新 / 刪除、指定餐廳）。
+     */
+    public List<Hit> search(String query, int limit, IntPredicate accept) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0 || itemIds.length == 0) {
+            return Collections.emptyList();
+        }
+        // 最後一個字後面冇空格 = 仲打緊，當 prefix
+        boolean lastIsPrefix = !Character.isWhitespace(query.charAt(query.length() - 1));
+        List<Expansion[]> expanded = new ArrayList<>(tokens.size());
+        for (int t = 0; t < tokens.size(); t++) {
+            Expansion[] expansions = expand(tokens.get(t), lastIsPrefix && t == tokens.size() - 1);
+            if (expansions.length == 0) {
+                return Collections.emptyList();
+            }
+            expanded.add(expansions);
+        }
+        expanded.sort((a, b) -> Long.compare(totalSize(a), totalSize(b)));
+
+        // 每個 doc 最多攞到嘅分：每個字各個展開 weight × 佢出現過嘅最高 field 分，加埋。heap 滿咗而且最低分已經係呢個數，
+        // 後面嘅 doc 最多只係同分（同分 doc 細排先），可以即刻停，常見字 / 短 prefix 唔使行晒成條 list
+        float bound = 0;
+        for (Expansion[] expansions : expanded) {
+            float best = 0;
+            for (Expansion expansion : expansions) {
+                best = Math.max(best, expansion.weight * fieldWeight(termFields[expansion.term]));
+            }
+            bound += best;
+        }
+        long maxScore = Math.round(bound * 1000);
+
+        Expansion[] first = expanded.get(0);
+        PriorityQueue<long[]> top = new PriorityQueue<>(limit + 1,
+                (a, b) -> a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(b[0], a[0]));
+        int[][] cursors = new int[expanded.size()][];
+        for (int t = 1; t < expanded.size(); t++) {
+            cursors[t] = new int[expanded.get(t).length];
+        }
+        // 第一個（最細）字：所有展開嘅 posting list 做 k-way merge，逐個 doc 出嚟
+        PriorityQueue<int[]> merge = new PriorityQueue<>((a, b) -> Integer.compare(
+                postings[first[a[0]].term][a[1]] >>> 3, postings[first[b[0]].term][b[1]] >>> 3));
+        for (int e = 0; e < first.length; e++) {
+            merge.add(new int[] { e, 0 });
+        }
+        while (!merge.isEmpty()) {
+            int doc = postings[first[merge.peek()[0]].term][merge.peek()[1]] >>> 3;
+            float score = 0;
+            while (!merge.isEmpty()) {
+                int[] head = merge.peek();
+                int[] list = postings[first[head[0]].term];
+                int posting = list[head[1]];
+                if (posting >>> 3 != doc) {
+                    break;
+                }
+                merge.poll();
+                score = Math.max(score, first[head[0]].weight * fieldWeight(posting & 7));
+                if (++head[1] < list.length) {
+                    merge.add(head);
+                }
+            }
+            if (!accept.test(doc)) {
+                continue;
+            }
+            boolean matched = true;
+            for (int t = 1; t < expanded.size() && matched; t++) {
+                float best = match(expanded.get(t), cursors[t], doc);
+                matched = best > 0;
+                score += best;
+            }
+            if (!matched) {
+                continue;
+            }
+            // 分數 ×1000 變整數；doc 係由細到大，同分嘅唔會擠走 heap 入面嘅
+            long scaled = Math.round(score * 1000);
+            if (top.size() < limit) {
+                top.add(new long[] { doc, scaled });
+            } else if (scaled > top.peek()[1]) {
+                top.poll();
+                top.add(new long[] { doc, scaled });
+            }
+            if (top.size() == limit && top.peek()[1] >= maxScore) {
+                break;
+            }
+        }
+
+        Hit[] hits = new Hit[top.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            long[] entry = top.poll();
+            int doc = (int) entry[0];
+            hits[i] = new Hit(itemIds[doc], restids[doc], names[doc], categories[doc], prices[doc], entry[1] / 1000f);
+        }
+        return Arrays.asList(hits);
+    }
+
+    public int restidOf(int doc) {
+        return restids[doc];
+    }
+
+    public int itemIdOf(int doc) {
+        return itemIds[doc];
+    }
+
+    private record Expansion(int term, float weight) {
+    }
+
+    private long totalSize(Expansion[] expansions) {
+        long size = 0;
+        for (Expansion expansion : expansions) {
+            size += postings[expansion.term].length;
+        }
+        return size;
+    }
+
+    // 呢個字喺 doc 嘅最高分（0 = 冇中）；cursor 記住每條 list 上次嘅位置，doc 只會越嚟越大
+    private float match(Expansion[] expansions, int[] cursor, int doc) {
+        float best = 0;
+        for (int e = 0; e < expansions.length; e++) {
+            int[] list = postings[expansions[e].term];
+            int at = gallop(list, cursor[e], doc);
+            cursor[e] = at;
+            if (at < list.length && list[at] >>> 3 == doc) {
+                best = Math.max(best, expansions[e].weight * fieldWeight(list[at] & 7));
+            }
+        }
+        return best;
+    }
+
+    // 由 from 開始搵第一個 doc >= target 嘅位置：先 1、2、4… 咁跳，再喺範圍入面 binary search
+    static int gallop(int[] list, int from, int target) {
+        int bound = 1;
+        int lo = from;
+        while (from + bound < list.length && list[from + bound] >>> 3 < target) {
+            lo = from + bound;
+            bound <<= 1;
+        }
+        int hi = Math.min(list.length, from + bound + 1);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (list[mid] >>> 3 < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static float fieldWeight(int mask) {
+        if ((mask & FIELD_NAME) != 0) {
+            return 3;
+        }
+        return (mask & FIELD_CATEGORY) != 0 ? 2 : 1;
+    }
+
+    private Expansion[] expand(String token, boolean prefix) {
+        List<Expansion> expansions = new ArrayList<>();
+        int exact = Arrays.binarySearch(terms, token);
+        if (exact >= 0) {
+            expansions.add(new Expansion(exact, EXACT));
+        }
+        if (prefix && token.length() >= MIN_PREFIX_LENGTH) {
+            int from = exact >= 0 ? exact + 1 : -exact - 1;
+            int to = from;
+            while (to < terms.length && terms[to].startsWith(token)) {
+                to++;
+            }
+            Integer[] range = new Integer[to - from];
+            for (int i = 0; i < range.length; i++) {
+                range[i] = from + i;
+            }
+            if (range.length > MAX_PREFIX_TERMS) {
+                Arrays.sort(range, (a, b) -> Integer.compare(postings[b].length, postings[a].length));
+            }
+            for (int i = 0; i < Math.min(range.length, MAX_PREFIX_TERMS); i++) {
+                expansions.add(new Expansion(range[i], PREFIX));
+            }
+        }
+        if (expansions.isEmpty() && token.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = token.length() >= 8 ? 2 : 1;
+            // 假設第一個字母冇打錯，只睇同一個字母開頭嘅 term
+            String head = token.substring(0, Character.charCount(token.codePointAt(0)));
+            int from = -Arrays.binarySearch(terms, head) - 1;
+            if (from < 0) {
+                from = Arrays.binarySearch(terms, head);
+            }
+            for (int i = from; i < terms.length && terms[i].startsWith(head); i++) {
+                String term = terms[i];
+                if (Math.abs(term.length() - token.length()) <= maxEdits
+                        && withinEdits(token, term, maxEdits)) {
+                    expansions.add(new Expansion(i, FUZZY));
+                }
+            }
+        }
+        return expansions.toArray(new Expansion[0]);
+    }
+
+    // Levenshtein 距離 <= max（只計對角線附近，超過就提早放棄）
+    static boolean withinEdits(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m] <= max;
+    }
+
+    /** 唔使 boxing 嘅 int list */
+    static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -100,6 +100,8 @@ public class AuthService {
         restaurant.setEmail(request.getEmail());
         restaurant.setDescription(request.getDescription());
         restaurant.setAddress(request.getAddress());
+        restaurant.setLatitude(request.getLatitude());
+        restaurant.setLongitude(request.getLongitude());
         // restaurant.setCuisine(request.getCuisine());
         restaurant.setPassHash1(sha384Hash);
         restaurant.setPassHash2(sha256Hash);
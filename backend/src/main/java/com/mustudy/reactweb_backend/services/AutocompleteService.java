@@ -0,0 +1,167 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.mustudy.reactweb_backend.dto.AutocompleteSuggestion;
+import com.mustudy.reactweb_backend.dto.MenuImportedEvent;
+import com.mustudy.reactweb_backend.search.AutocompleteIndex;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 搜尋框嘅自動完成（每打一個字一個 request）。背景 thread 每 rebuild-interval-ms 用
+ * active 菜式名（同名嘅菜合併）同營業中餐廳名建一個新嘅 AutocompleteIndex，建好先換走（volatile），
+ * 查詢唔使 lock、唔使 query。受歡迎程度 = order_items 叫過幾多份：第一次全部加一次，
+ * 之後只加 orderitemid 大過上次嘅新紀錄（主鍵範圍），唔會每次 GROUP BY 成個 order_items。
+ * 落單未夠 commit-lag-ms 嘅紀錄（同埋 id 喺佢之後嘅）留返下一次先加，細 id 遲 commit 嘅唔會漏計。
+ */
+@Service
+public class AutocompleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteService.class);
+
+    static final String COUNTS_SQL = "SELECT item_id, SUM(quantity), MAX(orderitemid) FROM order_items"
+            + " WHERE orderitemid > ? AND orderitemid < ? GROUP BY item_id";
+    static final String BOUND_SQL = "SELECT MIN(oi.orderitemid) FROM order_items oi JOIN orders o ON o.orderid = oi.orderid"
+            + " WHERE oi.orderitemid > ? AND o.created_time >= ?";
+    static final String ITEMS_SQL = "SELECT item_id, restid, item_name FROM menu_items"
+            + " WHERE status = 'active' AND item_id > ? ORDER BY item_id LIMIT ?";
+    static final String RESTAURANTS_SQL = "SELECT restid, restname FROM restaurant"
+            + " WHERE isvalidate = TRUE AND deleted_time IS NULL";
+    static final int LOAD_BATCH_SIZE = 10000;
+    static final int MAX_LIMIT = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.autocomplete.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.autocomplete.rebuild-interval-ms:600000}")
+    private long rebuildIntervalMs;
+
+    @Value("${app.autocomplete.commit-lag-ms:10000}")
+    private long commitLagMs;
+
+    private volatile AutocompleteIndex index = AutocompleteIndex.empty();
+
+    // 只有 rebuild（synchronized）會用：每個菜式累計份數，同埋已經計到邊條 order_items。
+    // auto increment 嘅 id 未必按 commit 次序，所以只計到第一條太新嘅紀錄之前
+    private final Map<Integer, Long> itemCounts = new HashMap<>();
+    private long lastOrderItemId;
+
+    private volatile boolean running;
+    private Thread indexer;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        indexer = new Thread(this::rebuildLoop, "autocomplete-indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (indexer != null) {
+            LockSupport.unpark(indexer);
+            indexer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void rebuildLoop() {
+        while (running) {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("autocomplete rebuild failed", e);
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(rebuildIntervalMs));
+        }
+    }
+
+    public synchronized void rebuild() {
+        long begin = System.currentTimeMillis();
+        Long bound = jdbcTemplate.queryForObject(BOUND_SQL, Long.class, lastOrderItemId,
+                new Timestamp(begin - commitLagMs));
+        jdbcTemplate.query(COUNTS_SQL, rs -> {
+            itemCounts.merge(rs.getInt(1), rs.getLong(2), Long::sum);
+            lastOrderItemId = Math.max(lastOrderItemId, rs.getLong(3));
+        }, lastOrderItemId, bound == null ? Long.MAX_VALUE : bound);
+
+        // 同名（唔理大細楷同空格）嘅菜合併做一個建議，顯示最受歡迎嗰間嘅寫法
+        Map<String, AutocompleteIndex.Suggestion> dishes = new HashMap<>();
+        Map<Integer, Long> restaurantCounts = new HashMap<>();
+        int[] lastId = { 0 };
+        int[] read = { 0 };
+        do {
+            read[0] = 0;
+            jdbcTemplate.query(ITEMS_SQL, rs -> {
+                lastId[0] = rs.getInt(1);
+                read[0]++;
+                String name = rs.getString(3);
+                long count = itemCounts.getOrDefault(lastId[0], 0L);
+                restaurantCounts.merge(rs.getInt(2), count, Long::sum);
+                dishes.merge(AutocompleteIndex.normalize(name),
+                        new AutocompleteIndex.Suggestion(AutocompleteIndex.DISH, name, null, count),
+                        (a, b) -> new AutocompleteIndex.Suggestion(AutocompleteIndex.DISH,
+                                a.popularity() >= b.popularity() ? a.text() : b.text(), null,
+                                a.popularity() + b.popularity()));
+            }, lastId[0], LOAD_BATCH_SIZE);
+        } while (read[0] == LOAD_BATCH_SIZE);
+
+        AutocompleteIndex.Builder builder = new AutocompleteIndex.Builder();
+        dishes.values().forEach(builder::add);
+        jdbcTemplate.query(RESTAURANTS_SQL, rs -> {
+            int restid = rs.getInt(1);
+            builder.add(new AutocompleteIndex.Suggestion(AutocompleteIndex.RESTAURANT, rs.getString(2), restid,
+                    restaurantCounts.getOrDefault(restid, 0L)));
+        });
+        index = builder.build();
+        log.info("autocomplete index built: {} suggestions in {} ms", index.size(),
+                System.currentTimeMillis() - begin);
+    }
+
+    /** 批量匯入完（commit 之後）唔等下一輪，叫背景 thread 即刻重建；新菜式名先會出現 */
+    @TransactionalEventListener
+    public void onMenuImported(MenuImportedEvent event) {
+        if (indexer != null) {
+            LockSupport.unpark(indexer);
+        }
+    }
+
+    /** 未建好 index 之前返回空 list（打字時唔好彈錯誤） */
+    public List<AutocompleteSuggestion> complete(String prefix, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<AutocompleteSuggestion> results = new ArrayList<>(size);
+        for (AutocompleteIndex.Suggestion suggestion : index.complete(prefix, size)) {
+            AutocompleteSuggestion result = new AutocompleteSuggestion();
+            result.setType(suggestion.type());
+            result.setText(suggestion.text());
+            result.setRestid(suggestion.restid());
+            result.setPopularity(suggestion.popularity());
+            results.add(result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,96 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+@Lazy
+@Service
+public class ConnectionPoolService {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 連接池即時狀態：active / idle / pending，加埋攞 connection 嘅等候時間分佈
+     */
+    public Map<String, Object> getPoolStats() {
+        HikariDataSource hikari = unwrapHikari();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolName", hikari.getPoolName());
+        stats.put("maximumPoolSize", hikari.getMaximumPoolSize());
+        stats.put("minimumIdle", hikari.getMinimumIdle());
+
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool != null) {
+            stats.put("active", pool.getActiveConnections());
+            stats.put("idle", pool.getIdleConnections());
+            stats.put("pending", pool.getThreadsAwaitingConnection());
+            stats.put("total", pool.getTotalConnections());
+        }
+
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire")
+                .tag("pool", hikari.getPoolName())
+                .timer();
+        if (acquire != null) {
+            stats.put("acquire", toHistogram(acquire.takeSnapshot()));
+        }
+        Double timeouts = meterRegistry.find("hikaricp.connections.timeout")
+                .tag("pool", hikari.getPoolName())
+                .counters().stream().map(c -> c.count()).reduce(0.0, Double::sum);
+        stats.put("timeouts", timeouts.longValue());
+        return stats;
+    }
+
+    private Map<String, Object> toHistogram(HistogramSnapshot snapshot) {
+        Map<String, Object> histogram = new LinkedHashMap<>();
+        histogram.put("count", snapshot.count());
+        histogram.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+        histogram.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile p : snapshot.percentileValues()) {
+            percentiles.put("p" + Math.round(p.percentile() * 100), p.value(TimeUnit.MILLISECONDS));
+        }
+        histogram.put("percentilesMs", percentiles);
+
+        // 累計 bucket：<= 上限(ms) 嘅次數
+        Map<String, Double> buckets = new LinkedHashMap<>();
+        for (CountAtBucket bucket : snapshot.histogramCounts()) {
+            buckets.put("le_" + formatMs(bucket.bucket(TimeUnit.MILLISECONDS)), bucket.count());
+        }
+        histogram.put("buckets", buckets);
+        return histogram;
+    }
+
+    private String formatMs(double ms) {
+        return ms == Math.rint(ms) ? String.valueOf((long) ms) : String.valueOf(ms);
+    }
+
+    private HikariDataSource unwrapHikari() {
+        try {
+            return dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            throw new RuntimeException("DataSource is not a HikariCP pool", e);
+        }
+    }
+}
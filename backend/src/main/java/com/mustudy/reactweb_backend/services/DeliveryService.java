@@ -0,0 +1,191 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.mustudy.reactweb_backend.dto.DeliveryTrackingResponse;
+import com.mustudy.reactweb_backend.dto.OrderSnapshot;
+import com.mustudy.reactweb_backend.metrics.RollingAverage;
+import com.mustudy.reactweb_backend.models.Delivery;
+import com.mustudy.reactweb_backend.models.OrderEvent;
+import com.mustudy.reactweb_backend.models.Orders;
+import com.mustudy.reactweb_backend.repositories.DeliveryRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 外送紀錄同 ETA。每次接單寫一條 deliveries，ETA = 出發時間 + 呢間餐廳最近 samples 單嘅平均外送時間
+ * （startDeliverTime→endDeliverTime）。平均值喺 memory 用 RollingAverage 逐單更新（送達 event 由 outbox 派嚟），
+ * 啟動完成後（ApplicationReadyEvent，唔阻住 context refresh）用最近 warmup-days 日嘅訂單填一次，之後唔再用 SQL 計。
+ * 追蹤畫面讀 activeDeliveries（送緊嘅單），唔使 query。
+ */
+@Service
+public class DeliveryService implements OrderEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryService.class);
+
+    static final String WARMUP_SQL = "SELECT restid, start_deliver_time, end_deliver_time FROM orders"
+            + " WHERE start_deliver_time >= ? AND end_deliver_time IS NOT NULL ORDER BY start_deliver_time";
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.delivery.eta.samples:50}")
+    private int samples;
+
+    // 餐廳樣本少過呢個數就用全部餐廳嘅平均
+    @Value("${app.delivery.eta.min-samples:5}")
+    private int minSamples;
+
+    @Value("${app.delivery.eta.default-minutes:30}")
+    private long defaultMinutes;
+
+    @Value("${app.delivery.eta.warmup-days:14}")
+    private int warmupDays;
+
+    private final ConcurrentHashMap<Integer, RollingAverage> durationsByRestaurant = new ConcurrentHashMap<>();
+    private RollingAverage allDurations;
+
+    // 送緊嘅單 orderid -> 追蹤資料；送達 / 取消 event 到咗就移除
+    private final ConcurrentHashMap<Integer, DeliveryTrackingResponse> activeDeliveries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        allDurations = new RollingAverage(samples * 20);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long begin = System.currentTimeMillis();
+        Timestamp since = new Timestamp(begin - warmupDays * 86_400_000L);
+        int[] rows = { 0 };
+        jdbcTemplate.query(WARMUP_SQL, rs -> {
+            recordDuration(rs.getInt(1), rs.getTimestamp(2), rs.getTimestamp(3));
+            rows[0]++;
+        }, since);
+        log.info("delivery ETA warmed up from {} orders in {} ms", rows[0], System.currentTimeMillis() - begin);
+    }
+
+    /** 接單：喺 OrderService 嘅 transaction 入面寫 deliveries */
+    public Delivery recordAssignment(Orders order) {
+        Delivery delivery = new Delivery();
+        delivery.setOrderid(order.getOrderid());
+        delivery.setDriverId(order.getDeliverManId());
+        // 呢個系統接單即係攞咗餐出發，所以直接 in_transit
+        delivery.setDeliveryStatus(Delivery.DeliveryStatus.in_transit);
+        delivery.setEta(new Timestamp(order.getStartDeliverTime().getTime() + estimateMillis(order.getRestid())));
+        delivery.setCreatedTime(new Timestamp(System.currentTimeMillis()));
+        return deliveryRepository.save(delivery);
+    }
+
+    public void recordDelivered(Orders order) {
+        deliveryRepository.findFirstByOrderidOrderByDeliveryidDesc(order.getOrderid()).ifPresent(delivery -> {
+            delivery.setDeliveryStatus(Delivery.DeliveryStatus.delivered);
+            delivery.setActualDeliveryTime(order.getEndDeliverTime());
+            deliveryRepository.save(delivery);
+        });
+    }
+
+    public void recordFailed(Orders order) {
+        deliveryRepository.findFirstByOrderidOrderByDeliveryidDesc(order.getOrderid()).ifPresent(delivery -> {
+            delivery.setDeliveryStatus(Delivery.DeliveryStatus.failed);
+            deliveryRepository.save(delivery);
+        });
+    }
+
+    // dispatcher commit 之前死咗先會再派同一個 event（at-least-once），重複嘅樣本對平均值影響好細，唔特登去重
+    @Override
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getNewStatus() == Orders.OrderStatus.delivered) {
+            OrderSnapshot order = event.getOrder();
+            recordDuration(order.getRestid(), order.getStartDeliverTime(), order.getEndDeliverTime());
+            activeDeliveries.remove(event.getOrderid());
+        } else if (event.getNewStatus() == Orders.OrderStatus.cancelled) {
+            activeDeliveries.remove(event.getOrderid());
+        }
+    }
+
+    /**
+     * 追蹤畫面：送緊嘅單第一次讀 deliveries，之後由 memory 返回。
+     * 過咗 ETA 仲未收到送達 event 就每次重新讀，免得顯示過期狀態。
+     */
+    public DeliveryTrackingResponse getTracking(Integer orderid) {
+        long now = System.currentTimeMillis();
+        DeliveryTrackingResponse tracking = activeDeliveries.get(orderid);
+        if (tracking == null || (tracking.getEta() != null && tracking.getEta().getTime() < now)) {
+            Delivery delivery = deliveryRepository.findFirstByOrderidOrderByDeliveryidDesc(orderid)
+                    .orElseThrow(() -> new RuntimeException("訂單未有外送紀錄"));
+            tracking = toTracking(delivery);
+            if (delivery.getDeliveryStatus() == Delivery.DeliveryStatus.in_transit
+                    || delivery.getDeliveryStatus() == Delivery.DeliveryStatus.assigned) {
+                activeDeliveries.put(orderid, tracking);
+            } else {
+                activeDeliveries.remove(orderid);
+            }
+        }
+        DeliveryTrackingResponse response = new DeliveryTrackingResponse();
+        response.setOrderid(tracking.getOrderid());
+        response.setDriverId(tracking.getDriverId());
+        response.setDeliveryStatus(tracking.getDeliveryStatus());
+        response.setEta(tracking.getEta());
+        response.setActualDeliveryTime(tracking.getActualDeliveryTime());
+        if (tracking.getActualDeliveryTime() == null && tracking.getEta() != null) {
+            response.setRemainingMinutes(Math.max(0, (tracking.getEta().getTime() - now + 59_999) / 60_000));
+        }
+        return response;
+    }
+
+    /** 餐廳而家嘅預計外送時間（分鐘），落單 / 結帳畫面用 */
+    public Map<String, Object> getEstimate(Integer restid) {
+        RollingAverage durations = durationsByRestaurant.get(restid);
+        Map<String, Object> estimate = new LinkedHashMap<>();
+        estimate.put("restid", restid);
+        estimate.put("estimatedMinutes", (estimateMillis(restid) + 59_999) / 60_000);
+        estimate.put("samples", durations == null ? 0 : durations.size());
+        return estimate;
+    }
+
+    long estimateMillis(Integer restid) {
+        RollingAverage durations = restid == null ? null : durationsByRestaurant.get(restid);
+        if (durations != null && durations.size() >= minSamples) {
+            return Math.round(durations.mean());
+        }
+        if (allDurations.size() > 0) {
+            return Math.round(allDurations.mean());
+        }
+        return defaultMinutes * 60_000L;
+    }
+
+    private void recordDuration(Integer restid, Timestamp start, Timestamp end) {
+        if (restid == null || start == null || end == null || end.before(start)) {
+            return;
+        }
+        long millis = end.getTime() - start.getTime();
+        durationsByRestaurant.computeIfAbsent(restid, k -> new RollingAverage(samples)).add(millis);
+        allDurations.add(millis);
+    }
+
+    private static DeliveryTrackingResponse toTracking(Delivery delivery) {
+        DeliveryTrackingResponse tracking = new DeliveryTrackingResponse();
+        tracking.setOrderid(delivery.getOrderid());
+        tracking.setDriverId(delivery.getDriverId());
+        tracking.setDeliveryStatus(delivery.getDeliveryStatus().name());
+        tracking.setEta(delivery.getEta());
+        tracking.setActualDeliveryTime(delivery.getActualDeliveryTime());
+        return tracking;
+    }
+}
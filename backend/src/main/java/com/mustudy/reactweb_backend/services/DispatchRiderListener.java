@@ -0,0 +1,50 @@
+package com.mustudy.reactweb_backend.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mustudy.reactweb_backend.models.DeliveryStaff;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * DeliveryStaff 嘅 JPA entity listener：外賣員新增 / 改狀態 / 刪除，commit 之後通知 DispatchService，
+ * 停用咗嘅即刻唔再收派單。直接改 DB 嘅就靠 DispatchService 定時 refreshRiders()。
+ */
+@Component
+public class DispatchRiderListener {
+
+    // EntityManagerFactory 初始化時已經要建立 listener，用 @Lazy 避免提早建立 dispatch
+    @Autowired
+    @Lazy
+    private DispatchService dispatchService;
+
+    @PostPersist
+    @PostUpdate
+    void saved(DeliveryStaff staff) {
+        afterCommit(() -> dispatchService.riderChanged(staff));
+    }
+
+    @PostRemove
+    void removed(DeliveryStaff staff) {
+        afterCommit(() -> dispatchService.removeRider(staff.getStaffId()));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
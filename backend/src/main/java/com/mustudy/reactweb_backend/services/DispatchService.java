@@ -0,0 +1,397 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.mustudy.reactweb_backend.dispatch.RiderGrid;
+import com.mustudy.reactweb_backend.dto.DispatchOffer;
+import com.mustudy.reactweb_backend.dto.OrderSnapshot;
+import com.mustudy.reactweb_backend.models.DeliveryStaff;
+import com.mustudy.reactweb_backend.models.OrderEvent;
+import com.mustudy.reactweb_backend.models.Orders;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 派單：餐廳 mark ready 之後（outbox 派嚟嘅 event），喺 RiderGrid 搵餐廳附近、有報位置、
+ * 冇送緊單嘅 active 外賣員，一次只派俾一個（最近嗰個）。佢 offer-timeout-ms 之內唔接或者拒絕，
+ * 就派俾下一個；附近冇人就 retry-ms 之後再試，期間張單照樣喺 /api/orders/available 度可以自己接。
+ * 唔再係所有外賣員一齊 poll /available 搶同一張單。
+ */
+@Service
+public class DispatchService implements OrderEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchService.class);
+
+    static final String RIDERS_SQL = "SELECT staff_id, vehicle_type FROM delivery_staff"
+            + " WHERE status = 'active' AND isvalidate = TRUE AND deleted_time IS NULL";
+    static final String RIDER_SQL = RIDERS_SQL + " AND staff_id = ?";
+    static final String BUSY_SQL = "SELECT DISTINCT deliver_man_ID FROM orders"
+            + " WHERE status = 'out_for_delivery' AND deliver_man_ID IS NOT NULL";
+    static final String WAITING_SQL = "SELECT orderid, restid FROM orders WHERE deliver_man_ID IS NULL AND status = 'ready'";
+    // 每次喺 grid 攞幾多個最近嘅，再按交通工具嘅範圍揀
+    static final int CANDIDATES = 10;
+    static final double MAX_RADIUS_KM = 10;
+
+    // OrderService → OrderOutboxService → 所有 OrderEventListener（包括呢個），用 @Lazy 打破循環
+    @Autowired
+    @Lazy
+    private OrderService orderService;
+
+    @Autowired
+    private RestaurantDirectoryService restaurantDirectoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.dispatch.offer-timeout-ms:30000}")
+    private long offerTimeoutMs;
+
+    @Value("${app.dispatch.retry-ms:15000}")
+    private long retryMs;
+
+    // 超過呢個時間冇報位置嘅外賣員當離線
+    @Value("${app.dispatch.location-max-age-ms:120000}")
+    private long locationMaxAgeMs;
+
+    // 幾耐由 DB 重新讀一次 active 外賣員（直接改 DB 停用嘅都會被踢走）
+    @Value("${app.dispatch.rider-refresh-ms:60000}")
+    private long riderRefreshMs;
+
+    private final RiderGrid grid = new RiderGrid();
+    private final ConcurrentHashMap<Integer, DeliveryStaff.VehicleType> riders = new ConcurrentHashMap<>();
+    private final Set<Integer> busyRiders = ConcurrentHashMap.newKeySet();
+
+    /** 派緊嘅單；offers / offerByRider 用 this 做 lock */
+    private static final class Offer {
+        final int orderid;
+        final int restid;
+        final double latitude;
+        final double longitude;
+        // 今輪拒絕過 / 超時嘅外賣員
+        final Set<Integer> tried = new HashSet<>();
+        Integer riderId;
+        double distanceKm;
+        long expiresAt;
+
+        Offer(int orderid, int restid, double latitude, double longitude) {
+            this.orderid = orderid;
+            this.restid = restid;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    // riderId == null 即係「附近冇人，遲啲再試」
+    private record Deadline(int orderid, Integer riderId, long at) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(at - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(at, ((Deadline) other).at);
+        }
+    }
+
+    private final Map<Integer, Offer> offers = new HashMap<>();
+    private final Map<Integer, Integer> offerByRider = new HashMap<>();
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    /** 啟動完成後載入 active 外賣員、邊個送緊單，同埋派返未有人接嘅 ready 單 */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        jdbcTemplate.query(RIDERS_SQL, rs -> {
+            riders.put(rs.getInt(1), DeliveryStaff.VehicleType.valueOf(rs.getString(2)));
+        });
+        busyRiders.addAll(jdbcTemplate.queryForList(BUSY_SQL, Integer.class));
+        jdbcTemplate.query(WAITING_SQL, rs -> {
+            startDispatch(rs.getInt(1), rs.getInt(2));
+        });
+        if (enabled && worker == null) {
+            running = true;
+            worker = new Thread(this::deadlineLoop, "dispatch-offers");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void deadlineLoop() {
+        long nextRefresh = System.currentTimeMillis() + riderRefreshMs;
+        while (running) {
+            try {
+                Deadline deadline = deadlines.poll(1, TimeUnit.SECONDS);
+                if (deadline != null) {
+                    handle(deadline);
+                }
+                if (System.currentTimeMillis() >= nextRefresh) {
+                    nextRefresh = System.currentTimeMillis() + riderRefreshMs;
+                    refreshRiders();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("dispatch deadline handling failed", e);
+            }
+        }
+    }
+
+    /** 處理所有已經到期嘅 deadline（background thread 冇開時俾 test 用） */
+    public void expireOffers() {
+        Deadline deadline;
+        while ((deadline = deadlines.poll()) != null) {
+            handle(deadline);
+        }
+    }
+
+    private synchronized void handle(Deadline deadline) {
+        Offer offer = offers.get(deadline.orderid());
+        if (offer == null) {
+            return;
+        }
+        if (deadline.riderId() == null) {
+            if (offer.riderId == null) {
+                // 新一輪，之前拒絕過嘅都可以再問
+                offer.tried.clear();
+                offerNext(offer);
+            }
+        } else if (deadline.riderId().equals(offer.riderId) && offer.expiresAt <= deadline.at()) {
+            log.debug("offer of order {} to rider {} timed out", offer.orderid, offer.riderId);
+            offerNext(offer);
+        }
+    }
+
+    @Override
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getEventType() != OrderEvent.EventType.status_changed || event.getNewStatus() == null) {
+            return;
+        }
+        OrderSnapshot order = event.getOrder();
+        switch (event.getNewStatus()) {
+            case ready -> {
+                if (order.getDeliverManId() == null) {
+                    startDispatch(order.getOrderid(), order.getRestid());
+                }
+            }
+            case out_for_delivery -> {
+                finish(order.getOrderid());
+                if (order.getDeliverManId() != null) {
+                    busyRiders.add(order.getDeliverManId());
+                }
+            }
+            case delivered, cancelled -> {
+                finish(order.getOrderid());
+                if (order.getDeliverManId() != null) {
+                    busyRiders.remove(order.getDeliverManId());
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // event 可能重複派（at-least-once），已經派緊就唔理
+    private synchronized void startDispatch(int orderid, int restid) {
+        if (offers.containsKey(orderid)) {
+            return;
+        }
+        double[] location = restaurantDirectoryService.locationOf(restid);
+        if (location == null) {
+            log.debug("restaurant {} has no location, order {} stays in the available pool", restid, orderid);
+            return;
+        }
+        Offer offer = new Offer(orderid, restid, location[0], location[1]);
+        offers.put(orderid, offer);
+        offerNext(offer);
+    }
+
+    private synchronized void finish(int orderid) {
+        Offer offer = offers.remove(orderid);
+        if (offer != null && offer.riderId != null) {
+            offerByRider.remove(offer.riderId);
+        }
+    }
+
+    // 收返上一個外賣員嘅 offer，派俾下一個最近而且範圍夠嘅；冇就排 retry
+    private void offerNext(Offer offer) {
+        if (offer.riderId != null) {
+            offerByRider.remove(offer.riderId);
+            offer.tried.add(offer.riderId);
+            offer.riderId = null;
+        }
+        long now = System.currentTimeMillis();
+        List<RiderGrid.Candidate> candidates = grid.nearest(offer.latitude, offer.longitude, MAX_RADIUS_KM, CANDIDATES,
+                now - locationMaxAgeMs, id -> riders.containsKey(id) && !busyRiders.contains(id)
+                        && !offerByRider.containsKey(id) && !offer.tried.contains(id));
+        for (RiderGrid.Candidate candidate : candidates) {
+            DeliveryStaff.VehicleType vehicle = riders.get(candidate.riderId());
+            if (vehicle != null && candidate.distanceKm() <= radiusKm(vehicle)) {
+                offer.riderId = candidate.riderId();
+                offer.distanceKm = candidate.distanceKm();
+                offer.expiresAt = now + offerTimeoutMs;
+                offerByRider.put(offer.riderId, offer.orderid);
+                deadlines.add(new Deadline(offer.orderid, offer.riderId, offer.expiresAt));
+                return;
+            }
+        }
+        deadlines.add(new Deadline(offer.orderid, null, now + retryMs));
+    }
+
+    // 單車踩唔到咁遠
+    static double radiusKm(DeliveryStaff.VehicleType vehicle) {
+        return switch (vehicle) {
+            case bike -> 3;
+            case scooter -> 6;
+            case car, van -> MAX_RADIUS_KM;
+        };
+    }
+
+    /** 外賣員報位置（開工 / 移動） */
+    public void updateLocation(Integer staffId, Double latitude, Double longitude) {
+        updateLocation(staffId, latitude, longitude, System.currentTimeMillis());
+    }
+
+    /** time = 呢個位置係幾時錄嘅；比 grid 入面已經有嘅舊就唔理 */
+    public void updateLocation(Integer staffId, Double latitude, Double longitude, long time) {
+        if (latitude == null || longitude == null || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new RuntimeException("位置資料不正確");
+        }
+        requireRider(staffId);
+        grid.update(staffId, latitude, longitude, time);
+    }
+
+    /**
+     * 外賣員唔存在或者停用咗就 throw。經 JPA 停用嘅 commit 之後即刻生效（DispatchRiderListener），
+     * 直接改 DB 嘅最遲 rider-refresh-ms 之後生效。
+     */
+    public void requireRider(Integer staffId) {
+        if (!riders.containsKey(staffId)) {
+            // 啟動之後先加入 / 先啟用嘅外賣員
+            jdbcTemplate.query(RIDER_SQL, rs -> {
+                riders.put(rs.getInt(1), DeliveryStaff.VehicleType.valueOf(rs.getString(2)));
+            }, staffId);
+            if (!riders.containsKey(staffId)) {
+                throw new RuntimeException("外賣員不存在或已停用");
+            }
+        }
+    }
+
+    /** 重新由 DB 讀 active 外賣員：唔再 active 嘅踢走（派緊俾佢嘅單即刻轉派），交通工具改咗都會更新 */
+    public void refreshRiders() {
+        Map<Integer, DeliveryStaff.VehicleType> active = new HashMap<>();
+        jdbcTemplate.query(RIDERS_SQL, rs -> {
+            active.put(rs.getInt(1), DeliveryStaff.VehicleType.valueOf(rs.getString(2)));
+        });
+        for (Integer staffId : riders.keySet()) {
+            if (!active.containsKey(staffId)) {
+                removeRider(staffId);
+            }
+        }
+        riders.putAll(active);
+    }
+
+    /** 外賣員資料改咗（commit 之後） */
+    public void riderChanged(DeliveryStaff staff) {
+        if (staff.getStatus() == DeliveryStaff.StaffStatus.active && Boolean.TRUE.equals(staff.getIsValidate())
+                && staff.getDeletedTime() == null && staff.getVehicleType() != null) {
+            riders.put(staff.getStaffId(), staff.getVehicleType());
+        } else {
+            removeRider(staff.getStaffId());
+        }
+    }
+
+    /** 外賣員停用 / 刪除：唔再派單，派緊俾佢嗰張即刻轉派 */
+    public synchronized void removeRider(Integer staffId) {
+        if (riders.remove(staffId) != null) {
+            log.info("rider {} is no longer active, removed from dispatch", staffId);
+        }
+        goOffline(staffId);
+    }
+
+    // 測試用：外賣員喺 grid 入面嘅位置
+    RiderGrid.Position positionOf(Integer staffId) {
+        return grid.positionOf(staffId);
+    }
+
+    /** 收工：唔再派單，派緊俾佢嗰張即刻轉派 */
+    public synchronized void goOffline(Integer staffId) {
+        grid.remove(staffId);
+        Integer orderid = offerByRider.get(staffId);
+        if (orderid != null) {
+            offerNext(offers.get(orderid));
+        }
+    }
+
+    public synchronized DispatchOffer getOffer(Integer staffId) {
+        Integer orderid = offerByRider.get(staffId);
+        if (orderid == null) {
+            return null;
+        }
+        Offer offer = offers.get(orderid);
+        DispatchOffer result = new DispatchOffer();
+        result.setOrderid(offer.orderid);
+        result.setRestid(offer.restid);
+        result.setDistanceKm(Math.round(offer.distanceKm * 100) / 100.0);
+        result.setExpiresAt(new Timestamp(offer.expiresAt));
+        return result;
+    }
+
+    /** 接受派單；真正改訂單交俾 OrderService.acceptOrder（鎖住張單，唔會同 /available 嗰邊重複接） */
+    public Orders acceptOffer(Integer orderid, Integer staffId) {
+        synchronized (this) {
+            Offer offer = offers.get(orderid);
+            if (offer == null || !staffId.equals(offer.riderId)) {
+                throw new RuntimeException("呢張單冇派俾你或者已經過期");
+            }
+        }
+        try {
+            Orders order = orderService.acceptOrder(orderid, staffId);
+            busyRiders.add(staffId);
+            return order;
+        } finally {
+            finish(orderid);
+        }
+    }
+
+    public synchronized void declineOffer(Integer orderid, Integer staffId) {
+        Offer offer = offers.get(orderid);
+        if (offer == null || !staffId.equals(offer.riderId)) {
+            throw new RuntimeException("呢張單冇派俾你或者已經過期");
+        }
+        offerNext(offer);
+    }
+}
@@ -0,0 +1,97 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.mustudy.reactweb_backend.dto.PaymentCallback;
+import com.mustudy.reactweb_backend.models.Payment;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 本地模擬嘅付款平台（未接真平台之前用）：submit 之後隔 callback-delay-ms 喺另一條 thread
+ * 發 PaymentCallback event，效果同平台 call webhook 一樣。failure-rate 控制幾多單扣款失敗，
+ * callback-loss-rate 模擬 callback 送唔到，要靠 reconciliation 補返；lookup-latency-ms 模擬每次 call 平台 API 嘅來回時間。
+ */
+@Component
+public class LocalPaymentGateway implements PaymentGateway {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.payments.gateway.callback-delay-ms:300}")
+    private long callbackDelayMs;
+
+    @Value("${app.payments.gateway.failure-rate:0.02}")
+    private double failureRate;
+
+    @Value("${app.payments.gateway.callback-loss-rate:0}")
+    private double callbackLossRate;
+
+    @Value("${app.payments.gateway.lookup-latency-ms:0}")
+    private long lookupLatencyMs;
+
+    private final Map<String, Payment.PaymentStatus> charges = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService callbacks = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "local-payment-gateway");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PreDestroy
+    void stop() {
+        callbacks.shutdownNow();
+    }
+
+    @Override
+    public String submit(Integer invoiceId, BigDecimal amount, Payment.PaymentMethod method) {
+        String extRefNum = "LOCAL-" + invoiceId + "-" + UUID.randomUUID().toString().substring(0, 8);
+        charges.put(extRefNum, Payment.PaymentStatus.pending);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Payment.PaymentStatus result = random.nextDouble() < failureRate
+                ? Payment.PaymentStatus.failed
+                : Payment.PaymentStatus.paid;
+        boolean lost = random.nextDouble() < callbackLossRate;
+        callbacks.schedule(() -> {
+            charges.put(extRefNum, result);
+            if (!lost) {
+                eventPublisher.publishEvent(new PaymentCallback(extRefNum, result.name()));
+            }
+        }, callbackDelayMs, TimeUnit.MILLISECONDS);
+        return extRefNum;
+    }
+
+    @Override
+    public Map<String, Payment.PaymentStatus> lookup(Collection<String> extRefNums) {
+        if (lookupLatencyMs > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(lookupLatencyMs));
+        }
+        Map<String, Payment.PaymentStatus> result = new HashMap<>(extRefNums.size() * 2);
+        for (String extRefNum : extRefNums) {
+            Payment.PaymentStatus status = charges.get(extRefNum);
+            if (status != null) {
+                result.put(extRefNum, status);
+            }
+        }
+        return result;
+    }
+
+    /** 直接設定某個參考編號嘅狀態（test / benchmark 預先放入平台紀錄用） */
+    public void record(String extRefNum, Payment.PaymentStatus status) {
+        charges.put(extRefNum, status);
+    }
+}
@@ -0,0 +1,231 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.mustudy.reactweb_backend.dto.MenuImportResult;
+import com.mustudy.reactweb_backend.dto.MenuImportRow;
+import com.mustudy.reactweb_backend.dto.MenuImportedEvent;
+import com.mustudy.reactweb_backend.models.MenuItems;
+import com.mustudy.reactweb_backend.repositories.RestaurantRepository;
+
+/**
+ * 餐廳批量匯入 / 更新菜單（CSV 或者 JSON array）。逐筆 parse（唔會成個檔讀入 memory），驗證完
+ * 儲夠 batch-size 筆就用 JDBC batch 寫，全部喺同一個 transaction；有任何一筆唔啱就 rollback、
+ * 返回邊幾筆有問題。JDBC 直接寫唔會觸發 MenuItems 嘅 entity listener，commit 之後
+ * 只發一次 MenuImportedEvent，搜尋 / 自動完成一次過重新整理，唔係每個菜式一次。
+ */
+@Service
+public class MenuImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(MenuImportService.class);
+
+    static final String EXISTING_SQL = "SELECT item_id, item_name FROM menu_items WHERE restid = ?";
+    static final String INSERT_SQL = "INSERT INTO menu_items (restid, category, item_name, description, price,"
+            + " status, created_time) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // 冇填嘅欄位保留原本嘅值
+    static final String UPDATE_SQL = "UPDATE menu_items SET item_name = COALESCE(?, item_name),"
+            + " category = COALESCE(?, category), description = COALESCE(?, description),"
+            + " price = COALESCE(?, price), status = COALESCE(?, status) WHERE item_id = ?";
+    static final int MAX_ERRORS = 50;
+    static final BigDecimal MAX_PRICE = new BigDecimal("100000");
+
+    // 多咗唔識嘅欄位唔當錯；CSV 空白格 = 冇填
+    private static final ObjectReader CSV_READER = CsvMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .enable(CsvParser.Feature.TRIM_SPACES, CsvParser.Feature.EMPTY_STRING_AS_NULL,
+                    CsvParser.Feature.SKIP_EMPTY_LINES)
+            .build()
+            .readerFor(MenuImportRow.class)
+            .with(CsvSchema.emptySchema().withHeader().withColumnReordering(true));
+    private static final ObjectReader JSON_READER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readerFor(MenuImportRow.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.menu-import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.menu-import.max-rows:100000}")
+    private int maxRows;
+
+    /** csv = true 就當 CSV（第一行係 header），否則係 JSON array */
+    @Transactional
+    public MenuImportResult importMenu(Integer restid, InputStream in, boolean csv) throws IOException {
+        if (restid == null || !restaurantRepository.existsById(restid)) {
+            throw new RuntimeException("餐廳不存在");
+        }
+        long begin = System.currentTimeMillis();
+        MenuImportResult result = new MenuImportResult();
+        result.setRestid(restid);
+
+        // 呢間餐廳已經有嘅菜：id，同埋用名（唔理大細楷同前後空格）搵 id
+        Set<Integer> existingIds = new HashSet<>();
+        Map<String, Integer> idsByName = new HashMap<>();
+        jdbcTemplate.query(EXISTING_SQL, rs -> {
+            existingIds.add(rs.getInt(1));
+            idsByName.putIfAbsent(nameKey(rs.getString(2)), rs.getInt(1));
+        }, restid);
+
+        Set<Integer> seenIds = new HashSet<>();
+        Set<String> newNames = new HashSet<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        try (MappingIterator<MenuImportRow> rows = (csv ? CSV_READER : JSON_READER).readValues(in)) {
+            while (result.getErrors().size() < MAX_ERRORS) {
+                MenuImportRow row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row = rows.nextValue();
+                } catch (IOException | RuntimeException e) {
+                    // 格式錯咗（例如價錢唔係數字）之後嘅位置唔可靠，唔再讀落去
+                    result.getErrors().add("第 " + (result.getRows() + 1) + " 筆：格式不正確");
+                    break;
+                }
+                result.setRows(result.getRows() + 1);
+                if (result.getRows() > maxRows) {
+                    result.getErrors().add("每次最多匯入 " + maxRows + " 筆");
+                    break;
+                }
+
+                Integer itemId = row.getItemId();
+                if (itemId == null && row.getItemName() != null) {
+                    itemId = idsByName.get(nameKey(row.getItemName()));
+                }
+                String error = validate(row, itemId, existingIds);
+                if (error == null && itemId != null && !seenIds.add(itemId)) {
+                    error = "菜式重複";
+                }
+                if (error == null && itemId == null && !newNames.add(nameKey(row.getItemName()))) {
+                    error = "菜式重複";
+                }
+                if (error != null) {
+                    result.getErrors().add("第 " + result.getRows() + " 筆：" + error);
+                    continue;
+                }
+                // 已經有錯就唔使再寫，繼續驗證列多幾個錯俾餐廳一次過改
+                if (!result.getErrors().isEmpty()) {
+                    continue;
+                }
+                if (itemId == null) {
+                    inserts.add(new Object[] { restid, trim(row.getCategory()), row.getItemName().trim(),
+                            trim(row.getDescription()), row.getPrice(),
+                            row.getStatus() == null ? MenuItems.ItemStatus.active.name() : row.getStatus(), now });
+                    if (inserts.size() >= batchSize) {
+                        result.setInserted(result.getInserted() + write(INSERT_SQL, inserts));
+                    }
+                } else {
+                    updates.add(new Object[] { trim(row.getItemName()), trim(row.getCategory()),
+                            trim(row.getDescription()), row.getPrice(), row.getStatus(), itemId });
+                    if (updates.size() >= batchSize) {
+                        result.setUpdated(result.getUpdated() + write(UPDATE_SQL, updates));
+                    }
+                }
+            }
+        }
+
+        if (result.getRows() == 0 && result.getErrors().isEmpty()) {
+            result.getErrors().add("冇菜式資料");
+        }
+        if (!result.getErrors().isEmpty()) {
+            // 之前寫咗嘅 batch 一齊 rollback
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            result.setInserted(0);
+            result.setUpdated(0);
+            return result;
+        }
+        result.setInserted(result.getInserted() + write(INSERT_SQL, inserts));
+        result.setUpdated(result.getUpdated() + write(UPDATE_SQL, updates));
+        eventPublisher.publishEvent(new MenuImportedEvent(restid, result.getInserted(), result.getUpdated()));
+        log.info("menu import for restaurant {}: {} rows, {} inserted, {} updated in {} ms", restid,
+                result.getRows(), result.getInserted(), result.getUpdated(), System.currentTimeMillis() - begin);
+        return result;
+    }
+
+    // itemId = 要更新嘅菜（null = 新增）
+    private static String validate(MenuImportRow row, Integer itemId, Set<Integer> existingIds) {
+        if (itemId != null && !existingIds.contains(itemId)) {
+            return "菜式 " + itemId + " 不屬於呢間餐廳";
+        }
+        if (itemId == null && (row.getItemName() == null || row.getItemName().isBlank())) {
+            return "新菜式要有名";
+        }
+        if (itemId == null && row.getPrice() == null) {
+            return "新菜式要有價錢";
+        }
+        if (row.getItemName() != null && (row.getItemName().isBlank() || row.getItemName().trim().length() > 100)) {
+            return "菜式名要有 1 至 100 個字";
+        }
+        if (row.getCategory() != null && row.getCategory().trim().length() > 100) {
+            return "分類最多 100 個字";
+        }
+        if (row.getPrice() != null && (row.getPrice().signum() <= 0 || row.getPrice().compareTo(MAX_PRICE) >= 0
+                || row.getPrice().stripTrailingZeros().scale() > 2)) {
+            return "價錢要大過 0、少過 100000，最多兩個小數位";
+        }
+        if (row.getStatus() != null) {
+            try {
+                MenuItems.ItemStatus.valueOf(row.getStatus());
+            } catch (IllegalArgumentException e) {
+                return "狀態要係 active、inactive 或者 out_of_stock";
+            }
+        }
+        return null;
+    }
+
+    private int write(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(sql, rows);
+        int size = rows.size();
+        rows.clear();
+        return size;
+    }
+
+    private static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+}
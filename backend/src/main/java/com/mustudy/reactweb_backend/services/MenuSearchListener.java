@@ -0,0 +1,48 @@
+package com.mustudy.reactweb_backend.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mustudy.reactweb_backend.models.MenuItems;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * MenuItems 嘅 JPA entity listener：菜式新增 / 修改 / 刪除，commit 之後更新 MenuSearchService 嘅 index。
+ */
+@Component
+public class MenuSearchListener {
+
+    @Autowired
+    @Lazy
+    private MenuSearchService menuSearchService;
+
+    @PostPersist
+    @PostUpdate
+    void saved(MenuItems item) {
+        afterCommit(() -> menuSearchService.upsert(item));
+    }
+
+    @PostRemove
+    void removed(MenuItems item) {
+        afterCommit(() -> menuSearchService.remove(item.getItemId()));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
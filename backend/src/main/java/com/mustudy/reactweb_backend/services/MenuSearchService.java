@@ -0,0 +1,246 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.mustudy.reactweb_backend.dto.MenuImportedEvent;
+import com.mustudy.reactweb_backend.dto.MenuSearchResult;
+import com.mustudy.reactweb_backend.models.MenuItems;
+import com.mustudy.reactweb_backend.search.MenuSearchIndex;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 全部餐廳嘅菜式搜尋。啟動完成後喺背景 thread 由 menu_items（只計 active）建一個 MenuSearchIndex，
+ * 之後菜式改動（MenuSearchListener，commit 之後）唔會重建成個 index，而係放入一個細嘅 delta：
+ * 改過 / 刪咗嘅菜式喺 base 度過濾走，新版本喺 delta index 度搵，兩邊結果再合併。
+ * delta 多過 max-delta 個就喺背景重建 base，建好再一次過換走（volatile），搜尋唔使等。
+ * 批量匯入（MenuImportService）唔經 entity listener，commit 之後成間餐廳一次過處理。
+ */
+@Service
+public class MenuSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(MenuSearchService.class);
+
+    static final String LOAD_SQL = "SELECT item_id, restid, item_name, category, description, price FROM menu_items"
+            + " WHERE status = 'active' AND item_id > ? ORDER BY item_id LIMIT ?";
+    static final String RESTAURANT_SQL = "SELECT item_id, restid, item_name, category, description, price, status"
+            + " FROM menu_items WHERE restid = ?";
+    static final int LOAD_BATCH_SIZE = 10000;
+    static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search.indexer-enabled:true}")
+    private boolean indexerEnabled;
+
+    @Value("${app.search.max-delta:1000}")
+    private int maxDelta;
+
+    // seq = 第幾次改動；item == null 即係刪除 / 唔再 active
+    private record Change(long seq, MenuSearchIndex.Item item) {
+    }
+
+    private record State(MenuSearchIndex base, Map<Integer, Change> changes, MenuSearchIndex delta) {
+    }
+
+    private volatile State state = new State(MenuSearchIndex.empty(), Collections.emptyMap(), MenuSearchIndex.empty());
+    private volatile boolean ready;
+    private volatile boolean rebuildRequested;
+    private long seq;
+
+    private volatile boolean running;
+    private Thread indexer;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!indexerEnabled) {
+            return;
+        }
+        running = true;
+        indexer = new Thread(this::indexLoop, "menu-search-indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (indexer != null) {
+            LockSupport.unpark(indexer);
+            indexer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void indexLoop() {
+        while (running) {
+            try {
+                if (!ready || rebuildRequested || state.changes().size() > maxDelta) {
+                    rebuildRequested = false;
+                    rebuild();
+                }
+            } catch (RuntimeException e) {
+                log.warn("menu search index rebuild failed", e);
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(5));
+                continue;
+            }
+            LockSupport.park(this);
+        }
+    }
+
+    /**
+     * 由資料庫重建成個 index。建嘅期間照用舊 index；開始之前已經 commit 嘅改動會喺新 index 入面，
+     * 所以換 index 時只保留開始之後先嚟嘅改動。
+     */
+    public void rebuild() {
+        long begin = System.currentTimeMillis();
+        long startSeq;
+        synchronized (this) {
+            startSeq = seq;
+        }
+        MenuSearchIndex.Builder builder = new MenuSearchIndex.Builder();
+        // 按 item_id 分批讀（keyset），唔會一次過將成個 menu_items 放入 memory
+        int[] lastId = { 0 };
+        int[] read = { 0 };
+        do {
+            read[0] = 0;
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                lastId[0] = rs.getInt(1);
+                read[0]++;
+                builder.add(new MenuSearchIndex.Item(lastId[0], rs.getInt(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5), rs.getBigDecimal(6)));
+            }, lastId[0], LOAD_BATCH_SIZE);
+        } while (read[0] == LOAD_BATCH_SIZE);
+        MenuSearchIndex base = builder.build();
+        synchronized (this) {
+            Map<Integer, Change> remaining = new HashMap<>();
+            state.changes().forEach((itemId, change) -> {
+                if (change.seq() > startSeq) {
+                    remaining.put(itemId, change);
+                }
+            });
+            state = new State(base, remaining, deltaIndex(remaining));
+            ready = true;
+        }
+        log.info("menu search index built: {} items, {} terms in {} ms", base.size(), base.termCount(),
+                System.currentTimeMillis() - begin);
+    }
+
+    /** 菜式新增 / 修改（commit 之後）；唔係 active 就當刪除 */
+    public void upsert(MenuItems item) {
+        if (item.getStatus() != MenuItems.ItemStatus.active) {
+            remove(item.getItemId());
+            return;
+        }
+        apply(item.getItemId(), new MenuSearchIndex.Item(item.getItemId(), item.getRestid(), item.getItemName(),
+                item.getCategory(), item.getDescription(), item.getPrice()));
+    }
+
+    public void remove(Integer itemId) {
+        apply(itemId, null);
+    }
+
+    /**
+     * 一間餐廳批量匯入完（commit 之後）：改動唔多就將成間餐廳嘅菜一次過放入 delta，
+     * 多過 max-delta 就直接重建 base。未建好 index 都要照做：建緊嘅 keyset scan 可能已經行過呢啲 item_id，
+     * rebuild 換 index 時會保留開始之後先嚟嘅改動（同 upsert 一樣）。
+     */
+    @TransactionalEventListener
+    public void onMenuImported(MenuImportedEvent event) {
+        if (event.getInserted() + event.getUpdated() <= maxDelta) {
+            Map<Integer, MenuSearchIndex.Item> items = new HashMap<>();
+            jdbcTemplate.query(RESTAURANT_SQL, rs -> {
+                boolean active = MenuItems.ItemStatus.active.name().equals(rs.getString(7));
+                items.put(rs.getInt(1), active ? new MenuSearchIndex.Item(rs.getInt(1), rs.getInt(2),
+                        rs.getString(3), rs.getString(4), rs.getString(5), rs.getBigDecimal(6)) : null);
+            }, event.getRestid());
+            if (items.size() <= maxDelta) {
+                applyAll(items);
+                return;
+            }
+        }
+        if (indexer != null) {
+            rebuildRequested = true;
+            LockSupport.unpark(indexer);
+        } else {
+            rebuild();
+        }
+    }
+
+    private void apply(Integer itemId, MenuSearchIndex.Item item) {
+        Map<Integer, MenuSearchIndex.Item> items = new HashMap<>();
+        items.put(itemId, item);
+        applyAll(items);
+    }
+
+    // 改動唔多（菜單唔係成日改），每次 copy 一份 delta 重建都只係幾 ms
+    private synchronized void applyAll(Map<Integer, MenuSearchIndex.Item> items) {
+        Map<Integer, Change> changes = new HashMap<>(state.changes());
+        items.forEach((itemId, item) -> changes.put(itemId, new Change(++seq, item)));
+        state = new State(state.base(), changes, deltaIndex(changes));
+        if (changes.size() > maxDelta && indexer != null) {
+            LockSupport.unpark(indexer);
+        }
+    }
+
+    private static MenuSearchIndex deltaIndex(Map<Integer, Change> changes) {
+        MenuSearchIndex.Builder builder = new MenuSearchIndex.Builder();
+        for (Change change : changes.values()) {
+            if (change.item() != null) {
+                builder.add(change.item());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 搜尋菜式；restid 唔係 null 就只搵嗰間餐廳。每個字都要中，最後一個字可以未打完，打錯一兩個字母都搵到。
+     */
+    public List<MenuSearchResult> search(String query, Integer restid, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("請輸入搜尋內容");
+        }
+        if (!ready) {
+            throw new RuntimeException("搜尋索引建立中，請稍後再試");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        State current = state;
+        MenuSearchIndex base = current.base();
+        MenuSearchIndex delta = current.delta();
+        List<MenuSearchIndex.Hit> hits = new ArrayList<>(base.search(query, size,
+                doc -> !current.changes().containsKey(base.itemIdOf(doc))
+                        && (restid == null || base.restidOf(doc) == restid)));
+        if (delta.size() > 0) {
+            hits.addAll(delta.search(query, size, doc -> restid == null || delta.restidOf(doc) == restid));
+            hits.sort((a, b) -> Float.compare(b.score(), a.score()));
+        }
+        List<MenuSearchResult> results = new ArrayList<>(Math.min(size, hits.size()));
+        for (MenuSearchIndex.Hit hit : hits.subList(0, Math.min(size, hits.size()))) {
+            MenuSearchResult result = new MenuSearchResult();
+            result.setItemId(hit.itemId());
+            result.setRestid(hit.restid());
+            result.setItemName(hit.itemName());
+            result.setCategory(hit.category());
+            result.setPrice(hit.price());
+            result.setScore(hit.score());
+            results.add(result);
+        }
+        return results;
+    }
+}
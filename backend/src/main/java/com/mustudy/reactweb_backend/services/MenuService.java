@@ -22,12 +22,12 @@ public class MenuService {
         return menuItemsRepository.findByRestidAndStatus(restid, MenuItems.ItemStatus.active);
     }
 
-    public List<MenuItems> getMenuByCategory(String category) {
-        return menuItemsRepository.findByCategory(category);
+    public List<MenuItemResponse> getMenuByCategory(String category) {
+        return menuItemsRepository.findResponsesByCategory(category);
     }
 
-    public List<MenuItems> getMenuByRestaurantAndCategory(Integer restid, String category) {
-        return menuItemsRepository.findByRestidAndCategory(restid, category);
+    public List<MenuItemResponse> getMenuByRestaurantAndCategory(Integer restid, String category) {
+        return menuItemsRepository.findResponsesByRestidAndCategory(restid, category);
     }
 
     public MenuItems getMenuItem(Integer itemId) {
@@ -37,6 +37,7 @@ public class MenuService {
     private MenuItemResponse convertToMenuItemResponse(MenuItems menuItem) {
         MenuItemResponse response = new MenuItemResponse();
         response.setItemId(menuItem.getItemId());
+        response.setRestid(menuItem.getRestid());
         response.setItemName(menuItem.getItemName());
         response.setDescription(menuItem.getDescription());
         response.setPrice(menuItem.getPrice());
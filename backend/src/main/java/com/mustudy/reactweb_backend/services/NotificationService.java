@@ -0,0 +1,229 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.mustudy.reactweb_backend.dto.OrderSnapshot;
+import com.mustudy.reactweb_backend.models.Notification;
+import com.mustudy.reactweb_backend.models.OrderEvent;
+import com.mustudy.reactweb_backend.models.Orders;
+import com.mustudy.reactweb_backend.repositories.NotificationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 訂單通知：order_events outbox 派送 event 嗰陣將通知放入有上限嘅 queue，
+ * 背景 thread 一次過 drain 一批，用 JDBC batch insert 寫入 notifications，
+ * outbox dispatcher 唔使等通知寫完。queue 滿咗就 throw（notifications.rejected），
+ * 個 event 唔會記做已派送，outbox 之後會重試。
+ * 注意 outbox 記低已派送只代表通知入咗 memory queue：process crash 或者 batch insert 失敗，
+ * queue 入面未寫落 DB 嘅通知會冇咗。
+ */
+@Service
+public class NotificationService implements OrderEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+
+    // IDENTITY primary key 會令 Hibernate 停用 insert batching，所以直接用 JDBC batch；
+    // MySQL 開咗 rewriteBatchedStatements，成批會變成一句 multi-row INSERT
+    static final String INSERT_SQL = "INSERT INTO notifications (title, content, Receiver_ID, recipient_type, type, created_time) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.notifications.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.notifications.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.notifications.poll-interval-ms:200}")
+    private long pollIntervalMs;
+
+    private BlockingQueue<Notification> queue;
+    private Thread worker;
+    private volatile boolean running;
+    private Counter written;
+    private Counter rejected;
+    private Counter failed;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        written = meterRegistry.counter("notifications.written");
+        rejected = meterRegistry.counter("notifications.rejected");
+        failed = meterRegistry.counter("notifications.failed");
+        meterRegistry.gauge("notifications.queue.size", queue, BlockingQueue::size);
+
+        running = true;
+        worker = new Thread(this::drainLoop, "notification-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // 關機時等 worker 寫埋 queue 入面剩低嘅通知
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @Override
+    public void onOrderEvent(OrderEvent event) {
+        List<Notification> notifications = new ArrayList<>(2);
+        if (event.getEventType() == OrderEvent.EventType.order_created) {
+            notifyOrderCreated(notifications, event.getOrder());
+        } else if (event.getNewStatus() != null) {
+            notifyOrderStatusChanged(notifications, event.getOrder(), event.getNewStatus());
+        }
+        enqueue(notifications);
+    }
+
+    private void notifyOrderCreated(List<Notification> notifications, OrderSnapshot order) {
+        add(notifications, Notification.RecipientType.restaurant, order.getRestid(),
+                Notification.NotificationType.order_update,
+                "新訂單 #" + order.getOrderid(), "有新訂單，金額 " + order.getTotalAmount());
+        add(notifications, Notification.RecipientType.customer, order.getCustid(),
+                Notification.NotificationType.order_update,
+                "訂單 #" + order.getOrderid() + " 已創建", "您的訂單已經成功創建，等待餐廳確認");
+    }
+
+    private void notifyOrderStatusChanged(List<Notification> notifications, OrderSnapshot order,
+            Orders.OrderStatus status) {
+        Notification.NotificationType type = status == Orders.OrderStatus.out_for_delivery
+                || status == Orders.OrderStatus.delivered
+                        ? Notification.NotificationType.delivery_alert
+                        : Notification.NotificationType.order_update;
+        add(notifications, Notification.RecipientType.customer, order.getCustid(), type,
+                "訂單 #" + order.getOrderid() + " 狀態更新", statusMessage(status));
+        if (status == Orders.OrderStatus.cancelled) {
+            add(notifications, Notification.RecipientType.restaurant, order.getRestid(), type,
+                    "訂單 #" + order.getOrderid() + " 已取消", statusMessage(status));
+        }
+    }
+
+    // 由新到舊；before = 上一頁最後一條嘅 notificationId，第一頁唔使傳
+    public Map<String, Object> getNotifications(Notification.RecipientType recipientType, Integer receiverId,
+            Integer before, int limit) {
+        Limit page = Limit.of(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        List<Notification> notifications = before == null
+                ? notificationRepository.findByRecipientTypeAndReceiverIdOrderByNotificationIdDesc(
+                        recipientType, receiverId, page)
+                : notificationRepository.findByRecipientTypeAndReceiverIdAndNotificationIdLessThanOrderByNotificationIdDesc(
+                        recipientType, receiverId, before, page);
+        Integer nextCursor = notifications.size() == page.max()
+                ? notifications.get(notifications.size() - 1).getNotificationId()
+                : null;
+        return nextCursor == null
+                ? Map.of("notifications", notifications)
+                : Map.of("notifications", notifications, "nextCursor", nextCursor);
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    // 一個 event 嘅通知要麼全部入 queue，要麼全部唔入，outbox 重試先唔會重複發
+    private synchronized void enqueue(List<Notification> notifications) {
+        if (queue.remainingCapacity() < notifications.size()) {
+            rejected.increment(notifications.size());
+            throw new RuntimeException("通知 queue 已滿，稍後重試");
+        }
+        // 只有呢度會放入 queue，worker 只會攞走，所以檢查完之後一定放得落
+        notifications.forEach(queue::offer);
+    }
+
+    private static void add(List<Notification> notifications, Notification.RecipientType recipientType,
+            Integer receiverId, Notification.NotificationType type, String title, String content) {
+        if (receiverId == null) {
+            return;
+        }
+        Notification notification = new Notification();
+        notification.setRecipientType(recipientType);
+        notification.setReceiverId(receiverId);
+        notification.setType(type);
+        notification.setTitle(title);
+        notification.setContent(content);
+        notification.setCreatedTime(new Timestamp(System.currentTimeMillis()));
+        notifications.add(notification);
+    }
+
+    private void drainLoop() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(pollIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Notification> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, n) -> {
+                ps.setString(1, n.getTitle());
+                ps.setString(2, n.getContent());
+                ps.setInt(3, n.getReceiverId());
+                ps.setString(4, n.getRecipientType().name());
+                ps.setString(5, n.getType().name());
+                ps.setTimestamp(6, n.getCreatedTime());
+            });
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            // 寫唔到就算，唔好令 worker thread 死咗
+            failed.increment(batch.size());
+            log.warn("failed to write {} notifications", batch.size(), e);
+        }
+    }
+
+    private static String statusMessage(Orders.OrderStatus status) {
+        switch (status) {
+            case preparing:
+                return "餐廳已接單，准備中";
+            case ready:
+                return "餐廳已准備好，等待外賣員接單";
+            case out_for_delivery:
+                return "外賣員已接單，正在配送中";
+            case delivered:
+                return "訂單已完成，感謝您的使用";
+            case cancelled:
+                return "訂單已取消";
+            default:
+                return "訂單狀態更新";
+        }
+    }
+}
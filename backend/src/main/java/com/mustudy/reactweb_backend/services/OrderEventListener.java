@@ -0,0 +1,15 @@
+package com.mustudy.reactweb_backend.services;
+
+import com.mustudy.reactweb_backend.models.OrderEvent;
+
+/**
+ * 訂單事件 listener（通知、指標…），由 OrderOutboxService 喺背景 thread 呼叫。
+ * 每個 listener 分開記錄：其中一個出錯，只有佢會再收到個 event（最多 app.outbox.max-attempts 次）。
+ * 處理唔到就要 throw；return 咗就當已派送，唔會再重試。
+ * listener 喺 transaction 外面 call。不過 dispatcher 記低結果之前死咗嘅話，過咗 app.outbox.claim-lease-ms
+ * 已經處理咗嘅 listener 都會再收多次（at-least-once）。
+ */
+public interface OrderEventListener {
+
+    void onOrderEvent(OrderEvent event);
+}
@@ -0,0 +1,95 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.mustudy.reactweb_backend.dto.OrderSnapshot;
+import com.mustudy.reactweb_backend.metrics.RollingCounter;
+import com.mustudy.reactweb_backend.metrics.RollingHistogram;
+import com.mustudy.reactweb_backend.models.OrderEvent;
+import com.mustudy.reactweb_backend.models.Orders;
+
+/**
+ * 訂單業務指標（in-memory）：每間餐廳每分鐘落單數、pending→ready 準備時間、
+ * startDeliverTime→endDeliverTime 外送時間。由 order_events outbox 派送嘅 event 更新（只會係已 commit 嘅），
+ * dashboard 讀呢度就得，唔使 query orders table。全部按 event 發生嘅時間入 bucket，
+ * outbox 延遲、重試或者啟動時積壓嘅 event 都會計返落正確嗰分鐘。
+ */
+@Service
+public class OrderMetricsService implements OrderEventListener {
+
+    // 保留最近 60 分鐘，每分鐘一格
+    static final int WINDOW_MINUTES = 60;
+    static final long MINUTE = 60_000L;
+
+    private final RollingCounter ordersCreated = new RollingCounter(WINDOW_MINUTES, MINUTE);
+    private final ConcurrentHashMap<Integer, RollingCounter> ordersCreatedByRestaurant = new ConcurrentHashMap<>();
+    private final RollingHistogram prepTimeSeconds = new RollingHistogram(WINDOW_MINUTES, MINUTE);
+    private final RollingHistogram deliveryTimeSeconds = new RollingHistogram(WINDOW_MINUTES, MINUTE);
+
+    @Override
+    public void onOrderEvent(OrderEvent event) {
+        OrderSnapshot order = event.getOrder();
+        long at = event.getCreatedTime().getTime();
+        if (event.getEventType() == OrderEvent.EventType.order_created) {
+            recordOrderCreated(order, at);
+        } else if (event.getNewStatus() == Orders.OrderStatus.ready) {
+            recordOrderReady(order, at);
+        } else if (event.getNewStatus() == Orders.OrderStatus.delivered) {
+            recordOrderDelivered(order, at);
+        }
+    }
+
+    private void recordOrderCreated(OrderSnapshot order, long createdAt) {
+        ordersCreated.increment(createdAt);
+        if (order.getRestid() != null) {
+            ordersCreatedByRestaurant
+                    .computeIfAbsent(order.getRestid(), k -> new RollingCounter(WINDOW_MINUTES, MINUTE))
+                    .increment(createdAt);
+        }
+    }
+
+    // 準備時間計到 event 發生（轉做 ready）嗰刻，唔計 outbox 派送延遲
+    private void recordOrderReady(OrderSnapshot order, long readyAt) {
+        if (order.getCreatedTime() == null) {
+            return;
+        }
+        prepTimeSeconds.record(readyAt, (readyAt - order.getCreatedTime().getTime()) / 1000);
+    }
+
+    private void recordOrderDelivered(OrderSnapshot order, long deliveredAt) {
+        if (order.getStartDeliverTime() == null || order.getEndDeliverTime() == null) {
+            return;
+        }
+        long seconds = (order.getEndDeliverTime().getTime() - order.getStartDeliverTime().getTime()) / 1000;
+        deliveryTimeSeconds.record(deliveredAt, seconds);
+    }
+
+    public Map<String, Object> getSnapshot(int windowMinutes) {
+        int window = Math.max(1, Math.min(windowMinutes, WINDOW_MINUTES));
+        long now = System.currentTimeMillis();
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("windowMinutes", window);
+        snapshot.put("ordersCreated", ordersCreated.sum(now, window));
+        snapshot.put("ordersPerMinute", ordersCreated.series(now, window));
+
+        Map<Integer, Object> byRestaurant = new TreeMap<>();
+        ordersCreatedByRestaurant.forEach((restid, counter) -> {
+            long total = counter.sum(now, window);
+            if (total > 0) {
+                byRestaurant.put(restid, Map.of(
+                        "ordersCreated", total,
+                        "ordersPerMinute", counter.series(now, window)));
+            }
+        });
+        snapshot.put("restaurants", byRestaurant);
+        snapshot.put("prepTimeSeconds", prepTimeSeconds.snapshot(now, window));
+        snapshot.put("deliveryTimeSeconds", deliveryTimeSeconds.snapshot(now, window));
+        return snapshot;
+    }
+}
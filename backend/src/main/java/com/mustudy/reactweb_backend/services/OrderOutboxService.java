@@ -0,0 +1,276 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mustudy.reactweb_backend.dto.OrderSnapshot;
+import com.mustudy.reactweb_backend.models.OrderEvent;
+import com.mustudy.reactweb_backend.models.Orders;
+import com.mustudy.reactweb_backend.repositories.OrderEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Transactional outbox：OrderService 喺同一個 transaction 入面寫 order_events，
+ * 背景 thread 逐批攞未派送嘅 event 交俾所有 OrderEventListener，每個 listener 成功就記入 delivered_to，
+ * 重試只會派俾未成功嗰啲；全部成功先標記 dispatched_time。
+ * 每批分三步：短 transaction 攞 event（attempts + 1，claimed_until 租約）、transaction 外面 call listener、
+ * 再用另一個 transaction 記結果。listener 唔會揸住 lock 同 connection，一個 listener 出錯亦唔會 rollback 其他嘅結果。
+ * Request transaction 只係多一句 INSERT，通知、指標之類嘅 side effect 全部喺 transaction 外面做。
+ * 試到 max-attempts 都唔得嘅 event 當 dead letter：唔再派，outbox.events.dead 報有幾多個，
+ * 留 dead-retention-hours 俾人查完先清走。
+ */
+@Service
+public class OrderOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderOutboxService.class);
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private List<OrderEventListener> listeners;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retention-hours:24}")
+    private int retentionHours;
+
+    @Value("${app.outbox.dead-retention-hours:168}")
+    private int deadRetentionHours;
+
+    @Value("${app.outbox.claim-lease-ms:60000}")
+    private long claimLeaseMs;
+
+    private TransactionTemplate transactionTemplate;
+    private Thread worker;
+    private volatile boolean running;
+    private Counter dispatched;
+    private Counter failed;
+    private final AtomicLong deadEvents = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        dispatched = meterRegistry.counter("outbox.events.dispatched");
+        failed = meterRegistry.counter("outbox.events.failed");
+        Gauge.builder("outbox.events.dead", deadEvents, AtomicLong::get)
+                .description("order events that failed max-attempts times and are no longer retried")
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::pollLoop, "order-outbox-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    // 要喺 OrderService 嘅 transaction 入面 call，rollback 就連 event 一齊冇咗
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(Orders order) {
+        append(order, OrderEvent.EventType.order_created, null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Orders order, Orders.OrderStatus oldStatus) {
+        append(order, OrderEvent.EventType.status_changed, oldStatus);
+    }
+
+    /**
+     * 派送一批 event，返回處理咗幾多個（0 = 冇嘢做）。
+     */
+    public int dispatchBatch() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Timestamp leaseEnd = new Timestamp(now.getTime() + claimLeaseMs);
+        List<OrderEvent> events = transactionTemplate.execute(status -> {
+            List<OrderEvent> claimed = orderEventRepository.findClaimable(maxAttempts, now, Limit.of(batchSize));
+            for (OrderEvent event : claimed) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setClaimedUntil(leaseEnd);
+            }
+            return claimed;
+        });
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp dispatchedTime = new Timestamp(System.currentTimeMillis());
+        for (OrderEvent event : events) {
+            if (deliver(event)) {
+                event.setDispatchedTime(dispatchedTime);
+                dispatched.increment();
+            } else {
+                failed.increment();
+                if (event.getAttempts() >= maxAttempts) {
+                    log.error("order event {} (order {}) failed {} times, giving up",
+                            event.getEventId(), event.getOrderid(), event.getAttempts());
+                }
+            }
+        }
+
+        // 呢度失敗嘅話，過咗租約會再派（at-least-once）
+        transactionTemplate.executeWithoutResult(status -> {
+            for (OrderEvent event : events) {
+                orderEventRepository.recordDelivery(event.getEventId(), event.getDeliveredTo(), event.getDispatchedTime());
+            }
+        });
+        return events.size();
+    }
+
+    // 已派送嘅 event 保留 retentionHours 方便查問題，之後清走
+    public int purgeDispatched() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(retentionHours));
+        Integer deleted = transactionTemplate.execute(status -> orderEventRepository.deleteDispatchedBefore(cutoff));
+        return deleted == null ? 0 : deleted;
+    }
+
+    // dead letter 留 deadRetentionHours，清完順手更新 outbox.events.dead
+    public int purgeDead() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(deadRetentionHours));
+        Integer deleted = transactionTemplate.execute(status -> {
+            int n = orderEventRepository.deleteDeadBefore(maxAttempts, cutoff);
+            deadEvents.set(orderEventRepository.countDead(maxAttempts));
+            return n;
+        });
+        if (deleted != null && deleted > 0) {
+            log.warn("purged {} order events that were never dispatched", deleted);
+        }
+        return deleted == null ? 0 : deleted;
+    }
+
+    private void append(Orders order, OrderEvent.EventType type, Orders.OrderStatus oldStatus) {
+        OrderEvent event = new OrderEvent();
+        event.setOrderid(order.getOrderid());
+        event.setEventType(type);
+        event.setOldStatus(oldStatus);
+        event.setNewStatus(order.getStatus());
+        event.setCreatedTime(new Timestamp(System.currentTimeMillis()));
+        try {
+            event.setPayload(objectMapper.writeValueAsString(OrderSnapshot.of(order)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("訂單事件序列化失敗", e);
+        }
+        orderEventRepository.save(event);
+
+        // 本機 commit 咗就即刻叫醒 dispatcher，唔使等下一次 poll
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Thread w = worker;
+                if (w != null) {
+                    LockSupport.unpark(w);
+                }
+            }
+        });
+    }
+
+    private boolean deliver(OrderEvent event) {
+        try {
+            event.setOrder(objectMapper.readValue(event.getPayload(), OrderSnapshot.class));
+        } catch (JsonProcessingException e) {
+            log.error("order event {} has an unreadable payload", event.getEventId(), e);
+            return false;
+        }
+        Set<String> delivered = new LinkedHashSet<>();
+        if (event.getDeliveredTo() != null && !event.getDeliveredTo().isEmpty()) {
+            delivered.addAll(Arrays.asList(event.getDeliveredTo().split(",")));
+        }
+        boolean ok = true;
+        for (OrderEventListener listener : listeners) {
+            String name = listenerName(listener);
+            if (delivered.contains(name)) {
+                continue; // 上次已經成功，唔好再通知 / 計多次
+            }
+            try {
+                listener.onOrderEvent(event);
+                delivered.add(name);
+            } catch (RuntimeException e) {
+                ok = false;
+                log.warn("listener {} failed on order event {}", name, event.getEventId(), e);
+            }
+        }
+        event.setDeliveredTo(String.join(",", delivered));
+        return ok;
+    }
+
+    // Spring proxy 嘅 class 名唔穩定，用返原本 class
+    private static String listenerName(OrderEventListener listener) {
+        return ClassUtils.getUserClass(listener).getSimpleName();
+    }
+
+    private void pollLoop() {
+        long nextPurge = System.currentTimeMillis();
+        while (running) {
+            try {
+                int handled = dispatchBatch();
+                if (System.currentTimeMillis() >= nextPurge) {
+                    purgeDispatched();
+                    purgeDead();
+                    nextPurge = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+                }
+                // 啱啱攞滿一批即係可能仲有，唔好等
+                if (handled < batchSize) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollIntervalMs));
+                }
+            } catch (RuntimeException e) {
+                log.warn("order outbox poll failed", e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollIntervalMs));
+            }
+        }
+    }
+}
@@ -35,6 +35,16 @@ public class OrderService {
     @Autowired
     private MenuItemsRepository menuItemsRepository;
 
+    // 通知、指標等 side effect 經 order_events outbox 喺 transaction 外面做
+    @Autowired
+    private OrderOutboxService orderOutboxService;
+
+    @Autowired
+    private DeliveryService deliveryService;
+
+    @Autowired
+    private RestaurantDirectoryService restaurantDirectoryService;
+
     @Transactional
     public Orders createOrderFromCart(Integer custid, Integer restid, Integer addressid, String shippingAddress,
             String remark) {
@@ -83,6 +93,8 @@ public class OrderService {
 
         cartService.clearCart(custid.toString());
 
+        orderOutboxService.orderCreated(savedOrder);
+
         return savedOrder;
     }
 
@@ -106,14 +118,24 @@ public class OrderService {
         return order;
     }
 
+    @Transactional
     public Orders updateOrderStatus(Integer orderid, Orders.OrderStatus newStatus) {
         Orders order = orderRepository.findById(orderid)
                 .orElseThrow(() -> new RuntimeException("訂單不存在"));
 
+        Orders.OrderStatus oldStatus = order.getStatus();
         order.setStatus(newStatus);
-        return orderRepository.save(order);
+        Orders saved = orderRepository.save(order);
+        if (oldStatus == Orders.OrderStatus.out_for_delivery && newStatus == Orders.OrderStatus.cancelled) {
+            deliveryService.recordFailed(saved);
+        }
+        if (newStatus != oldStatus) {
+            orderOutboxService.statusChanged(saved, oldStatus);
+        }
+        return saved;
     }
 
+    @Transactional
     public Orders cancelOrder(Integer orderid) {
         return updateOrderStatus(orderid, Orders.OrderStatus.cancelled);
     }
@@ -180,16 +202,17 @@ public class OrderService {
     }
 
     // 獲取可用的訂單，呢part專for外賣員
-    public List<Orders> getAvailableOrders() {
+    public List<OrderSummary> getAvailableOrders() {
         // 獲取所有狀態為"ready"的訂單
-        return orderRepository.findByDeliverManIdIsNullAndStatusIn(
+        return orderRepository.findSummariesAvailable(
                 Arrays.asList(Orders.OrderStatus.ready));
     }
 
     // 接單
     @Transactional
     public Orders acceptOrder(Integer orderid, Integer deliveryManId) {
-        Orders order = orderRepository.findById(orderid)
+        // 鎖住張單：同時有幾個外賣員接（/available 或者派單），第二個會睇到已經有人接
+        Orders order = orderRepository.findWithLockByOrderid(orderid)
                 .orElseThrow(() -> new RuntimeException("訂單不存在"));
 
         if (order.getDeliverManId() != null) {
@@ -204,7 +227,10 @@ public class OrderService {
         order.setStatus(Orders.OrderStatus.out_for_delivery);
         order.setStartDeliverTime(new Timestamp(System.currentTimeMillis()));
 
-        return orderRepository.save(order);
+        Orders saved = orderRepository.save(order);
+        deliveryService.recordAssignment(saved);
+        orderOutboxService.statusChanged(saved, Orders.OrderStatus.ready);
+        return saved;
     }
 
     // 完成
@@ -220,7 +246,10 @@ public class OrderService {
         order.setStatus(Orders.OrderStatus.delivered);
         order.setEndDeliverTime(new Timestamp(System.currentTimeMillis()));
 
-        return orderRepository.save(order);
+        Orders saved = orderRepository.save(order);
+        deliveryService.recordDelivered(saved);
+        orderOutboxService.statusChanged(saved, Orders.OrderStatus.out_for_delivery);
+        return saved;
     }
 
     // 餐廳接單
@@ -234,12 +263,39 @@ public class OrderService {
         }
 
         order.setStatus(Orders.OrderStatus.ready);
-        return orderRepository.save(order);
+        Orders saved = orderRepository.save(order);
+        orderOutboxService.statusChanged(saved, Orders.OrderStatus.preparing);
+        return saved;
     }
 
     // get外賣員
-    public List<Orders> getOrdersByDeliveryMan(Integer deliveryManId) {
-        return orderRepository.findByDeliverManId(deliveryManId);
+    public List<OrderSummary> getOrdersByDeliveryMan(Integer deliveryManId) {
+        return orderRepository.findSummariesByDeliverManId(deliveryManId);
+    }
+
+    // 改狀態之後返回俾 client 嘅訂單：只攞 entity 本身嘅欄位，餐廳名由 directory snapshot 攞，唔會 lazy load
+    public OrderSummary toSummary(Orders order) {
+        OrderSummary summary = new OrderSummary();
+        summary.setOrderid(order.getOrderid());
+        summary.setCustid(order.getCustid());
+        summary.setRestid(order.getRestid());
+        summary.setShippingAddress(order.getShippingAddress());
+        summary.setDeliverManId(order.getDeliverManId());
+        summary.setStatus(order.getStatus().name());
+        summary.setTotalAmount(order.getTotalAmount());
+        summary.setDiscountAmount(order.getDiscountAmount());
+        summary.setRemark(order.getRemark());
+        summary.setCreatedTime(order.getCreatedTime());
+        summary.setStartDeliverTime(order.getStartDeliverTime());
+        summary.setEndDeliverTime(order.getEndDeliverTime());
+        try {
+            RestaurantCard restaurant = restaurantDirectoryService.getRestaurant(order.getRestid());
+            summary.setRestaurantName(restaurant.getRestname());
+            summary.setRestaurantAddress(restaurant.getAddress());
+        } catch (RuntimeException e) {
+            // 餐廳已經刪咗：冇名就算
+        }
+        return summary;
     }
 
     private OrderResponse convertToOrderResponse(Orders order) {
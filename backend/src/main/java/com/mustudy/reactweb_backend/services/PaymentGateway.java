@@ -0,0 +1,19 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+
+import com.mustudy.reactweb_backend.models.Payment;
+
+/**
+ * 第三方付款平台。submit 即刻返回平台嘅參考編號，付款結果之後用 callback 通知
+ * （POST /api/payments/callback）；callback 唔見咗就靠 reconciliation 用 lookup 批量查。
+ */
+public interface PaymentGateway {
+
+    String submit(Integer invoiceId, BigDecimal amount, Payment.PaymentMethod method);
+
+    /** 一次過查一批參考編號嘅狀態；平台唔認識嘅編號唔會出現喺結果入面 */
+    Map<String, Payment.PaymentStatus> lookup(Collection<String> extRefNums);
+}
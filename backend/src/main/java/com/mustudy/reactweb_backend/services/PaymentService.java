@@ -0,0 +1,370 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mustudy.reactweb_backend.dto.PaymentCallback;
+import com.mustudy.reactweb_backend.models.Orders;
+import com.mustudy.reactweb_backend.models.Payment;
+import com.mustudy.reactweb_backend.repositories.OrderRepository;
+import com.mustudy.reactweb_backend.repositories.PaymentRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 付款：落單後建立 payments 紀錄，網上付款交俾 PaymentGateway，結果由 callback 通知。
+ * Callback 只係放入 queue 就返回，背景 thread 每 callback-flush-ms 用一個 JDBC batch 更新；
+ * 每 reconcile-interval-ms 再批量對數：pending 太耐嘅付款連 orders 一齊分批 (keyset) 讀出嚟，
+ * 一批參考編號一次過問 gateway，結果一個 batch update 寫返，唔會逐條 query。
+ * Webhook 要帶 X-Signature（用 callback-secret 對原始 body 做 HMAC-SHA256），對唔到就唔收。
+ */
+@Service
+public class PaymentService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
+    // pending 付款同埋佢張單；idx_payment_status 已經按 invoiceID 排好，用 invoiceID > ? 分批
+    static final String PENDING_SQL = "SELECT p.invoiceID, p.ext_ref_num, p.payment_method, p.receive_amount,"
+            + " o.status, o.total_amount, o.discount_amount"
+            + " FROM payments p JOIN orders o ON o.orderid = p.orderid"
+            + " WHERE p.payment_status = 'pending' AND p.invoiceID > ? AND p.created_time < ?"
+            + " ORDER BY p.invoiceID LIMIT ?";
+    static final String SETTLE_SQL = "UPDATE payments SET payment_status = ? WHERE invoiceID = ? AND payment_status = 'pending'";
+    static final String CALLBACK_SQL = "UPDATE payments SET payment_status = ? WHERE ext_ref_num = ? AND payment_status = ?";
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.payments.reconcile-enabled:true}")
+    private boolean reconcileEnabled;
+
+    @Value("${app.payments.callback-secret:}")
+    private String callbackSecret;
+
+    @Value("${app.payments.callback-queue-capacity:10000}")
+    private int callbackQueueCapacity;
+
+    @Value("${app.payments.callback-flush-ms:200}")
+    private long callbackFlushMs;
+
+    @Value("${app.payments.reconcile-interval-ms:30000}")
+    private long reconcileIntervalMs;
+
+    @Value("${app.payments.reconcile-grace-ms:60000}")
+    private long reconcileGraceMs;
+
+    @Value("${app.payments.reconcile-batch-size:1000}")
+    private int reconcileBatchSize;
+
+    private BlockingQueue<PaymentCallback> callbacks;
+    private TransactionTemplate transactionTemplate;
+    private Thread worker;
+    private volatile boolean running;
+    private Counter callbacksApplied;
+    private Counter callbacksRejected;
+    private Counter reconciled;
+
+    @PostConstruct
+    void start() {
+        callbacks = new ArrayBlockingQueue<>(callbackQueueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        callbacksApplied = meterRegistry.counter("payments.callbacks.applied");
+        callbacksRejected = meterRegistry.counter("payments.callbacks.rejected");
+        reconciled = meterRegistry.counter("payments.reconciled");
+        meterRegistry.gauge("payments.callbacks.queue.size", callbacks, BlockingQueue::size);
+        if (!reconcileEnabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::workLoop, "payment-reconciler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public Payment createPayment(Integer orderid, String paymentMethod) {
+        Payment.PaymentMethod method = Payment.PaymentMethod.valueOf(paymentMethod);
+        // 鎖住張單先檢查再 insert：client 連撳兩下，第二個 request 要等第一個 commit 咗先睇到佢張 pending 付款
+        Payment saved = transactionTemplate.execute(status -> {
+            Orders order = orderRepository.findWithLockByOrderid(orderid)
+                    .orElseThrow(() -> new RuntimeException("訂單不存在"));
+            if (order.getStatus() == Orders.OrderStatus.cancelled) {
+                throw new RuntimeException("訂單已取消，無法付款");
+            }
+            for (Payment existing : paymentRepository.findByOrderid(orderid)) {
+                if (existing.getPaymentStatus() == Payment.PaymentStatus.pending
+                        || existing.getPaymentStatus() == Payment.PaymentStatus.paid) {
+                    throw new RuntimeException("訂單已有付款紀錄");
+                }
+            }
+
+            Payment payment = new Payment();
+            payment.setOrderid(orderid);
+            payment.setPaymentMethod(method);
+            payment.setReceiveAmount(amountDue(order.getTotalAmount(), order.getDiscountAmount()));
+            payment.setPaymentStatus(Payment.PaymentStatus.pending);
+            payment.setCreatedTime(new Timestamp(System.currentTimeMillis()));
+            return paymentRepository.save(payment);
+        });
+
+        // 貨到付款等送達先對數；網上付款喺 transaction 外面先 call gateway，唔好霸住 connection 等外部系統
+        if (method != Payment.PaymentMethod.cash_on_delivery) {
+            String extRefNum = paymentGateway.submit(saved.getInvoiceId(), saved.getReceiveAmount(), method);
+            paymentRepository.updateExtRefNum(saved.getInvoiceId(), extRefNum);
+            saved.setExtRefNum(extRefNum);
+        }
+        return saved;
+    }
+
+    public List<Payment> getPaymentsByOrder(Integer orderid) {
+        return paymentRepository.findByOrderid(orderid);
+    }
+
+    @EventListener
+    public void onPaymentCallback(PaymentCallback callback) {
+        if (!acceptCallback(callback)) {
+            log.warn("payment callback queue full, dropped {}", callback.getExtRefNum());
+        }
+    }
+
+    /**
+     * 檢查 webhook 簽名：signature 係 hex 嘅 HMAC-SHA256(callback-secret, body)。冇設 secret 就一律唔收。
+     */
+    public boolean verifyCallbackSignature(byte[] body, String signature) {
+        if (callbackSecret.isEmpty() || signature == null) {
+            return false;
+        }
+        byte[] given;
+        try {
+            given = HexFormat.of().parseHex(signature.trim());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // 固定時間比較，唔好俾人逐個 byte 試
+        return MessageDigest.isEqual(sign(body), given);
+    }
+
+    byte[] sign(byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(callbackSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(body);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    /**
+     * 收 callback：檢查完就放入 queue，返回 false = queue 滿咗，平台應該遲啲再 call。
+     */
+    public boolean acceptCallback(PaymentCallback callback) {
+        if (callback.getExtRefNum() == null || callback.getExtRefNum().isBlank()) {
+            throw new RuntimeException("缺少付款參考編號");
+        }
+        Payment.PaymentStatus.valueOf(callback.getStatus());
+        boolean accepted = callbacks.offer(callback);
+        if (!accepted) {
+            callbacksRejected.increment();
+        }
+        return accepted;
+    }
+
+    /** 即刻處理 queue 入面嘅 callback 同對一次數（背景 thread 都係 call 呢兩個） */
+    public Map<String, Integer> reconcile() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("callbacksApplied", applyCallbacks());
+        result.putAll(reconcilePending());
+        return result;
+    }
+
+    int applyCallbacks() {
+        List<PaymentCallback> drained = new ArrayList<>();
+        callbacks.drainTo(drained);
+        if (drained.isEmpty()) {
+            return 0;
+        }
+        // 按目標狀態分組：paid / failed 只可以由 pending 轉，refunded 只可以由 paid 轉
+        Map<Payment.PaymentStatus, List<Object[]>> byStatus = new EnumMap<>(Payment.PaymentStatus.class);
+        for (PaymentCallback callback : drained) {
+            Payment.PaymentStatus status = Payment.PaymentStatus.valueOf(callback.getStatus());
+            if (status == Payment.PaymentStatus.pending) {
+                continue;
+            }
+            Payment.PaymentStatus from = status == Payment.PaymentStatus.refunded
+                    ? Payment.PaymentStatus.paid
+                    : Payment.PaymentStatus.pending;
+            byStatus.computeIfAbsent(status, s -> new ArrayList<>())
+                    .add(new Object[] { status.name(), callback.getExtRefNum(), from.name() });
+        }
+        int updated = 0;
+        for (List<Object[]> args : byStatus.values()) {
+            updated += sum(jdbcTemplate.batchUpdate(CALLBACK_SQL, args));
+        }
+        // 只計真係改到狀態嘅；重複或者遲到嘅 callback 唔算
+        callbacksApplied.increment(updated);
+        return updated;
+    }
+
+    Map<String, Integer> reconcilePending() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - reconcileGraceMs);
+        int scanned = 0;
+        int settled = 0;
+        int lastInvoiceId = 0;
+        while (true) {
+            List<PendingPayment> batch = jdbcTemplate.query(PENDING_SQL, (rs, i) -> new PendingPayment(
+                    rs.getInt(1), rs.getString(2), Payment.PaymentMethod.valueOf(rs.getString(3)), rs.getBigDecimal(4),
+                    Orders.OrderStatus.valueOf(rs.getString(5)), amountDue(rs.getBigDecimal(6), rs.getBigDecimal(7))),
+                    lastInvoiceId, cutoff, reconcileBatchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            scanned += batch.size();
+            lastInvoiceId = batch.get(batch.size() - 1).invoiceId();
+
+            List<String> extRefNums = new ArrayList<>(batch.size());
+            for (PendingPayment payment : batch) {
+                if (payment.extRefNum() != null) {
+                    extRefNums.add(payment.extRefNum());
+                }
+            }
+            Map<String, Payment.PaymentStatus> gatewayStatus = extRefNums.isEmpty()
+                    ? Map.of()
+                    : paymentGateway.lookup(extRefNums);
+
+            List<Object[]> updates = new ArrayList<>();
+            for (PendingPayment payment : batch) {
+                Payment.PaymentStatus status = decide(payment, gatewayStatus);
+                if (status != null) {
+                    updates.add(new Object[] { status.name(), payment.invoiceId() });
+                }
+            }
+            if (!updates.isEmpty()) {
+                Integer count = transactionTemplate.execute(tx -> sum(jdbcTemplate.batchUpdate(SETTLE_SQL, updates)));
+                settled += count == null ? 0 : count;
+            }
+            if (batch.size() < reconcileBatchSize) {
+                break;
+            }
+        }
+        reconciled.increment(settled);
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("pendingScanned", scanned);
+        result.put("settled", settled);
+        return result;
+    }
+
+    // 返回新狀態；null = 仲未有結果，下次再對
+    private static Payment.PaymentStatus decide(PendingPayment payment, Map<String, Payment.PaymentStatus> gatewayStatus) {
+        if (payment.receiveAmount().compareTo(payment.amountDue()) != 0) {
+            log.warn("payment {} amount {} does not match order amount {}", payment.invoiceId(),
+                    payment.receiveAmount(), payment.amountDue());
+            return Payment.PaymentStatus.failed;
+        }
+        if (payment.method() == Payment.PaymentMethod.cash_on_delivery) {
+            switch (payment.orderStatus()) {
+                case delivered:
+                    return Payment.PaymentStatus.paid;
+                case cancelled:
+                    return Payment.PaymentStatus.failed;
+                default:
+                    return null;
+            }
+        }
+        if (payment.extRefNum() == null) {
+            // 未交到俾 gateway（submit 中途出錯）
+            return Payment.PaymentStatus.failed;
+        }
+        Payment.PaymentStatus status = gatewayStatus.get(payment.extRefNum());
+        if (status == null) {
+            return Payment.PaymentStatus.failed;
+        }
+        return status == Payment.PaymentStatus.pending ? null : status;
+    }
+
+    private static BigDecimal amountDue(BigDecimal total, BigDecimal discount) {
+        BigDecimal due = (total == null ? BigDecimal.ZERO : total).subtract(discount == null ? BigDecimal.ZERO : discount);
+        return due.signum() < 0 ? BigDecimal.ZERO.setScale(2) : due.setScale(2);
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            // MySQL rewriteBatchedStatements 可能返回 SUCCESS_NO_INFO (-2)
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+
+    private void workLoop() {
+        long nextReconcile = System.currentTimeMillis() + reconcileIntervalMs;
+        while (running) {
+            try {
+                applyCallbacks();
+                if (System.currentTimeMillis() >= nextReconcile) {
+                    reconcilePending();
+                    nextReconcile = System.currentTimeMillis() + reconcileIntervalMs;
+                }
+            } catch (RuntimeException e) {
+                log.warn("payment reconciliation failed", e);
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(callbackFlushMs));
+        }
+        applyCallbacks();
+    }
+
+    private record PendingPayment(int invoiceId, String extRefNum, Payment.PaymentMethod method,
+            BigDecimal receiveAmount, Orders.OrderStatus orderStatus, BigDecimal amountDue) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.mustudy.reactweb_backend.dto.PopularItem;
+import com.mustudy.reactweb_backend.metrics.ItemCounter;
+import com.mustudy.reactweb_backend.models.MenuItems;
+import com.mustudy.reactweb_backend.repositories.MenuItemsRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 每間餐廳嘅人氣菜式同每個客嘅「再叫一次」。背景 thread 每 interval-ms 由 watermark（上次讀到嘅
+ * orderitemid）之後讀新嘅 order_items（主鍵範圍，分批），累加落每間餐廳 / 每個客嘅 ItemCounter，
+ * 再重新計有改過嗰啲嘅 top 列表；request 只係讀計好嘅列表，唔使 query order_items。
+ * 取消咗嘅單唔計；讀完之後先取消嘅唔會扣返。auto increment 嘅 id 未必按 commit 次序，
+ * 所以 watermark 只推到第一條落單未夠 commit-lag-ms 嘅紀錄之前：細 id 但遲 commit 嘅紀錄
+ * 下一輪仍然讀得到（前提係 transaction 唔會長過 commit-lag-ms）。
+ */
+@Service
+public class PopularItemsService {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularItemsService.class);
+
+    static final String BATCH_SQL = "SELECT oi.orderitemid, oi.item_ID, oi.quantity, o.restid, o.custid, o.status"
+            + " FROM order_items oi JOIN orders o ON o.orderid = oi.orderid"
+            + " WHERE oi.orderitemid > ? AND oi.orderitemid < ? ORDER BY oi.orderitemid LIMIT ?";
+    // watermark 之後第一條太新（可能仲有細過佢嘅未 commit）嘅紀錄，今輪讀到佢之前為止
+    static final String BOUND_SQL = "SELECT MIN(oi.orderitemid) FROM order_items oi JOIN orders o ON o.orderid = oi.orderid"
+            + " WHERE oi.orderitemid > ? AND o.created_time >= ?";
+    static final int BATCH_SIZE = 10000;
+    // 每個列表預先計幾多個
+    static final int TOP_SIZE = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MenuItemsRepository menuItemsRepository;
+
+    @Value("${app.popular.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.popular.interval-ms:30000}")
+    private long intervalMs;
+
+    @Value("${app.popular.commit-lag-ms:10000}")
+    private long commitLagMs;
+
+    /** counter 只有 aggregate 寫；top 係計好嘅 {itemId, count} 對，volatile 俾 request 讀 */
+    private static final class Stats {
+        private final ItemCounter counter = new ItemCounter();
+        private volatile int[] top = new int[0];
+    }
+
+    private final ConcurrentHashMap<Integer, Stats> byRestaurant = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Stats> byCustomer = new ConcurrentHashMap<>();
+    private long watermark;
+
+    private volatile boolean running;
+    private Thread aggregator;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        aggregator = new Thread(this::aggregateLoop, "popular-items-aggregator");
+        aggregator.setDaemon(true);
+        aggregator.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (aggregator != null) {
+            LockSupport.unpark(aggregator);
+            aggregator.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void aggregateLoop() {
+        while (running) {
+            try {
+                aggregate();
+            } catch (RuntimeException e) {
+                log.warn("popular items aggregation failed", e);
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(intervalMs));
+        }
+    }
+
+    /** 讀 watermark 之後嘅新 order_items，返回讀咗幾多條 */
+    public synchronized int aggregate() {
+        long begin = System.currentTimeMillis();
+        Set<Stats> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        Long bound = jdbcTemplate.queryForObject(BOUND_SQL, Long.class, watermark,
+                new Timestamp(begin - commitLagMs));
+        long until = bound == null ? Long.MAX_VALUE : bound;
+        int total = 0;
+        int read;
+        do {
+            int[] rows = { 0 };
+            jdbcTemplate.query(BATCH_SQL, rs -> {
+                rows[0]++;
+                int seq = rs.getInt(1);
+                watermark = seq;
+                if ("cancelled".equals(rs.getString(6))) {
+                    return;
+                }
+                int itemId = rs.getInt(2);
+                int quantity = rs.getInt(3);
+                Stats restaurant = byRestaurant.computeIfAbsent(rs.getInt(4), k -> new Stats());
+                Stats customer = byCustomer.computeIfAbsent(rs.getInt(5), k -> new Stats());
+                restaurant.counter.add(itemId, quantity, seq);
+                customer.counter.add(itemId, quantity, seq);
+                touched.add(restaurant);
+                touched.add(customer);
+            }, watermark, until, BATCH_SIZE);
+            read = rows[0];
+            total += read;
+        } while (read == BATCH_SIZE);
+        for (Stats stats : touched) {
+            stats.top = stats.counter.top(TOP_SIZE);
+        }
+        if (total > 0) {
+            log.debug("aggregated {} order items ({} lists updated) in {} ms", total, touched.size(),
+                    System.currentTimeMillis() - begin);
+        }
+        return total;
+    }
+
+    /** 呢間餐廳叫得最多嘅菜（只計仲 active 嘅） */
+    public List<PopularItem> getBestSellers(Integer restid, int limit) {
+        return resolve(byRestaurant.get(restid), limit);
+    }
+
+    /** 呢個客叫過最多次嘅菜，同數就最近叫過嘅排先 */
+    public List<PopularItem> getReorderItems(Integer custid, int limit) {
+        return resolve(byCustomer.get(custid), limit);
+    }
+
+    // 一次 findAllById 攞返菜式資料；落咗架 / 停用嘅跳過
+    private List<PopularItem> resolve(Stats stats, int limit) {
+        if (stats == null) {
+            return Collections.emptyList();
+        }
+        int[] top = stats.top;
+        int size = Math.max(1, Math.min(limit, TOP_SIZE));
+        List<Integer> ids = new ArrayList<>(top.length / 2);
+        for (int i = 0; i < top.length; i += 2) {
+            ids.add(top[i]);
+        }
+        Map<Integer, MenuItems> items = menuItemsRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(MenuItems::getItemId, Function.identity()));
+        List<PopularItem> result = new ArrayList<>(size);
+        for (int i = 0; i < top.length && result.size() < size; i += 2) {
+            MenuItems item = items.get(top[i]);
+            if (item == null || item.getStatus() != MenuItems.ItemStatus.active) {
+                continue;
+            }
+            PopularItem popular = new PopularItem();
+            popular.setItemId(item.getItemId());
+            popular.setRestid(item.getRestid());
+            popular.setItemName(item.getItemName());
+            popular.setCategory(item.getCategory());
+            popular.setPrice(item.getPrice());
+            popular.setOrderCount(top[i + 1]);
+            result.add(popular);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,51 @@
+package com.mustudy.reactweb_backend.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mustudy.reactweb_backend.models.Restaurant;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Restaurant 嘅 JPA entity listener：有餐廳新增 / 修改 / 刪除，commit 之後更新 RestaurantDirectoryService 嘅 snapshot。
+ * Hibernate 經 Spring 攞呢個 bean，所以可以 @Autowired。
+ */
+@Component
+public class RestaurantDirectoryListener {
+
+    // EntityManagerFactory 初始化時已經要建立 listener，用 @Lazy 避免提早建立 directory
+    @Autowired
+    @Lazy
+    private RestaurantDirectoryService restaurantDirectoryService;
+
+    @PostPersist
+    @PostUpdate
+    void saved(Restaurant restaurant) {
+        afterCommit(() -> restaurantDirectoryService.upsert(restaurant));
+    }
+
+    @PostRemove
+    void removed(Restaurant restaurant) {
+        afterCommit(() -> restaurantDirectoryService.remove(restaurant.getRestid()));
+    }
+
+    // rollback 咗嘅改動唔應該出現喺列表
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
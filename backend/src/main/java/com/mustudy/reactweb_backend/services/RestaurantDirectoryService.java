@@ -0,0 +1,289 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.mustudy.reactweb_backend.dto.RestaurantCard;
+import com.mustudy.reactweb_backend.models.Restaurant;
+
+/**
+ * 餐廳列表（首頁）。啟動完成後讀一次 restaurant（未讀之前第一個 request 會觸發），之後喺 memory 保留按評分排好嘅 snapshot：
+ * 全部餐廳一份、營業中（isValidate 而且未刪除）一份。餐廳改動（RestaurantDirectoryListener）
+ * 同評分改動（ReviewService）只係將一間餐廳喺排好嘅 array 入面搬位（copy-on-write），唔會成個重建。
+ * 讀嘅時候直接攞 volatile snapshot，唔使 lock，唔使 query。
+ * 按距離排序要每次計，但只用大小為 (page + 1) * size 嘅 heap 揀出最近嗰啲。
+ */
+@Service
+public class RestaurantDirectoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(RestaurantDirectoryService.class);
+
+    static final String LOAD_SQL = "SELECT restid, restname, description, address, icon, isvalidate, deleted_time,"
+            + " latitude, longitude, rating_sum, rating_count FROM restaurant";
+    static final int MAX_PAGE_SIZE = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** 列表用嘅餐廳資料（唔包密碼等欄位）；冇位置 / 冇評分就係 NaN */
+    record Entry(int restid, String restname, String description, String address, String icon, boolean validated,
+            boolean deleted, double latitude, double longitude, double averageRating, long ratingCount) {
+
+        boolean active() {
+            return validated && !deleted;
+        }
+
+        boolean located() {
+            return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+        }
+
+        Entry withRating(double average, long count) {
+            return new Entry(restid, restname, description, address, icon, validated, deleted, latitude, longitude,
+                    average, count);
+        }
+    }
+
+    // 評分高排先，冇評分排最後；同分按評價數、再按 id，保證次序唯一（binarySearch 搵得返）
+    static final Comparator<Entry> BY_RATING = Comparator
+            .comparingDouble((Entry e) -> Double.isNaN(e.averageRating()) ? Double.NEGATIVE_INFINITY : e.averageRating())
+            .reversed()
+            .thenComparing(Comparator.comparingLong(Entry::ratingCount).reversed())
+            .thenComparingInt(Entry::restid);
+
+    private record Snapshot(Entry[] all, Entry[] active) {
+    }
+
+    private final ConcurrentHashMap<Integer, Entry> byId = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(new Entry[0], new Entry[0]);
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long begin = System.currentTimeMillis();
+        List<Entry> entries = jdbcTemplate.query(LOAD_SQL, (rs, i) -> {
+            long count = rs.getLong(11);
+            return new Entry(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                    rs.getBoolean(6), rs.getTimestamp(7) != null, toDouble(rs.getBigDecimal(8)),
+                    toDouble(rs.getBigDecimal(9)), count == 0 ? Double.NaN : (double) rs.getLong(10) / count, count);
+        });
+        byId.clear();
+        Entry[] all = entries.toArray(new Entry[0]);
+        Arrays.sort(all, BY_RATING);
+        for (Entry entry : all) {
+            byId.put(entry.restid(), entry);
+        }
+        snapshot = new Snapshot(all, Arrays.stream(all).filter(Entry::active).toArray(Entry[]::new));
+        loaded = true;
+        log.info("restaurant directory loaded {} restaurants in {} ms", all.length, System.currentTimeMillis() - begin);
+    }
+
+    /** 餐廳新增 / 修改（commit 之後）；評分以 memory 入面嘅為準，因為 restaurant 嘅 rating_sum 係遲啲先 flush */
+    public synchronized void upsert(Restaurant restaurant) {
+        Entry old = byId.get(restaurant.getRestid());
+        long count = restaurant.getRatingCount() == null ? 0 : restaurant.getRatingCount();
+        double average = count == 0 ? Double.NaN : (double) restaurant.getRatingSum() / count;
+        Entry entry = new Entry(restaurant.getRestid(), restaurant.getRestname(), restaurant.getDescription(),
+                restaurant.getAddress(), restaurant.getIcon(), !Boolean.FALSE.equals(restaurant.getIsValidate()),
+                restaurant.getDeletedTime() != null, toDouble(restaurant.getLatitude()),
+                toDouble(restaurant.getLongitude()),
+                old == null ? average : old.averageRating(), old == null ? count : old.ratingCount());
+        replace(old, entry);
+    }
+
+    public synchronized void updateRating(Integer restid, double average, long count) {
+        Entry old = byId.get(restid);
+        if (old != null) {
+            replace(old, old.withRating(average, count));
+        }
+    }
+
+    public synchronized void remove(Integer restid) {
+        Entry old = byId.get(restid);
+        if (old != null) {
+            replace(old, null);
+        }
+    }
+
+    /**
+     * 分頁列表。sort = rating（預設）或 distance（要傳 lat / lng，冇位置嘅餐廳排最後）；
+     * includeInactive = true 先會包括停用 / 已刪除嘅餐廳。
+     */
+    public Map<String, Object> browse(boolean includeInactive, String sort, Double lat, Double lng, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("分頁參數錯誤，每頁最多 " + MAX_PAGE_SIZE + " 間");
+        }
+        Snapshot current = loadedSnapshot();
+        Entry[] view = includeInactive ? current.all() : current.active();
+        boolean byDistance = "distance".equals(sort);
+        if (byDistance && (lat == null || lng == null)) {
+            throw new RuntimeException("按距離排序需要提供位置");
+        }
+        if (!byDistance && sort != null && !"rating".equals(sort)) {
+            throw new RuntimeException("不支援嘅排序: " + sort);
+        }
+
+        int from = (int) Math.min((long) page * size, view.length);
+        int to = Math.min(from + size, view.length);
+        List<RestaurantCard> cards = new ArrayList<>(to - from);
+        if (byDistance) {
+            int[] order = nearest(view, lat, lng, to);
+            for (int i = from; i < to; i++) {
+                cards.add(toCard(view[order[i]], lat, lng));
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                cards.add(toCard(view[i], lat, lng));
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("restaurants", cards);
+        result.put("page", page);
+        result.put("size", size);
+        result.put("total", view.length);
+        return result;
+    }
+
+    public RestaurantCard getRestaurant(Integer restid) {
+        loadedSnapshot();
+        Entry entry = byId.get(restid);
+        if (entry == null) {
+            throw new RuntimeException("餐廳不存在");
+        }
+        return toCard(entry, null, null);
+    }
+
+    /** 餐廳位置 {lat, lng}；冇呢間餐廳或者冇位置就係 null */
+    public double[] locationOf(Integer restid) {
+        loadedSnapshot();
+        Entry entry = byId.get(restid);
+        return entry == null || !entry.located() ? null : new double[] { entry.latitude(), entry.longitude() };
+    }
+
+    // view 入面最近嘅 k 間嘅 index（由近到遠）；冇位置嘅排喺後面，按評分次序
+    static int[] nearest(Entry[] view, double lat, double lng, int k) {
+        double[] distance = new double[view.length];
+        PriorityQueue<Integer> farthestFirst = new PriorityQueue<>(Math.max(1, k),
+                (a, b) -> Double.compare(distance[b], distance[a]));
+        int[] unlocated = new int[view.length];
+        int unlocatedCount = 0;
+        for (int i = 0; i < view.length; i++) {
+            if (!view[i].located()) {
+                unlocated[unlocatedCount++] = i;
+                continue;
+            }
+            distance[i] = distanceKm(lat, lng, view[i].latitude(), view[i].longitude());
+            if (farthestFirst.size() < k) {
+                farthestFirst.add(i);
+            } else if (k > 0 && distance[i] < distance[farthestFirst.peek()]) {
+                farthestFirst.poll();
+                farthestFirst.add(i);
+            }
+        }
+        int located = farthestFirst.size();
+        int[] order = new int[Math.min(k, located + unlocatedCount)];
+        for (int i = located - 1; i >= 0; i--) {
+            int index = farthestFirst.poll();
+            if (i < order.length) {
+                order[i] = index;
+            }
+        }
+        for (int i = located, u = 0; i < order.length; i++, u++) {
+            order[i] = unlocated[u];
+        }
+        return order;
+    }
+
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * 6371.0 * Math.asin(Math.sqrt(a));
+    }
+
+    private Snapshot loadedSnapshot() {
+        if (!loaded) {
+            load();
+        }
+        return snapshot;
+    }
+
+    // 將 old 由排好嘅 array 拎走、將 entry 插入啱嘅位置；只 copy array，唔使重新排序
+    private void replace(Entry old, Entry entry) {
+        if (entry != null && entry.equals(old)) {
+            return;
+        }
+        Snapshot current = snapshot;
+        Entry[] all = moved(current.all(), old, entry);
+        Entry[] active = moved(current.active(), old != null && old.active() ? old : null,
+                entry != null && entry.active() ? entry : null);
+        if (entry == null) {
+            byId.remove(old.restid());
+        } else {
+            byId.put(entry.restid(), entry);
+        }
+        snapshot = new Snapshot(all, active);
+    }
+
+    private static Entry[] moved(Entry[] sorted, Entry remove, Entry insert) {
+        if (remove == null && insert == null) {
+            return sorted;
+        }
+        List<Entry> copy = new ArrayList<>(sorted.length + 1);
+        copy.addAll(Arrays.asList(sorted));
+        if (remove != null) {
+            int at = Arrays.binarySearch(sorted, remove, BY_RATING);
+            if (at >= 0) {
+                copy.remove(at);
+            }
+        }
+        if (insert != null) {
+            int at = Collections.binarySearch(copy, insert, BY_RATING);
+            copy.add(at >= 0 ? at : -at - 1, insert);
+        }
+        return copy.toArray(new Entry[0]);
+    }
+
+    private static RestaurantCard toCard(Entry entry, Double lat, Double lng) {
+        RestaurantCard card = new RestaurantCard();
+        card.setRestid(entry.restid());
+        card.setRestname(entry.restname());
+        card.setDescription(entry.description());
+        card.setAddress(entry.address());
+        card.setIcon(entry.icon());
+        card.setIsValidate(entry.validated());
+        if (entry.located()) {
+            card.setLatitude(entry.latitude());
+            card.setLongitude(entry.longitude());
+            if (lat != null && lng != null) {
+                card.setDistanceKm(Math.round(distanceKm(lat, lng, entry.latitude(), entry.longitude()) * 100) / 100.0);
+            }
+        }
+        if (!Double.isNaN(entry.averageRating())) {
+            card.setAverageRating(Math.round(entry.averageRating() * 100) / 100.0);
+        }
+        card.setRatingCount(entry.ratingCount());
+        return card;
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+}
@@ -0,0 +1,269 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mustudy.reactweb_backend.models.OrderReview;
+import com.mustudy.reactweb_backend.models.Orders;
+import com.mustudy.reactweb_backend.repositories.OrderRepository;
+import com.mustudy.reactweb_backend.repositories.OrderReviewRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 訂單評價同餐廳評分。每間餐廳喺 memory 有 sum / count，新評價 +rating / +1，改評價只加減差額，
+ * 讀評分 O(1)，唔使 AVG()。未寫返 DB 嘅差額累積喺 pending，背景 thread 每 flush-interval-ms
+ * 用一個 batch UPDATE restaurant SET rating_sum = rating_sum + ? ... 寫返（加差額，唔係覆寫，
+ * 平均分都係 SQL 由加完嘅 sum / count 計，多個 node 各自 flush 都唔會蓋咗對方）。成個 batch 喺同一個
+ * transaction，失敗就全部 rollback，差額放返入 pending 都唔會重複計。
+ * 評價 commit 咗先更新 memory（同餐廳列表嘅排序），所以 memory 只會包含已 commit 嘅評價。
+ */
+@Service
+public class ReviewService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewService.class);
+
+    // rating 要排第一：MySQL 由左至右 set，後面嘅欄位會見到已經加咗嘅值
+    static final String FLUSH_SQL = "UPDATE restaurant SET"
+            + " rating = ROUND((rating_sum + ?) * 1.0 / NULLIF(rating_count + ?, 0)),"
+            + " rating_sum = rating_sum + ?, rating_count = rating_count + ? WHERE restid = ?";
+
+    @Autowired
+    private OrderReviewRepository orderReviewRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RestaurantDirectoryService restaurantDirectoryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.reviews.flush-enabled:true}")
+    private boolean flushEnabled;
+
+    @Value("${app.reviews.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    private final ConcurrentHashMap<Integer, RatingAggregate> aggregates = new ConcurrentHashMap<>();
+    private TransactionTemplate transactionTemplate;
+    private Thread flusher;
+    private volatile boolean running;
+
+    /** 一間餐廳嘅評分：total = 已包括 pending；pending = 未寫返 DB 嘅差額 */
+    static final class RatingAggregate {
+        private long sum;
+        private long count;
+        private long pendingSum;
+        private long pendingCount;
+
+        RatingAggregate(long sum, long count) {
+            this.sum = sum;
+            this.count = count;
+        }
+
+        /** 返回加完之後嘅 {sum, count} */
+        synchronized long[] apply(long sumDelta, long countDelta) {
+            sum += sumDelta;
+            count += countDelta;
+            pendingSum += sumDelta;
+            pendingCount += countDelta;
+            return new long[] { sum, count };
+        }
+
+        /** 攞走 pending 差額：{sum, count}；冇就 null */
+        synchronized long[] drain() {
+            if (pendingSum == 0 && pendingCount == 0) {
+                return null;
+            }
+            long[] drained = { pendingSum, pendingCount };
+            pendingSum = 0;
+            pendingCount = 0;
+            return drained;
+        }
+
+        // flush 失敗：差額放返入 pending，下次再寫（total 冇變過）
+        synchronized void restore(long sumDelta, long countDelta) {
+            pendingSum += sumDelta;
+            pendingCount += countDelta;
+        }
+
+        synchronized Map<String, Object> snapshot(Integer restid) {
+            Map<String, Object> rating = new LinkedHashMap<>();
+            rating.put("restid", restid);
+            rating.put("average", count == 0 ? null : Math.round(sum * 100.0 / count) / 100.0);
+            rating.put("count", count);
+            return rating;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (!flushEnabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "rating-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // restaurant table 細，啟動完成後一次過載入所有餐廳嘅 sum / count；之前用到嘅餐廳已經由 aggregateOf 載入咗，唔好覆蓋
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAggregates() {
+        jdbcTemplate.query("SELECT restid, rating_sum, rating_count FROM restaurant", rs -> {
+            aggregates.putIfAbsent(rs.getInt(1), new RatingAggregate(rs.getLong(2), rs.getLong(3)));
+        });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("rating flush on shutdown failed", e);
+        }
+    }
+
+    /**
+     * 新增或者修改自己張單嘅評價（每張單一個），只可以評價已送達嘅單。
+     * 鎖住張單嚟排隊，同一張單同時提交都唔會計多咗一次。
+     */
+    public OrderReview submitReview(Integer orderid, Integer custid, Integer rating, String reviewText) {
+        if (rating == null || rating < 1 || rating > 5) {
+            throw new RuntimeException("評分必須係 1 至 5");
+        }
+        SavedReview saved = transactionTemplate.execute(tx -> {
+            Orders order = orderRepository.findWithLockByOrderid(orderid)
+                    .orElseThrow(() -> new RuntimeException("訂單不存在"));
+            if (!order.getCustid().equals(custid)) {
+                throw new RuntimeException("只可以評價自己嘅訂單");
+            }
+            if (order.getStatus() != Orders.OrderStatus.delivered) {
+                throw new RuntimeException("訂單未送達，暫時未可以評價");
+            }
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            OrderReview review = orderReviewRepository.findFirstByOrderidOrderByReviewidAsc(orderid).orElse(null);
+            long sumDelta;
+            long countDelta;
+            if (review == null) {
+                review = new OrderReview();
+                review.setOrderid(orderid);
+                review.setReviewedBy(custid);
+                review.setCreatedTime(now);
+                sumDelta = rating;
+                countDelta = 1;
+            } else {
+                Integer old = review.getRating();
+                sumDelta = rating - (old == null ? 0 : old);
+                countDelta = old == null ? 1 : 0;
+            }
+            review.setRating(rating);
+            review.setReviewText(reviewText);
+            review.setUpdatedTime(now);
+            return new SavedReview(orderReviewRepository.save(review), order.getRestid(), sumDelta, countDelta);
+        });
+        long[] totals = aggregateOf(saved.restid()).apply(saved.sumDelta(), saved.countDelta());
+        restaurantDirectoryService.updateRating(saved.restid(),
+                totals[1] == 0 ? Double.NaN : (double) totals[0] / totals[1], totals[1]);
+        return saved.review();
+    }
+
+    public OrderReview getReviewByOrder(Integer orderid) {
+        return orderReviewRepository.findFirstByOrderidOrderByReviewidAsc(orderid)
+                .orElseThrow(() -> new RuntimeException("呢張單未有評價"));
+    }
+
+    /** 餐廳評分（平均分同評價數），由 memory 讀 */
+    public Map<String, Object> getRating(Integer restid) {
+        return aggregateOf(restid).snapshot(restid);
+    }
+
+    public List<Map<String, Object>> getRatings(List<Integer> restids) {
+        List<Map<String, Object>> ratings = new ArrayList<>(restids.size());
+        for (Integer restid : restids) {
+            ratings.add(getRating(restid));
+        }
+        return ratings;
+    }
+
+    /** 將 pending 差額批量寫返 restaurant，返回寫咗幾多間餐廳 */
+    public int flush() {
+        List<Object[]> updates = new ArrayList<>();
+        List<RatingAggregate> drainedFrom = new ArrayList<>();
+        for (Map.Entry<Integer, RatingAggregate> entry : aggregates.entrySet()) {
+            long[] drained = entry.getValue().drain();
+            if (drained != null) {
+                updates.add(new Object[] { drained[0], drained[1], drained[0], drained[1], entry.getKey() });
+                drainedFrom.add(entry.getValue());
+            }
+        }
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        try {
+            // 唔包 transaction 嘅話每行自己 commit，中途失敗再 restore 就會重複加
+            transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(FLUSH_SQL, updates));
+        } catch (RuntimeException e) {
+            for (int i = 0; i < updates.size(); i++) {
+                drainedFrom.get(i).restore((Long) updates.get(i)[0], (Long) updates.get(i)[1]);
+            }
+            throw e;
+        }
+        return updates.size();
+    }
+
+    // 啱啱註冊嘅餐廳未喺 memory，第一次用到先讀返
+    private RatingAggregate aggregateOf(Integer restid) {
+        return aggregates.computeIfAbsent(restid, id -> {
+            List<long[]> rows = jdbcTemplate.query("SELECT rating_sum, rating_count FROM restaurant WHERE restid = ?",
+                    (rs, i) -> new long[] { rs.getLong(1), rs.getLong(2) }, id);
+            if (rows.isEmpty()) {
+                throw new RuntimeException("餐廳不存在");
+            }
+            return new RatingAggregate(rows.get(0)[0], rows.get(0)[1]);
+        });
+    }
+
+    private record SavedReview(OrderReview review, Integer restid, long sumDelta, long countDelta) {
+    }
+
+    private void flushLoop() {
+        while (running) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("rating flush failed, will retry", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.mustudy.reactweb_backend.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mustudy.reactweb_backend.dispatch.LocationTrack;
+import com.mustudy.reactweb_backend.dto.DeliveryTrackingResponse;
+import com.mustudy.reactweb_backend.dto.LocationPoint;
+import com.mustudy.reactweb_backend.dto.RiderTrackResponse;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 外賣員 GPS 位置。每幾秒一點、全部外賣員加埋每秒幾千點，唔會逐點寫 delivery_staff：
+ * 位置放入每個外賣員自己嘅 LocationTrack（ring buffer），最新一點交俾 DispatchService 嘅 grid 派單用。
+ * 背景 thread 每 flush-interval-ms 將新嘅點 downsample（每個外賣員每 persist-sample-ms 一點）
+ * 之後成批寫入 rider_locations（一個 transaction 一批），寫成功先推前每條 track 嘅 cursor，
+ * 寫唔到嘅點下次 flush 會再交過。追蹤畫面直接讀 ring buffer。
+ */
+@Service
+public class RiderLocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RiderLocationService.class);
+
+    static final String INSERT_SQL = "INSERT INTO rider_locations (staff_id, latitude, longitude, recorded_time)"
+            + " VALUES (?, ?, ?, ?)";
+    // 一次最多收幾多點（app 離線一陣之後補報）
+    static final int MAX_POINTS_PER_REPORT = 100;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private DeliveryService deliveryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.rider-locations.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.rider-locations.flush-enabled:true}")
+    private boolean flushEnabled;
+
+    @Value("${app.rider-locations.flush-interval-ms:10000}")
+    private long flushIntervalMs;
+
+    @Value("${app.rider-locations.persist-sample-ms:30000}")
+    private long persistSampleMs;
+
+    // 追蹤畫面冇傳 since 時返回最近幾耐嘅路線
+    @Value("${app.rider-locations.track-window-ms:600000}")
+    private long trackWindowMs;
+
+    @Value("${app.rider-locations.batch-size:500}")
+    private int batchSize;
+
+    private final ConcurrentHashMap<Integer, LocationTrack> tracks = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+    private volatile boolean running;
+    private Thread writer;
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (!flushEnabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::flushLoop, "rider-location-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("rider location flush on shutdown failed", e);
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("rider location flush failed", e);
+            }
+        }
+    }
+
+    /**
+     * 收一個外賣員嘅一點或者幾點（按時間排）；比已經收咗嘅舊嘅點唔要。返回收咗幾多點。
+     */
+    public int record(Integer staffId, List<LocationPoint> points) {
+        if (points == null || points.isEmpty()) {
+            throw new RuntimeException("冇位置資料");
+        }
+        if (points.size() > MAX_POINTS_PER_REPORT) {
+            throw new RuntimeException("每次最多報 " + MAX_POINTS_PER_REPORT + " 個位置");
+        }
+        long now = System.currentTimeMillis();
+        for (LocationPoint point : points) {
+            if (point == null || point.getLatitude() == null || point.getLongitude() == null
+                    || Math.abs(point.getLatitude()) > 90 || Math.abs(point.getLongitude()) > 180) {
+                throw new RuntimeException("位置資料不正確");
+            }
+        }
+        // 外賣員唔存在 / 停用會 throw，唔會開 track
+        dispatchService.requireRider(staffId);
+
+        LocationTrack track = tracks.computeIfAbsent(staffId, id -> new LocationTrack(bufferSize));
+        int accepted = 0;
+        for (LocationPoint point : points) {
+            if (track.add(time(point, now), point.getLatitude(), point.getLongitude())) {
+                accepted++;
+            }
+        }
+        // 重送 / 離線補傳嘅舊點唔會令最新位置變；有新嘅點先更新派單 grid，用嗰點自己嘅時間
+        if (accepted > 0) {
+            track.latest((time, latitude, longitude) ->
+                    dispatchService.updateLocation(staffId, latitude, longitude, time));
+        }
+        return accepted;
+    }
+
+    // 手機時鐘可能快咗，唔接受未來嘅時間
+    private static long time(LocationPoint point, long now) {
+        return point.getRecordedTime() == null ? now : Math.min(point.getRecordedTime(), now);
+    }
+
+    /** 將新嘅點 downsample 之後成批寫入 rider_locations，返回寫咗幾多行；寫失敗就 throw，點留返下次再寫 */
+    public synchronized int flush() {
+        List<Object[]> rows = new ArrayList<>();
+        List<LocationTrack> drained = new ArrayList<>();
+        int written = 0;
+        for (var entry : tracks.entrySet()) {
+            Integer staffId = entry.getKey();
+            entry.getValue().drainSamples(persistSampleMs, (time, latitude, longitude) -> rows.add(new Object[] {
+                    staffId, decimal(latitude), decimal(longitude), new Timestamp(time) }));
+            drained.add(entry.getValue());
+            if (rows.size() >= batchSize) {
+                written += write(rows, drained);
+            }
+        }
+        return written + write(rows, drained);
+    }
+
+    // 成批一個 transaction，commit 咗先推前 cursor；中途失敗就全批 rollback，下次由原位再交
+    private int write(List<Object[]> rows, List<LocationTrack> drained) {
+        if (!rows.isEmpty()) {
+            transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+        }
+        for (LocationTrack track : drained) {
+            track.commitDrain();
+        }
+        int size = rows.size();
+        rows.clear();
+        drained.clear();
+        return size;
+    }
+
+    private static BigDecimal decimal(double degrees) {
+        return BigDecimal.valueOf(degrees).setScale(6, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 客人追蹤畫面：張單嘅外賣員最新位置，同 since（epoch 毫秒，唔傳就係最近 track-window-ms）之後嘅路線。
+     */
+    public RiderTrackResponse getTrack(Integer orderid, Long since) {
+        DeliveryTrackingResponse delivery = deliveryService.getTracking(orderid);
+        boolean active = "in_transit".equals(delivery.getDeliveryStatus())
+                || "assigned".equals(delivery.getDeliveryStatus());
+        if (delivery.getDriverId() == null || !active) {
+            throw new RuntimeException("訂單未開始外送或者已經送達");
+        }
+        RiderTrackResponse response = new RiderTrackResponse();
+        response.setOrderid(orderid);
+        response.setDriverId(delivery.getDriverId());
+        List<LocationPoint> path = new ArrayList<>();
+        LocationTrack track = tracks.get(delivery.getDriverId());
+        if (track != null) {
+            track.latest((time, latitude, longitude) -> response.setLatest(LocationPoint.of(time, latitude, longitude)));
+            long from = since != null ? since : System.currentTimeMillis() - trackWindowMs;
+            track.forEachSince(from, (time, latitude, longitude) -> path.add(LocationPoint.of(time, latitude, longitude)));
+        }
+        response.setPath(path);
+        return response;
+    }
+}
@@ -0,0 +1,4 @@
+-- Per-listener delivery progress for the order_events outbox: names of the
+-- listeners that already handled the event, so a retry after one listener fails
+-- only goes to the listeners that have not succeeded yet.
+ALTER TABLE order_events ADD COLUMN delivered_to VARCHAR(500) NULL;
@@ -0,0 +1,4 @@
+-- order_events 租約：dispatcher 用一個短 transaction 攞一批 event（attempts + 1、claimed_until = 而家 + lease），
+-- commit 咗先喺 transaction 外面 call listener，最後再用另一個 transaction 記 delivered_to / dispatched_time。
+-- claimed_until 未過嘅 event 其他 node 唔會再攞；dispatcher 中途死咗，過咗租約就會有人重試。
+ALTER TABLE order_events ADD COLUMN claimed_until TIMESTAMP(3) NULL;
@@ -0,0 +1,198 @@
+-- Baseline schema (same tables as Food_Order_3.sql, without sample data).
+-- Existing databases built from Food_Order_3.sql are baselined at version 1
+-- (spring.flyway.baseline-on-migrate) and start from V2.
+-- deliveries.idx_deliveries_status is renamed from idx_delivery_status because
+-- index names are schema-wide on H2 and clash with delivery_staff's index.
+
+-- Customer table (enhanced with basic timestamps)
+CREATE TABLE customer (
+    custid INT PRIMARY KEY AUTO_INCREMENT,
+    custname VARCHAR(100) NOT NULL,
+    phone VARCHAR(20),
+    email VARCHAR(100),
+    pass_hash_1 CHAR(96) NOT NULL COMMENT 'sha384',
+    pass_hash_2 CHAR(64) NOT NULL COMMENT 'sha-256',
+    icon VARCHAR(255) NULL COMMENT 'Profile icon URL/path',
+    isValidate BOOLEAN DEFAULT TRUE, -- 凍結或停用帳號
+    latestLoginDate TIMESTAMP NULL COMMENT 'Latest login timestamp',
+    change_log TEXT NULL, 
+    created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_customer_email (email),
+    INDEX idx_customer_isValidate (isValidate),
+    INDEX idx_customer_latestLoginDate (latestLoginDate)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Customer Addresses table
+CREATE TABLE customer_addresses (
+    addressid INT PRIMARY KEY AUTO_INCREMENT,
+    custid INT NOT NULL,
+    address_line1 VARCHAR(200) NOT NULL,
+    address_line2 VARCHAR(200),
+    city VARCHAR(100), 
+    postal_code VARCHAR(20), -- 郵遞區號
+    country VARCHAR(50) DEFAULT 'Hong Kong',
+    is_default BOOLEAN DEFAULT FALSE,
+    change_log TEXT NULL,
+    created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    deleted_time TIMESTAMP NULL,
+    FOREIGN KEY (custid) REFERENCES customer(custid) ON DELETE CASCADE,
+    INDEX idx_address_custid (custid),
+    INDEX idx_address_default (is_default)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Restaurant table
+CREATE TABLE restaurant (
+    restid INT PRIMARY KEY AUTO_INCREMENT,
+    restname VARCHAR(100) NOT NULL,
+    email VARCHAR(100) NOT NULL, -- Restaurant email for login
+    description TEXT,
+    rating INT CHECK (rating >= 1 AND rating <= 5), -- 餐廳評級
+    address VARCHAR(200), -- 餐廳地址
+    pass_hash_1 CHAR(96) NOT NULL COMMENT 'sha384',
+    pass_hash_2 CHAR(64) NOT NULL COMMENT 'sha-256',
+    icon VARCHAR(255) NULL COMMENT 'Restaurant icon/logo URL/path',
+    isValidate BOOLEAN DEFAULT TRUE,
+    latestLoginDate TIMESTAMP NULL COMMENT 'Latest login timestamp',
+    change_log TEXT NULL,
+    created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_rest_email (email),
+    INDEX idx_rest_isValidate (isValidate),
+    INDEX idx_rest_latestLoginDate (latestLoginDate),
+    UNIQUE KEY uk_rest_email (email) -- Ensure email is unique
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Delivery Staff table
+CREATE TABLE delivery_staff (
+    staff_id INT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    phone VARCHAR(20),
+    email VARCHAR(100),
+    pass_hash_1 CHAR(96) NOT NULL COMMENT 'sha384',
+    pass_hash_2 CHAR(64) NOT NULL COMMENT 'sha-256',
+    icon VARCHAR(255) NULL COMMENT 'Profile icon URL/path',
+    vehicle_type ENUM('bike', 'scooter', 'car', 'van') DEFAULT 'bike', -- 騎手的交通工具
+    license_number VARCHAR(50), -- 交通工具牌照／駕駛執照編號
+    status ENUM('active', 'inactive') DEFAULT 'active', --
+    isValidate BOOLEAN DEFAULT TRUE, -- 停用/凍結
+    latestLoginDate TIMESTAMP NULL COMMENT 'Latest login timestamp',
+    change_log TEXT NULL,
+    created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    deleted_time TIMESTAMP NULL,
+    INDEX idx_delivery_status (status),
+    INDEX idx_delivery_isValidate (isValidate),
+    INDEX idx_delivery_latestLoginDate (latestLoginDate),
+    INDEX idx_delivery_deleted (deleted_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Menu Items table
+CREATE TABLE menu_items (
+    item_ID INT PRIMARY KEY AUTO_INCREMENT,
+    restid INT,
+    category VARCHAR(100), -- 菜式類型
+    item_name VARCHAR(100) NOT NULL,
+    description TEXT,
+    price DECIMAL(10,2),
+    status ENUM('active', 'inactive', 'out_of_stock') DEFAULT 'active', -- 菜式狀態
+    created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (restid) REFERENCES restaurant(restid) ON DELETE CASCADE,
+    INDEX idx_menu_restid (restid),
+    INDEX idx_menu_category (category),
+    INDEX idx_menu_status (status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Orders table
+CREATE TABLE orders (
+    orderid INT PRIMARY KEY AUTO_INCREMENT,
+    custid INT,
+    restid INT,
+    addressid INT,
+    shipping_address VARCHAR(300) NULL, -- 送貨地址
+    deliver_man_ID INT NULL, -- 騎手id
+    start_deliver_time TIMESTAMP NULL, -- 開始送貨時間
+    end_deliver_time TIMESTAMP NULL, -- 結束送貨時間
+    status ENUM('pending', 'preparing', 'ready', 'out_for_delivery', 'delivered', 'cancelled') DEFAULT 'pending', -- 外賣狀態
+    remark TEXT NULL, -- 訂單備註(我覺得應該係customer寫嘅)
+    total_amount DECIMAL(10,2) DEFAULT 0.00,
+    discount_amount DECIMAL(10,2) DEFAULT 0.00, -- discount幾多錢, 冇嘅話應該係零
+    change_log TEXT,
+    created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (custid) REFERENCES customer(custid) ON DELETE CASCADE,
+    FOREIGN KEY (restid) REFERENCES restaurant(restid) ON DELETE CASCADE,
+    FOREIGN KEY (addressid) REFERENCES customer_addresses(addressid) ON DELETE SET NULL,
+    FOREIGN KEY (deliver_man_ID) REFERENCES delivery_staff(staff_id) ON DELETE SET NULL,
+    INDEX idx_orders_status (status),
+    INDEX idx_orders_custid (custid),
+    INDEX idx_orders_deliver_time (start_deliver_time, end_deliver_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Order Items table
+CREATE TABLE order_items (
+    orderitemid INT PRIMARY KEY AUTO_INCREMENT,
+    orderid INT,
+    item_ID INT,
+    quantity INT DEFAULT 1,
+    price DECIMAL(10,2),
+    FOREIGN KEY (orderid) REFERENCES orders(orderid) ON DELETE CASCADE,
+    FOREIGN KEY (item_ID) REFERENCES menu_items(item_ID) ON DELETE CASCADE,
+    INDEX idx_oi_orderid (orderid)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Payments table
+CREATE TABLE payments (
+    invoiceID INT PRIMARY KEY AUTO_INCREMENT,
+    orderid INT NOT NULL,
+    payment_method ENUM('credit_card', 'debit_card', 'paypal', 'cash_on_delivery') NOT NULL, -- 付款方法
+    ext_ref_num VARCHAR(100) NULL, -- 記錄第三方付款程式收據編碼(例如支付寶自己產生的帳單號碼)
+    receive_amount DECIMAL(10,2) NOT NULL, -- 付款金額
+    payment_status ENUM('pending', 'paid', 'failed', 'refunded') DEFAULT 'pending', -- 交易狀態
+    created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (orderid) REFERENCES orders(orderid) ON DELETE CASCADE,
+    INDEX idx_payment_orderid (orderid),
+    INDEX idx_payment_status (payment_status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Deliveries table
+CREATE TABLE deliveries (
+    deliveryid INT PRIMARY KEY AUTO_INCREMENT,
+    orderid INT NOT NULL,
+    driver_id INT,
+    eta TIMESTAMP NULL, -- 預計到達時間
+    actual_delivery_time TIMESTAMP NULL, -- 實際到達時間
+    delivery_status ENUM('assigned', 'in_transit', 'delivered', 'failed') DEFAULT 'assigned',
+    created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (orderid) REFERENCES orders(orderid) ON DELETE CASCADE,
+    FOREIGN KEY (driver_id) REFERENCES delivery_staff(staff_id) ON DELETE SET NULL,
+    INDEX idx_delivery_orderid (orderid),
+    INDEX idx_deliveries_status (delivery_status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Order Reviews table
+CREATE TABLE order_reviews (
+    reviewid INT PRIMARY KEY AUTO_INCREMENT,
+    orderid INT NOT NULL,
+    rating INT CHECK (rating >= 1 AND rating <= 5), -- 評價
+    review_text TEXT,
+    reviewed_by INT,
+    created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (orderid) REFERENCES orders(orderid) ON DELETE CASCADE,
+    FOREIGN KEY (reviewed_by) REFERENCES customer(custid),
+    INDEX idx_review_orderid (orderid),
+    INDEX idx_review_rating (rating)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Notifications table
+CREATE TABLE notifications (
+    Notification_ID INT PRIMARY KEY AUTO_INCREMENT,
+    title VARCHAR(200) NOT NULL,
+    content TEXT NOT NULL,
+    Receiver_ID INT NOT NULL,
+    recipient_type ENUM('customer', 'restaurant') NOT NULL, -- 收件者類型
+    type ENUM('order_update', 'low_stock', 'promotion', 'delivery_alert', 'payment_issue') DEFAULT 'order_update',
+    created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_notif_Receiver_ID (recipient_type, Receiver_ID),
+    INDEX idx_notif_type (type)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
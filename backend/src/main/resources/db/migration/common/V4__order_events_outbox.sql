@@ -0,0 +1,17 @@
+-- Transactional outbox for order events. OrderService inserts a row in the same
+-- transaction as the order change; OrderOutboxService polls undispatched rows
+-- (SELECT ... FOR UPDATE SKIP LOCKED, so several backend nodes can poll together)
+-- and hands them to in-process listeners, at least once.
+CREATE TABLE order_events (
+    event_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    orderid INT NOT NULL,
+    event_type ENUM('order_created', 'status_changed') NOT NULL,
+    old_status ENUM('pending', 'preparing', 'ready', 'out_for_delivery', 'delivered', 'cancelled') NULL,
+    new_status ENUM('pending', 'preparing', 'ready', 'out_for_delivery', 'delivered', 'cancelled') NULL,
+    payload TEXT NOT NULL, -- 訂單 snapshot (JSON)
+    attempts INT NOT NULL DEFAULT 0, -- 派送失敗會重試，到上限就停
+    created_time TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3),
+    dispatched_time TIMESTAMP(3) NULL,
+    -- dispatched_time IS NULL ORDER BY event_id (poll) 同 dispatched_time < ? (清舊紀錄)
+    INDEX idx_order_events_dispatched (dispatched_time, event_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
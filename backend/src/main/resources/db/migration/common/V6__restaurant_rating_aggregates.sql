@@ -0,0 +1,12 @@
+-- Running rating aggregates per restaurant, maintained by ReviewService
+-- (in memory, flushed in batches), so listings never run AVG() over order_reviews.
+-- restaurant.rating keeps the rounded average for existing readers.
+ALTER TABLE restaurant ADD COLUMN rating_sum INT NOT NULL DEFAULT 0;
+ALTER TABLE restaurant ADD COLUMN rating_count INT NOT NULL DEFAULT 0;
+
+-- Backfill from the reviews written so far (also the way to rebuild the aggregates).
+UPDATE restaurant SET
+    rating_sum = (SELECT COALESCE(SUM(r.rating), 0) FROM order_reviews r JOIN orders o ON o.orderid = r.orderid
+                  WHERE o.restid = restaurant.restid),
+    rating_count = (SELECT COUNT(r.rating) FROM order_reviews r JOIN orders o ON o.orderid = r.orderid
+                    WHERE o.restid = restaurant.restid);
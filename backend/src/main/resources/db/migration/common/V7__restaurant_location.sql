@@ -0,0 +1,4 @@
+-- Restaurant coordinates for the directory's distance sort (RestaurantDirectoryService).
+-- Nullable: restaurants registered without a location are listed after the ones with one.
+ALTER TABLE restaurant ADD COLUMN latitude DECIMAL(9,6) NULL;
+ALTER TABLE restaurant ADD COLUMN longitude DECIMAL(9,6) NULL;
@@ -0,0 +1,12 @@
+-- 外賣員 GPS 軌跡（已經 downsample）。RiderLocationService 喺 memory 收齊所有位置，
+-- 每個外賣員每 persist-sample-ms 先寫一點，成批 INSERT。
+-- 寫入量大，唔加 FK 去 delivery_staff，慳每行一次 lookup。
+CREATE TABLE rider_locations (
+    location_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    staff_id INT NOT NULL,
+    latitude DECIMAL(9,6) NOT NULL,
+    longitude DECIMAL(9,6) NOT NULL,
+    recorded_time TIMESTAMP(3) NOT NULL,
+    -- 睇某個外賣員某段時間嘅軌跡
+    INDEX idx_rider_locations_staff_time (staff_id, recorded_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,5 @@
+-- H2 copy of mysql/V2: ADD COLUMN IF NOT EXISTS does the information_schema check.
+ALTER TABLE customer ADD COLUMN IF NOT EXISTS updated_time TIMESTAMP NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE customer ADD COLUMN IF NOT EXISTS deleted_time TIMESTAMP NULL;
+ALTER TABLE restaurant ADD COLUMN IF NOT EXISTS deleted_time TIMESTAMP NULL;
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS created_time TIMESTAMP NULL DEFAULT CURRENT_TIMESTAMP;
@@ -0,0 +1,20 @@
+-- Composite indexes for the OrderRepository / MenuItemsRepository finders.
+-- H2 copy of mysql/V3 without the ALGORITHM/LOCK clauses (tests and load harness only).
+
+-- findByDeliverManId, findByDeliverManIdIsNullAndStatusIn (/api/orders/available):
+-- deliver_man_ID IS NULL is an equality lookup, status IN (...) a range on the second column.
+CREATE INDEX idx_orders_deliver_man_status ON orders (deliver_man_ID, status);
+
+-- findByRestid, findByRestidAndStatus (restaurant order board)
+CREATE INDEX idx_orders_restid_status ON orders (restid, status);
+
+-- findByCustidAndStatus; also serves findByCustid, so the single-column index is dropped
+CREATE INDEX idx_orders_custid_status ON orders (custid, status);
+DROP INDEX idx_orders_custid ON orders;
+
+-- findByRestidAndStatus on menu items (active menu); prefix covers findByRestid
+CREATE INDEX idx_menu_restid_status ON menu_items (restid, status);
+DROP INDEX idx_menu_restid ON menu_items;
+
+-- findByItemId on order_items
+CREATE INDEX idx_oi_item_id ON order_items (item_ID);
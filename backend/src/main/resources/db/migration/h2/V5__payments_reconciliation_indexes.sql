@@ -0,0 +1,4 @@
+-- H2 copy of mysql/V5 without the ALGORITHM/LOCK clauses (tests and load harness only).
+CREATE INDEX idx_payment_ext_ref ON payments (ext_ref_num);
+CREATE INDEX idx_payment_status_invoice ON payments (payment_status, invoiceID);
+DROP INDEX idx_payment_status ON payments;
@@ -0,0 +1,22 @@
+-- H2 copy of mysql/V9. H2 has no stored procedures: the old columns are added when
+-- missing (all NULL, so the copy changes nothing) and dropped again.
+ALTER TABLE customer ADD COLUMN IF NOT EXISTS is_validate BOOLEAN;
+ALTER TABLE customer ADD COLUMN IF NOT EXISTS latest_login_date TIMESTAMP;
+UPDATE customer SET isvalidate = COALESCE(is_validate, isvalidate),
+    latestlogindate = COALESCE(latest_login_date, latestlogindate);
+ALTER TABLE customer DROP COLUMN is_validate;
+ALTER TABLE customer DROP COLUMN latest_login_date;
+
+ALTER TABLE restaurant ADD COLUMN IF NOT EXISTS is_validate BOOLEAN;
+ALTER TABLE restaurant ADD COLUMN IF NOT EXISTS latest_login_date TIMESTAMP;
+UPDATE restaurant SET isvalidate = COALESCE(is_validate, isvalidate),
+    latestlogindate = COALESCE(latest_login_date, latestlogindate);
+ALTER TABLE restaurant DROP COLUMN is_validate;
+ALTER TABLE restaurant DROP COLUMN latest_login_date;
+
+ALTER TABLE delivery_staff ADD COLUMN IF NOT EXISTS is_validate BOOLEAN;
+ALTER TABLE delivery_staff ADD COLUMN IF NOT EXISTS latest_login_date TIMESTAMP;
+UPDATE delivery_staff SET isvalidate = COALESCE(is_validate, isvalidate),
+    latestlogindate = COALESCE(latest_login_date, latestlogindate);
+ALTER TABLE delivery_staff DROP COLUMN is_validate;
+ALTER TABLE delivery_staff DROP COLUMN latest_login_date;
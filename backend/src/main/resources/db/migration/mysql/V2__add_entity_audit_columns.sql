@@ -0,0 +1,25 @@
+-- Columns mapped by the JPA entities but missing from Food_Order_3.sql.
+-- Databases the app already ran against with ddl-auto=update got them on the fly,
+-- so each column is only added when information_schema says it is not there yet
+-- (a plain ADD COLUMN fails with "Duplicate column" on those databases).
+DROP PROCEDURE IF EXISTS add_column_if_missing;
+
+DELIMITER //
+CREATE PROCEDURE add_column_if_missing(IN tbl VARCHAR(64), IN col VARCHAR(64), IN definition VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = DATABASE() AND table_name = tbl AND column_name = col) THEN
+        SET @ddl = CONCAT('ALTER TABLE ', tbl, ' ADD COLUMN ', col, ' ', definition);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+DELIMITER ;
+
+CALL add_column_if_missing('customer', 'updated_time', 'TIMESTAMP NULL DEFAULT CURRENT_TIMESTAMP');
+CALL add_column_if_missing('customer', 'deleted_time', 'TIMESTAMP NULL');
+CALL add_column_if_missing('restaurant', 'deleted_time', 'TIMESTAMP NULL');
+CALL add_column_if_missing('order_items', 'created_time', 'TIMESTAMP NULL DEFAULT CURRENT_TIMESTAMP');
+
+DROP PROCEDURE add_column_if_missing;
@@ -0,0 +1,22 @@
+-- Composite indexes for the OrderRepository / MenuItemsRepository finders.
+-- orders/order_items are the large tables: every index change is in-place with
+-- LOCK=NONE so reads and writes keep going while InnoDB builds the index. MySQL
+-- fails the statement instead of silently falling back to a table copy/lock.
+
+-- findByDeliverManId, findByDeliverManIdIsNullAndStatusIn (/api/orders/available):
+-- deliver_man_ID IS NULL is an equality lookup, status IN (...) a range on the second column.
+CREATE INDEX idx_orders_deliver_man_status ON orders (deliver_man_ID, status) ALGORITHM=INPLACE LOCK=NONE;
+
+-- findByRestid, findByRestidAndStatus (restaurant order board)
+CREATE INDEX idx_orders_restid_status ON orders (restid, status) ALGORITHM=INPLACE LOCK=NONE;
+
+-- findByCustidAndStatus; also serves findByCustid, so the single-column index is dropped
+CREATE INDEX idx_orders_custid_status ON orders (custid, status) ALGORITHM=INPLACE LOCK=NONE;
+DROP INDEX idx_orders_custid ON orders ALGORITHM=INPLACE LOCK=NONE;
+
+-- findByRestidAndStatus on menu items (active menu); prefix covers findByRestid
+CREATE INDEX idx_menu_restid_status ON menu_items (restid, status) ALGORITHM=INPLACE LOCK=NONE;
+DROP INDEX idx_menu_restid ON menu_items ALGORITHM=INPLACE LOCK=NONE;
+
+-- findByItemId on order_items
+CREATE INDEX idx_oi_item_id ON order_items (item_ID) ALGORITHM=INPLACE LOCK=NONE;
@@ -0,0 +1,10 @@
+-- Indexes for PaymentService. payments grows with orders, so every change is
+-- in place without locking writes.
+
+-- Gateway callbacks look payments up by the gateway's reference number.
+CREATE INDEX idx_payment_ext_ref ON payments (ext_ref_num) ALGORITHM=INPLACE LOCK=NONE;
+
+-- Reconciliation walks pending payments in invoiceID order (payment_status = 'pending'
+-- AND invoiceID > ?); the prefix still covers lookups by status alone.
+CREATE INDEX idx_payment_status_invoice ON payments (payment_status, invoiceID) ALGORITHM=INPLACE LOCK=NONE;
+DROP INDEX idx_payment_status ON payments ALGORITHM=INPLACE LOCK=NONE;
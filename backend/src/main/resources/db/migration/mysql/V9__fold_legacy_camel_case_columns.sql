@@ -0,0 +1,33 @@
+-- Before V1 the entities mapped isValidate/latestLoginDate through the camel-case
+-- naming strategy, so ddl-auto=update created is_validate/latest_login_date next to
+-- the isValidate/latestLoginDate columns from Food_Order_3.sql and the app only ever
+-- wrote the new ones. Copy what the app wrote back into the original columns (rows
+-- it never saved are NULL there and keep their value), then drop the extra columns.
+-- Databases that never ran the old app don't have them and are left alone.
+DROP PROCEDURE IF EXISTS fold_legacy_column;
+
+DELIMITER //
+CREATE PROCEDURE fold_legacy_column(IN tbl VARCHAR(64), IN old_col VARCHAR(64), IN new_col VARCHAR(64))
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = tbl AND column_name = old_col) THEN
+        SET @dml = CONCAT('UPDATE ', tbl, ' SET ', new_col, ' = COALESCE(', old_col, ', ', new_col, ')');
+        PREPARE stmt FROM @dml;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+        SET @ddl = CONCAT('ALTER TABLE ', tbl, ' DROP COLUMN ', old_col);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+DELIMITER ;
+
+CALL fold_legacy_column('customer', 'is_validate', 'isValidate');
+CALL fold_legacy_column('customer', 'latest_login_date', 'latestLoginDate');
+CALL fold_legacy_column('restaurant', 'is_validate', 'isValidate');
+CALL fold_legacy_column('restaurant', 'latest_login_date', 'latestLoginDate');
+CALL fold_legacy_column('delivery_staff', 'is_validate', 'isValidate');
+CALL fold_legacy_column('delivery_staff', 'latest_login_date', 'latestLoginDate');
+
+DROP PROCEDURE fold_legacy_column;
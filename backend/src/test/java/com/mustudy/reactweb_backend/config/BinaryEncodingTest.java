@@ -0,0 +1,95 @@
+package com.mustudy.reactweb_backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+
+// 真 Tomcat：gzip 係 connector 做嘅，MockMvc 睇唔到
+@ManualWorkersTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BinaryEncodingTest {
+
+    private static final TypeReference<Map<String, Object>> BODY = new TypeReference<>() { };
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private int restid;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(200);
+        config.restaurants = 2;
+        config.menuItems = 80;
+        config.threads = 1;
+        restid = new SyntheticDataGenerator(dataSource, config).generate().firstRestaurantId;
+    }
+
+    @Test
+    void clientsChooseTheEncodingWithAccept() throws Exception {
+        HttpResponse<byte[]> json = get("/api/menu/restaurant/" + restid, "*/*", null);
+        assertThat(json.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).startsWith("application/json"));
+        Map<String, Object> fromJson = JSON.readValue(json.body(), BODY);
+
+        HttpResponse<byte[]> cbor = get("/api/menu/restaurant/" + restid, "application/cbor", null);
+        assertThat(cbor.headers().firstValue("Content-Type")).hasValue("application/cbor");
+        assertThat(asJson(new CBORMapper().readValue(cbor.body(), BODY))).isEqualTo(fromJson);
+
+        HttpResponse<byte[]> smile = get("/api/menu/restaurant/" + restid, "application/x-jackson-smile", null);
+        assertThat(smile.headers().firstValue("Content-Type")).hasValue("application/x-jackson-smile");
+        assertThat(asJson(new SmileMapper().readValue(smile.body(), BODY))).isEqualTo(fromJson);
+
+        assertThat(cbor.body().length).isLessThan(json.body().length);
+        assertThat(smile.body().length).isLessThan(cbor.body().length);
+    }
+
+    @Test
+    void largeJsonIsGzippedWhenTheClientAsks() throws Exception {
+        HttpResponse<byte[]> plain = get("/api/menu/restaurant/" + restid, "application/json", null);
+        assertThat(plain.headers().firstValue("Content-Encoding")).isEmpty();
+
+        HttpResponse<byte[]> gzip = get("/api/menu/restaurant/" + restid, "application/json", "gzip");
+        assertThat(gzip.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(gzip.body().length).isLessThan(plain.body().length / 2);
+    }
+
+    // binary 格式保留 BigDecimal 嘅 scale（22.50），經 JSON 行一轉先同 JSON 版比較
+    private static Map<String, Object> asJson(Map<String, Object> decoded) throws Exception {
+        return JSON.readValue(JSON.writeValueAsBytes(decoded), BODY);
+    }
+
+    private HttpResponse<byte[]> get(String path, String accept, String acceptEncoding) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", accept);
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
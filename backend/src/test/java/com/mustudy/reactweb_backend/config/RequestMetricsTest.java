@@ -0,0 +1,39 @@
+package com.mustudy.reactweb_backend.config;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class RequestMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusScrapeContainsLatencyHistogramAndSqlCounts() throws Exception {
+        mockMvc.perform(get("/api/menu/restaurant/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/orders/999999")).andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/menu/restaurant/{restid}\"")))
+                .andExpect(content().string(containsString("outcome=\"CLIENT_ERROR\",status=\"400\",uri=\"/api/orders/{orderid}\"")))
+                .andExpect(content().string(containsString(
+                        "http_server_requests_sql_statements_count{method=\"GET\",uri=\"/api/menu/restaurant/{restid}\"} 1")))
+                // 一個 request，成個菜單一句 SELECT
+                .andExpect(content().string(containsString(
+                        "http_server_requests_sql_statements_sum{method=\"GET\",uri=\"/api/menu/restaurant/{restid}\"} 1.0")));
+    }
+}
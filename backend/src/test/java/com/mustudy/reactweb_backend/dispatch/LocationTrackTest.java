@@ -0,0 +1,84 @@
+package com.mustudy.reactweb_backend.dispatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class LocationTrackTest {
+
+    @Test
+    void keepsTheNewestPointsInOrderAfterWrapping() {
+        LocationTrack track = new LocationTrack(4);
+        for (int i = 1; i <= 10; i++) {
+            assertThat(track.add(i * 1000L, 22.3 + i * 0.001, 114.1)).isTrue();
+        }
+        List<Long> times = new ArrayList<>();
+        track.forEachSince(Long.MIN_VALUE, (time, latitude, longitude) -> times.add(time));
+        assertThat(times).containsExactly(7000L, 8000L, 9000L, 10000L);
+
+        times.clear();
+        assertThat(track.forEachSince(8000L, (time, latitude, longitude) -> times.add(time))).isEqualTo(2);
+        assertThat(times).containsExactly(9000L, 10000L);
+
+        double[] latest = new double[2];
+        assertThat(track.latest((time, latitude, longitude) -> {
+            latest[0] = latitude;
+            latest[1] = longitude;
+        })).isTrue();
+        assertThat(latest[0]).isCloseTo(22.31, offset(1e-6));
+        assertThat(latest[1]).isCloseTo(114.1, offset(1e-6));
+    }
+
+    @Test
+    void rejectsOutOfOrderAndRepeatedPoints() {
+        LocationTrack track = new LocationTrack(8);
+        assertThat(track.latest((time, latitude, longitude) -> { })).isFalse();
+        assertThat(track.add(5000, 22.3, 114.1)).isTrue();
+        assertThat(track.add(5000, 22.3, 114.1)).isFalse();
+        assertThat(track.add(4000, 22.3, 114.1)).isFalse();
+        assertThat(track.add(6000, 22.3, 114.1)).isTrue();
+        assertThat(track.forEachSince(Long.MIN_VALUE, (time, latitude, longitude) -> { })).isEqualTo(2);
+    }
+
+    @Test
+    void drainSamplesOnePointPerIntervalAndNeverRepeats() {
+        LocationTrack track = new LocationTrack(64);
+        // 每 5 秒一點，每 30 秒寫一點
+        for (long t = 0; t < 60_000; t += 5_000) {
+            track.add(t, 22.3, 114.1);
+        }
+        List<Long> samples = new ArrayList<>();
+        track.drainSamples(30_000, (time, latitude, longitude) -> samples.add(time));
+        assertThat(samples).containsExactly(0L, 30_000L);
+        track.commitDrain();
+
+        assertThat(track.drainSamples(30_000, (time, latitude, longitude) -> samples.add(time))).isZero();
+
+        for (long t = 60_000; t < 90_000; t += 5_000) {
+            track.add(t, 22.3, 114.1);
+        }
+        track.drainSamples(30_000, (time, latitude, longitude) -> samples.add(time));
+        assertThat(samples).containsExactly(0L, 30_000L, 60_000L);
+    }
+
+    @Test
+    void uncommittedDrainIsHandedOutAgain() {
+        LocationTrack track = new LocationTrack(64);
+        for (long t = 0; t < 60_000; t += 5_000) {
+            track.add(t, 22.3, 114.1);
+        }
+        List<Long> samples = new ArrayList<>();
+        track.drainSamples(30_000, (time, latitude, longitude) -> samples.add(time));
+        // 寫 DB 失敗冇 commit：下次同一批點再交出嚟
+        track.add(60_000, 22.3, 114.1);
+        track.drainSamples(30_000, (time, latitude, longitude) -> samples.add(time));
+        assertThat(samples).containsExactly(0L, 30_000L, 0L, 30_000L, 60_000L);
+
+        track.commitDrain();
+        assertThat(track.drainSamples(30_000, (time, latitude, longitude) -> samples.add(time))).isZero();
+    }
+}
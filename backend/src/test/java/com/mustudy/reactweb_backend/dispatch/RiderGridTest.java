@@ -0,0 +1,74 @@
+package com.mustudy.reactweb_backend.dispatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RiderGridTest {
+
+    @Test
+    void nearestMatchesBruteForce() {
+        RiderGrid grid = new RiderGrid();
+        Random random = new Random(3);
+        double[][] positions = new double[3000][];
+        for (int id = 1; id < positions.length; id++) {
+            positions[id] = new double[] { 22.2 + random.nextDouble() * 0.3, 113.9 + random.nextDouble() * 0.4 };
+            grid.update(id, positions[id][0], positions[id][1], 1000);
+        }
+        // 有啲外賣員郁過（換咗格），有啲收咗工
+        for (int id = 1; id < 300; id++) {
+            positions[id] = new double[] { 22.2 + random.nextDouble() * 0.3, 113.9 + random.nextDouble() * 0.4 };
+            grid.update(id, positions[id][0], positions[id][1], 2000);
+        }
+        for (int id = 300; id < 400; id++) {
+            grid.remove(id);
+            positions[id] = null;
+        }
+        assertThat(grid.size()).isEqualTo(positions.length - 1 - 100);
+
+        for (int q = 0; q < 50; q++) {
+            double lat = 22.2 + random.nextDouble() * 0.3;
+            double lng = 113.9 + random.nextDouble() * 0.4;
+            double maxKm = 1 + random.nextInt(5);
+            List<RiderGrid.Candidate> expected = new ArrayList<>();
+            for (int id = 1; id < positions.length; id++) {
+                if (positions[id] != null && id % 7 != 0) {
+                    double distance = RiderGrid.distanceKm(lat, lng, positions[id][0], positions[id][1]);
+                    if (distance <= maxKm) {
+                        expected.add(new RiderGrid.Candidate(id, distance));
+                    }
+                }
+            }
+            expected.sort(Comparator.comparingDouble(RiderGrid.Candidate::distanceKm));
+
+            List<RiderGrid.Candidate> nearest = grid.nearest(lat, lng, maxKm, 10, 0, id -> id % 7 != 0);
+
+            assertThat(nearest).isEqualTo(expected.subList(0, Math.min(10, expected.size())));
+        }
+    }
+
+    @Test
+    void staleLocationsAreSkipped() {
+        RiderGrid grid = new RiderGrid();
+        grid.update(1, 22.30, 114.17, 1000);
+        grid.update(2, 22.301, 114.171, 5000);
+        assertThat(grid.nearest(22.30, 114.17, 1, 5, 2000, id -> true))
+                .extracting(RiderGrid.Candidate::riderId).containsExactly(2);
+    }
+
+    @Test
+    void olderUpdateDoesNotReplaceNewerPosition() {
+        RiderGrid grid = new RiderGrid();
+        grid.update(1, 22.30, 114.17, 5000);
+        grid.update(1, 22.40, 114.27, 3000);
+        assertThat(grid.positionOf(1).updatedAt()).isEqualTo(5000);
+        assertThat(grid.nearest(22.30, 114.17, 1, 5, 0, id -> true))
+                .extracting(RiderGrid.Candidate::riderId).containsExactly(1);
+        assertThat(grid.nearest(22.40, 114.27, 1, 5, 0, id -> true)).isEmpty();
+    }
+}
@@ -0,0 +1,105 @@
+package com.mustudy.reactweb_backend.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import com.mustudy.reactweb_backend.models.MenuItems;
+import com.mustudy.reactweb_backend.repositories.CustomerRepository;
+import com.mustudy.reactweb_backend.repositories.MenuItemsRepository;
+import com.mustudy.reactweb_backend.repositories.RestaurantRepository;
+
+/**
+ * Throughput / p99 comparison of {@code /api/orders/create} and
+ * {@code /api/menu/restaurant/{restid}} against a slow H2 datasource.
+ * Tomcat is capped at a small platform thread pool so the difference to
+ * virtual threads is visible. Run with {@code mvn test -Pload-test}
+ * (add {@code -Pjava21} on a JDK 21 to include the virtual thread run).
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=16",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "load.datasource.delay-ms=25"
+})
+@Import(SlowDataSourceConfiguration.class)
+abstract class AbstractWebTierLoadTest {
+
+    static final int WORKERS = 64;
+    static final int ITERATIONS = 30;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    RestaurantRepository restaurantRepository;
+
+    @Autowired
+    MenuItemsRepository menuItemsRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    LoadTestData data;
+
+    final LoadDriver driver = new LoadDriver();
+
+    abstract String mode();
+
+    @BeforeEach
+    void seed() {
+        data = LoadTestData.seed(restaurantRepository, menuItemsRepository, customerRepository, 4, 10, WORKERS);
+    }
+
+    @Test
+    void menuByRestaurant() throws Exception {
+        LatencyRecorder recorder = driver.run(mode() + " GET /api/menu/restaurant/{restid}", WORKERS, ITERATIONS,
+                (client, worker, i) -> HttpRequest.newBuilder(
+                        uri("/api/menu/restaurant/" + data.restaurantIds.get((worker + i) % data.restaurantIds.size())))
+                        .GET().build());
+
+        assertThat(recorder.getErrors()).isZero();
+        assertThat(recorder.getCount()).isEqualTo(WORKERS * ITERATIONS);
+    }
+
+    @Test
+    void createOrder() throws Exception {
+        LatencyRecorder recorder = driver.run(mode() + " POST /api/orders/create", WORKERS, ITERATIONS,
+                (client, worker, i) -> {
+                    Integer custid = data.customerIds.get(worker);
+                    MenuItems item = data.menuItems.get((worker + i) % data.menuItems.size());
+                    // 落單前先加購物車（唔計時）
+                    HttpResponse<Void> added = client.send(HttpRequest.newBuilder(uri("/api/cart/add?userId=" + custid))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                                    "{\"itemId\":%d,\"itemName\":\"%s\",\"quantity\":1,\"price\":%s}",
+                                    item.getItemId(), item.getItemName(), item.getPrice())))
+                            .build(), HttpResponse.BodyHandlers.discarding());
+                    assertThat(added.statusCode()).isEqualTo(200);
+
+                    return HttpRequest.newBuilder(uri("/api/orders/create"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                                    "{\"custid\":%d,\"restid\":%d,\"shippingAddress\":\"Load St\"}",
+                                    custid, item.getRestid())))
+                            .build();
+                });
+
+        assertThat(recorder.getErrors()).isZero();
+        assertThat(recorder.getCount()).isEqualTo(WORKERS * ITERATIONS);
+    }
+
+    URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
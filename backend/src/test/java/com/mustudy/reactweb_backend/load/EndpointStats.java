@@ -0,0 +1,42 @@
+package com.mustudy.reactweb_backend.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+
+/**
+ * Per-endpoint counters and latency histogram for duration-based runs where
+ * the request count is not known up front.
+ */
+public class EndpointStats {
+    private final String name;
+    private final ConcurrentHistogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+    private final LongAdder failures = new LongAdder();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public void record(long nanos, boolean success) {
+        latency.recordValue(Math.min(nanos, latency.getHighestTrackableValue()));
+        if (!success) {
+            failures.increment();
+        }
+    }
+
+    public long getCount() { return latency.getTotalCount(); }
+
+    public long getFailures() { return failures.sum(); }
+
+    public double percentileMillis(double p) {
+        return latency.getValueAtPercentile(p) / 1_000_000.0;
+    }
+
+    public String summary(double seconds) {
+        long count = getCount();
+        return String.format("%-28s requests=%-7d throughput=%8.1f req/s p50=%8.2fms p99=%8.2fms failed=%d (%.2f%%)",
+                name, count, count / seconds, percentileMillis(50), percentileMillis(99),
+                getFailures(), count == 0 ? 0 : 100.0 * getFailures() / count);
+    }
+}
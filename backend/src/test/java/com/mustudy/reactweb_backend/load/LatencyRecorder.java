@@ -0,0 +1,55 @@
+package com.mustudy.reactweb_backend.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects per-request latencies (nanoseconds) into a pre-sized array so the
+ * measured loop does not allocate.
+ */
+public class LatencyRecorder {
+    private final String name;
+    private final long[] samples;
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicLong errors = new AtomicLong();
+
+    public LatencyRecorder(String name, int capacity) {
+        this.name = name;
+        this.samples = new long[capacity];
+    }
+
+    public void record(long nanos, boolean success) {
+        int i = count.getAndIncrement();
+        if (i < samples.length) {
+            samples[i] = nanos;
+        }
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    public String getName() { return name; }
+
+    public int getCount() { return Math.min(count.get(), samples.length); }
+
+    public long getErrors() { return errors.get(); }
+
+    /** Percentile in milliseconds, e.g. {@code percentile(99)}. */
+    public double percentile(double p) {
+        int n = getCount();
+        if (n == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, n);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(p / 100.0 * n) - 1;
+        return sorted[Math.max(0, Math.min(index, n - 1))] / 1_000_000.0;
+    }
+
+    public String summary(long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        return String.format("%-40s requests=%d errors=%d throughput=%.1f req/s p50=%.2fms p99=%.2fms",
+                name, getCount(), getErrors(), getCount() / seconds, percentile(50), percentile(99));
+    }
+}
@@ -0,0 +1,69 @@
+package com.mustudy.reactweb_backend.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load generator: {@code workers} client threads each send
+ * {@code iterations} requests back to back and record latency.
+ */
+public class LoadDriver {
+
+    /** Builds the request for one iteration; may perform untimed setup calls first. */
+    public interface RequestFactory {
+        HttpRequest create(HttpClient client, int worker, int iteration) throws Exception;
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public HttpClient getClient() {
+        return client;
+    }
+
+    public LatencyRecorder run(String name, int workers, int iterations, RequestFactory factory) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder(name, workers * iterations);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int w = 0; w < workers; w++) {
+                final int worker = w;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        HttpRequest request = factory.create(client, worker, i);
+                        long begin = System.nanoTime();
+                        boolean success;
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            success = response.statusCode() < 400;
+                        } catch (Exception e) {
+                            success = false;
+                        }
+                        recorder.record(System.nanoTime() - begin, success);
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            System.out.println(recorder.summary(System.nanoTime() - begin));
+            return recorder;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.mustudy.reactweb_backend.load;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mustudy.reactweb_backend.models.Customer;
+import com.mustudy.reactweb_backend.models.MenuItems;
+import com.mustudy.reactweb_backend.models.Restaurant;
+import com.mustudy.reactweb_backend.repositories.CustomerRepository;
+import com.mustudy.reactweb_backend.repositories.MenuItemsRepository;
+import com.mustudy.reactweb_backend.repositories.RestaurantRepository;
+
+/**
+ * Seeds a small fixed catalogue (restaurants, active menu items, customers)
+ * through the normal repositories.
+ */
+public class LoadTestData {
+    // "password123"
+    public static final String PASS_HASH_1 = "648357a04407e0a73fe201d9aad9bec165cbf63b6db4311b28f7e256b214a0725e45069c0162232d31412580255c461e";
+    public static final String PASS_HASH_2 = "ef92b778bafe771e89245b89ecbc08a44a4e166c06659911881f383d4473e94f";
+
+    public final List<Integer> restaurantIds = new ArrayList<>();
+    public final List<Integer> customerIds = new ArrayList<>();
+    public final List<MenuItems> menuItems = new ArrayList<>();
+
+    public static LoadTestData seed(RestaurantRepository restaurantRepository,
+            MenuItemsRepository menuItemsRepository,
+            CustomerRepository customerRepository,
+            int restaurants, int itemsPerRestaurant, int customers) {
+        LoadTestData data = new LoadTestData();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        for (int r = 0; r < restaurants; r++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setRestname("Load Restaurant " + r);
+            restaurant.setEmail("load-rest-" + r + "-" + System.nanoTime() + "@restaurant.com");
+            restaurant.setPassHash1(PASS_HASH_1);
+            restaurant.setPassHash2(PASS_HASH_2);
+            restaurant.setCreatedTime(now);
+            Integer restid = restaurantRepository.save(restaurant).getRestid();
+            data.restaurantIds.add(restid);
+
+            for (int i = 0; i < itemsPerRestaurant; i++) {
+                MenuItems item = new MenuItems();
+                item.setRestid(restid);
+                item.setCategory(i % 2 == 0 ? "Dim Sum" : "Main Course");
+                item.setItemName("Item " + r + "-" + i);
+                item.setDescription("Load test item");
+                item.setPrice(BigDecimal.valueOf(20 + i));
+                item.setStatus(MenuItems.ItemStatus.active);
+                item.setCreatedTime(now);
+                data.menuItems.add(menuItemsRepository.save(item));
+            }
+        }
+
+        for (int c = 0; c < customers; c++) {
+            Customer customer = new Customer();
+            customer.setCustname("Load Customer " + c);
+            customer.setEmail("load-cust-" + c + "-" + System.nanoTime() + "@email.com");
+            customer.setPassHash1(PASS_HASH_1);
+            customer.setPassHash2(PASS_HASH_2);
+            customer.setCreatedTime(now);
+            data.customerIds.add(customerRepository.save(customer).getCustid());
+        }
+        return data;
+    }
+}
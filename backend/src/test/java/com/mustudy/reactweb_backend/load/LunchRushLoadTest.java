@@ -0,0 +1,59 @@
+package com.mustudy.reactweb_backend.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.mustudy.reactweb_backend.repositories.CustomerRepository;
+import com.mustudy.reactweb_backend.repositories.MenuItemsRepository;
+import com.mustudy.reactweb_backend.repositories.RestaurantRepository;
+
+/**
+ * Runs {@link LunchRushSimulation} against the backend on H2.
+ * {@code mvn test -Pload-test -Dtest=LunchRushLoadTest}
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:lunch_rush;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=20"
+})
+class LunchRushLoadTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    RestaurantRepository restaurantRepository;
+
+    @Autowired
+    MenuItemsRepository menuItemsRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Test
+    void lunchRush() throws Exception {
+        LoadTestData data = LoadTestData.seed(restaurantRepository, menuItemsRepository, customerRepository, 10, 20, 0);
+
+        LunchRushSimulation.Config config = new LunchRushSimulation.Config();
+        config.baseUrl = "http://localhost:" + port;
+        config.restaurantIds = data.restaurantIds;
+        config.duration = Duration.ofSeconds(Long.getLong("loadtest.seconds", 30));
+        config.customers = Integer.getInteger("loadtest.customers", 100);
+
+        Map<String, EndpointStats> stats = new LunchRushSimulation(config).run();
+
+        assertThat(stats.get("POST /orders/create").getCount()).isPositive();
+        assertThat(stats.get("POST /orders/create").getFailures()).isZero();
+        assertThat(stats.get("GET /menu/restaurant").getFailures()).isZero();
+        assertThat(stats.get("PUT /orders/ready").getCount()).isPositive();
+        assertThat(stats.get("PUT /orders/complete").getCount()).isPositive();
+    }
+}
@@ -0,0 +1,291 @@
+package com.mustudy.reactweb_backend.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Lunch-rush traffic model against a running backend:
+ * <ul>
+ * <li>customers browse {@code /api/menu/restaurant/{restid}}, fill a cart via
+ * {@code /api/cart/add} and check out via {@code /api/orders/create}</li>
+ * <li>restaurants move new orders to {@code preparing} and then call {@code /ready}</li>
+ * <li>riders poll {@code /available}, {@code /accept} an order and {@code /complete} it</li>
+ * </ul>
+ * Customer think time follows a ramp-up / peak / taper curve over the run.
+ * Customers and riders register themselves through {@code /api/auth/register};
+ * the restaurants must already have active menu items.
+ *
+ * <p>Against a local backend (MySQL or H2):
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.mustudy.reactweb_backend.load.LunchRushSimulation
+ * -Dexec.args="http://localhost:8080 1,2 120"} (base URL, restaurant ids, seconds).
+ */
+public class LunchRushSimulation {
+
+    public static class Config {
+        public String baseUrl = "http://localhost:8080";
+        public List<Integer> restaurantIds = List.of(1, 2);
+        public Duration duration = Duration.ofSeconds(60);
+        public int customers = 100;
+        public int restaurantWorkers = 8;
+        public int riders = 30;
+        public Duration customerThinkTime = Duration.ofMillis(500);
+        public Duration prepTime = Duration.ofMillis(300);
+        public Duration deliveryTime = Duration.ofMillis(500);
+        public Duration riderPollInterval = Duration.ofMillis(250);
+    }
+
+    static final String[] ENDPOINTS = {
+            "GET /menu/restaurant", "POST /cart/add", "POST /orders/create", "PUT /orders/status",
+            "PUT /orders/ready", "GET /orders/available", "PUT /orders/accept", "PUT /orders/complete"
+    };
+
+    private final Config config;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final BlockingQueue<Integer> newOrders = new LinkedBlockingQueue<>();
+    private final Map<Integer, List<JsonNode>> menus = new ConcurrentHashMap<>();
+    private long startNanos;
+    private long endNanos;
+
+    public LunchRushSimulation(Config config) {
+        this.config = config;
+        for (String endpoint : ENDPOINTS) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    public Map<String, EndpointStats> run() throws Exception {
+        for (Integer restid : config.restaurantIds) {
+            JsonNode body = mapper.readTree(send(get("/api/menu/restaurant/" + restid)).body());
+            List<JsonNode> items = new ArrayList<>();
+            body.path("menuItems").forEach(items::add);
+            if (!items.isEmpty()) {
+                menus.put(restid, items);
+            }
+        }
+        if (menus.isEmpty()) {
+            throw new IllegalStateException("No active menu items for restaurants " + config.restaurantIds);
+        }
+        List<Integer> customerIds = register("customer", config.customers, "custid");
+        List<Integer> riderIds = register("delivery", config.riders, "staffId");
+
+        ExecutorService pool = Executors.newFixedThreadPool(customerIds.size() + config.restaurantWorkers + riderIds.size());
+        List<Future<?>> actors = new ArrayList<>();
+        startNanos = System.nanoTime();
+        endNanos = startNanos + config.duration.toNanos();
+        try {
+            for (Integer custid : customerIds) {
+                actors.add(pool.submit(() -> customer(custid)));
+            }
+            for (int i = 0; i < config.restaurantWorkers; i++) {
+                actors.add(pool.submit(this::restaurant));
+            }
+            for (Integer riderId : riderIds) {
+                actors.add(pool.submit(() -> rider(riderId)));
+            }
+            for (Future<?> actor : actors) {
+                actor.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        report();
+        return stats;
+    }
+
+    private Void customer(Integer custid) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Integer> restaurants = new ArrayList<>(menus.keySet());
+        while (running()) {
+            Integer restid = restaurants.get(random.nextInt(restaurants.size()));
+            timed("GET /menu/restaurant", get("/api/menu/restaurant/" + restid));
+            think(config.customerThinkTime);
+
+            if (!running()) {
+                break;
+            }
+
+            List<JsonNode> menu = menus.get(restid);
+            int items = 1 + random.nextInt(3);
+            for (int i = 0; i < items; i++) {
+                JsonNode item = menu.get(random.nextInt(menu.size()));
+                timed("POST /cart/add", post("/api/cart/add?userId=" + custid, Map.of(
+                        "itemId", item.path("itemId").asInt(),
+                        "itemName", item.path("itemName").asText(),
+                        "quantity", 1 + random.nextInt(2),
+                        "price", item.path("price").decimalValue())));
+            }
+            think(config.customerThinkTime);
+            if (!running()) {
+                // 時間到就唔再落單，購物車留低
+                break;
+            }
+
+            HttpResponse<String> created = timed("POST /orders/create", post("/api/orders/create", Map.of(
+                    "custid", custid, "restid", restid, "shippingAddress", "Lunch Rush St")));
+            if (created != null && created.statusCode() == 200) {
+                newOrders.add(mapper.readTree(created.body()).path("order").path("orderId").asInt());
+            }
+            think(config.customerThinkTime);
+        }
+        return null;
+    }
+
+    private Void restaurant() throws Exception {
+        while (running()) {
+            Integer orderid = newOrders.poll(100, TimeUnit.MILLISECONDS);
+            if (orderid == null) {
+                continue;
+            }
+            timed("PUT /orders/status", put("/api/orders/" + orderid + "/status", Map.of("status", "preparing")));
+            sleep(config.prepTime);
+            timed("PUT /orders/ready", put("/api/orders/" + orderid + "/ready", Map.of()));
+        }
+        return null;
+    }
+
+    private Void rider(Integer riderId) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running()) {
+            HttpResponse<String> available = timed("GET /orders/available", get("/api/orders/available"));
+            JsonNode orders = available == null ? null : mapper.readTree(available.body()).path("orders");
+            if (orders == null || orders.isEmpty()) {
+                sleep(config.riderPollInterval);
+                continue;
+            }
+            int orderid = orders.get(random.nextInt(orders.size())).path("orderid").asInt();
+            HttpResponse<String> accepted = timed("PUT /orders/accept",
+                    put("/api/orders/" + orderid + "/accept", Map.of("deliveryManId", riderId)));
+            if (accepted != null && accepted.statusCode() == 200) {
+                sleep(config.deliveryTime);
+                timed("PUT /orders/complete", put("/api/orders/" + orderid + "/complete", Map.of()));
+            }
+        }
+        return null;
+    }
+
+    private List<Integer> register(String userType, int count, String idField) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        long run = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> request = new LinkedHashMap<>();
+            request.put("userType", userType);
+            request.put("name", "Lunch " + userType + " " + i);
+            request.put("email", "lunch-" + userType + "-" + run + "-" + i + "@load.test");
+            request.put("password", "password123");
+            request.put("addressLine1", "Lunch Rush St");
+            request.put("vehicleType", "bike");
+            HttpResponse<String> response = send(post("/api/auth/register", request));
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Register " + userType + " failed: " + response.body());
+            }
+            ids.add(mapper.readTree(response.body()).path(idField).asInt());
+        }
+        return ids;
+    }
+
+    // 午市曲線：頭 20% ramp up，中間 50% peak，最後 30% 慢慢回落；think time 按流量倍數縮放
+    double trafficMultiplier() {
+        double progress = (double) (System.nanoTime() - startNanos) / (endNanos - startNanos);
+        if (progress < 0.2) {
+            return 0.2 + 0.8 * progress / 0.2;
+        }
+        if (progress < 0.7) {
+            return 1.0;
+        }
+        return Math.max(0.2, 1.0 - 0.8 * (progress - 0.7) / 0.3);
+    }
+
+    private void think(Duration base) throws InterruptedException {
+        long millis = (long) (base.toMillis() / trafficMultiplier());
+        sleep(Duration.ofMillis(ThreadLocalRandom.current().nextLong(millis / 2, millis + 1)));
+    }
+
+    private void sleep(Duration duration) throws InterruptedException {
+        long remaining = TimeUnit.NANOSECONDS.toMillis(endNanos - System.nanoTime());
+        Thread.sleep(Math.max(0, Math.min(duration.toMillis(), remaining)));
+    }
+
+    private boolean running() {
+        return System.nanoTime() < endNanos;
+    }
+
+    private HttpResponse<String> timed(String endpoint, HttpRequest request) {
+        long begin = System.nanoTime();
+        HttpResponse<String> response = null;
+        try {
+            response = send(request);
+        } catch (Exception e) {
+            // 連線錯誤都計做 failed
+        }
+        stats.get(endpoint).record(System.nanoTime() - begin, response != null && response.statusCode() < 400);
+        return response;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(config.baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) throws Exception {
+        return HttpRequest.newBuilder(URI.create(config.baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private HttpRequest put(String path, Object body) throws Exception {
+        return HttpRequest.newBuilder(URI.create(config.baseUrl + path))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private void report() {
+        double seconds = config.duration.toMillis() / 1000.0;
+        System.out.printf("Lunch rush: %d customers, %d restaurant workers, %d riders, %.0fs%n",
+                config.customers, config.restaurantWorkers, config.riders, seconds);
+        stats.values().forEach(s -> System.out.println(s.summary(seconds)));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = new Config();
+        if (args.length > 0) {
+            config.baseUrl = args[0];
+        }
+        if (args.length > 1) {
+            config.restaurantIds = Arrays.stream(args[1].split(",")).map(Integer::valueOf).toList();
+        }
+        if (args.length > 2) {
+            config.duration = Duration.ofSeconds(Long.parseLong(args[2]));
+        }
+        if (args.length > 3) {
+            config.customers = Integer.parseInt(args[3]);
+        }
+        new LunchRushSimulation(config).run();
+    }
+}
@@ -0,0 +1,15 @@
+package com.mustudy.reactweb_backend.load;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:load_platform;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+class PlatformThreadLoadTest extends AbstractWebTierLoadTest {
+
+    @Override
+    String mode() {
+        return "[platform]";
+    }
+}
@@ -0,0 +1,53 @@
+package com.mustudy.reactweb_backend.load;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Wraps the H2 datasource so every connection checkout blocks for
+ * {@code load.datasource.delay-ms}, simulating a slow database moment.
+ */
+@TestConfiguration
+public class SlowDataSourceConfiguration {
+
+    @Bean
+    static BeanPostProcessor slowDataSourcePostProcessor(@Value("${load.datasource.delay-ms:20}") long delayMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SlowDataSource)) {
+                    return new SlowDataSource(dataSource, delayMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static class SlowDataSource extends DelegatingDataSource {
+        private final long delayMs;
+
+        SlowDataSource(DataSource target, long delayMs) {
+            super(target);
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while simulating a slow datasource", e);
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package com.mustudy.reactweb_backend.load;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Bulk generator for the food_order_system schema: restaurants, menu items,
+ * customers (+ default address), riders, orders, order_items and one payment
+ * per order.
+ * <ul>
+ * <li>ids are assigned up front from {@code MAX(id) + 1}, so worker threads
+ * can insert disjoint order ranges without reading generated keys</li>
+ * <li>every table is written with batched {@code PreparedStatement}s and a
+ * commit per batch; on MySQL add {@code rewriteBatchedStatements=true}</li>
+ * <li>restaurant and customer activity is skewed (a few busy restaurants /
+ * regulars), items per order 1-5, order times cluster around lunch and dinner
+ * over the last 90 days, most historic orders delivered</li>
+ * <li>about 30% of payments are cash on delivery; payment status follows the
+ * order (delivered = paid, cancelled = failed/refunded, recent = pending)</li>
+ * </ul>
+ * Only columns that exist both in {@code Food_Order_3.sql} and in the JPA
+ * mappings are written, so it also runs on the H2 test schema.
+ *
+ * <p>{@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.mustudy.reactweb_backend.load.SyntheticDataGenerator
+ * -Dexec.args="jdbc:mysql://localhost:3306/food_order_system?rewriteBatchedStatements=true root '' 1000000"}
+ * (url, user, password, orders).
+ */
+public class SyntheticDataGenerator {
+
+    public static class Config {
+        public int restaurants = 2_000;
+        public int menuItems = 40_000;
+        public int customers = 100_000;
+        public int riders = 2_000;
+        public int orders = 1_000_000;
+        public int batchSize = 1_000;
+        public int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        public long seed = 42;
+
+        /** 按訂單數量按比例縮細其他 table */
+        public static Config forOrders(int orders) {
+            Config config = new Config();
+            config.orders = orders;
+            config.customers = Math.max(10, orders / 10);
+            config.restaurants = Math.max(5, orders / 500);
+            config.menuItems = config.restaurants * 20;
+            config.riders = Math.max(5, orders / 500);
+            return config;
+        }
+    }
+
+    public static class Result {
+        public int firstRestaurantId;
+        public int firstCustomerId;
+        public int firstRiderId;
+        public int firstOrderId;
+        public int firstItemId;
+        public int firstPaymentId;
+        public long orderItems;
+        public long elapsedMillis;
+
+        @Override
+        public String toString() {
+            return String.format("generated orders from id %d, %d order_items in %d ms", firstOrderId, orderItems, elapsedMillis);
+        }
+    }
+
+    static final String[] CATEGORIES = { "Dim Sum", "Main Course", "Noodles", "Rice", "Dessert", "Drinks", "Snacks", "Soup" };
+    static final String[] DISHES = { "Har Gow", "Siu Mai", "Char Siu Bao", "Beef Noodles", "Chicken Rice", "Wonton Soup",
+            "Egg Tart", "Milk Tea", "Fried Rice", "Curry Fish Balls", "Char Siu Rice", "Roast Goose", "Congee",
+            "Spring Rolls", "Mango Pudding", "Lemon Tea", "Dan Dan Noodles", "Mapo Tofu", "Pineapple Bun", "Cheung Fun" };
+    static final String[] STATUS = { "pending", "preparing", "ready", "out_for_delivery", "delivered", "cancelled" };
+    static final long DAY = 86_400_000L;
+
+    private final DataSource dataSource;
+    private final Config config;
+
+    // 每間餐廳嘅菜式 id 範圍 [itemStart[r], itemStart[r + 1]) 同價錢（cent），避免每張單都 query
+    private int[] itemStart;
+    private int[] itemPriceCents;
+    private int[] restaurantCdf;
+
+    public SyntheticDataGenerator(DataSource dataSource, Config config) {
+        this.dataSource = dataSource;
+        this.config = config;
+    }
+
+    public Result generate() throws Exception {
+        long begin = System.currentTimeMillis();
+        Result result = new Result();
+        try (Connection connection = dataSource.getConnection()) {
+            result.firstRestaurantId = nextId(connection, "restaurant", "restid");
+            result.firstCustomerId = nextId(connection, "customer", "custid");
+            result.firstRiderId = nextId(connection, "delivery_staff", "staff_id");
+            result.firstItemId = nextId(connection, "menu_items", "item_ID");
+            result.firstOrderId = nextId(connection, "orders", "orderid");
+        }
+        int firstAddressId;
+        int firstOrderItemId;
+        try (Connection connection = dataSource.getConnection()) {
+            firstAddressId = nextId(connection, "customer_addresses", "addressid");
+            firstOrderItemId = nextId(connection, "order_items", "orderitemid");
+            result.firstPaymentId = nextId(connection, "payments", "invoiceID");
+        }
+
+        insertRestaurants(result.firstRestaurantId);
+        insertMenuItems(result.firstRestaurantId, result.firstItemId);
+        insertCustomers(result.firstCustomerId, firstAddressId);
+        insertRiders(result.firstRiderId);
+        result.orderItems = insertOrders(result, firstAddressId, firstOrderItemId);
+
+        try (Connection connection = dataSource.getConnection()) {
+            restartIdentities(connection);
+        }
+        result.elapsedMillis = System.currentTimeMillis() - begin;
+        return result;
+    }
+
+    private void insertRestaurants(int firstId) throws SQLException {
+        SplittableRandom random = new SplittableRandom(config.seed);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        batch("INSERT INTO restaurant (restid, restname, email, description, rating, rating_sum, rating_count, address,"
+                + " latitude, longitude, pass_hash_1, pass_hash_2, created_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                config.restaurants, (ps, i) -> {
+                    int id = firstId + i;
+                    // 平均 1.0-5.0 分，評價數 0-199
+                    int ratingCount = random.nextInt(200);
+                    int ratingSum = ratingCount == 0 ? 0 : ratingCount + random.nextInt(4 * ratingCount + 1);
+                    ps.setInt(1, id);
+                    ps.setString(2, "Restaurant " + id);
+                    ps.setString(3, "rest" + id + "@synthetic.test");
+                    ps.setString(4, CATEGORIES[i % CATEGORIES.length] + " specialist");
+                    ps.setInt(5, ratingCount == 0 ? 3 : Math.round((float) ratingSum / ratingCount));
+                    ps.setInt(6, ratingSum);
+                    ps.setInt(7, ratingCount);
+                    ps.setString(8, "District " + (i % 18) + ", HK");
+                    // 大約香港範圍
+                    ps.setBigDecimal(9, BigDecimal.valueOf(22_200_000 + random.nextInt(300_000), 6));
+                    ps.setBigDecimal(10, BigDecimal.valueOf(113_900_000 + random.nextInt(400_000), 6));
+                    ps.setString(11, LoadTestData.PASS_HASH_1);
+                    ps.setString(12, LoadTestData.PASS_HASH_2);
+                    ps.setTimestamp(13, now);
+                });
+
+        // 餐廳熱門程度 Zipf-like：排頭嘅餐廳多好多單
+        restaurantCdf = new int[config.restaurants];
+        double total = 0;
+        double[] weights = new double[config.restaurants];
+        for (int r = 0; r < config.restaurants; r++) {
+            weights[r] = 1.0 / Math.pow(r + 1, 0.8);
+            total += weights[r];
+        }
+        double running = 0;
+        for (int r = 0; r < config.restaurants; r++) {
+            running += weights[r];
+            restaurantCdf[r] = (int) (running / total * Integer.MAX_VALUE);
+        }
+    }
+
+    private void insertMenuItems(int firstRestaurantId, int firstItemId) throws SQLException {
+        SplittableRandom random = new SplittableRandom(config.seed + 1);
+        // 每間餐廳菜式數量唔平均（平均 menuItems / restaurants，最少 1 個）
+        itemStart = new int[config.restaurants + 1];
+        int average = Math.max(1, config.menuItems / config.restaurants);
+        for (int r = 0; r < config.restaurants; r++) {
+            int count = r == config.restaurants - 1
+                    ? Math.max(1, config.menuItems - itemStart[r])
+                    : Math.max(1, average / 2 + random.nextInt(average + 1));
+            itemStart[r + 1] = itemStart[r] + count;
+        }
+        int total = itemStart[config.restaurants];
+        itemPriceCents = new int[total];
+        int[] restaurantOf = new int[total];
+        for (int r = 0; r < config.restaurants; r++) {
+            for (int i = itemStart[r]; i < itemStart[r + 1]; i++) {
+                restaurantOf[i] = r;
+                itemPriceCents[i] = (15 + random.nextInt(150)) * 100 + (random.nextBoolean() ? 50 : 0);
+            }
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        batch("INSERT INTO menu_items (item_ID, restid, category, item_name, description, price, status, created_time)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)", total, (ps, i) -> {
+                    String dish = DISHES[random.nextInt(DISHES.length)];
+                    ps.setInt(1, firstItemId + i);
+                    ps.setInt(2, firstRestaurantId + restaurantOf[i]);
+                    ps.setString(3, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                    ps.setString(4, dish + " " + (i - itemStart[restaurantOf[i]] + 1));
+                    ps.setString(5, "House special " + dish.toLowerCase());
+                    ps.setBigDecimal(6, BigDecimal.valueOf(itemPriceCents[i], 2));
+                    int status = random.nextInt(100);
+                    ps.setString(7, status < 90 ? "active" : status < 95 ? "out_of_stock" : "inactive");
+                    ps.setTimestamp(8, now);
+                });
+    }
+
+    private void insertCustomers(int firstId, int firstAddressId) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        batch("INSERT INTO customer (custid, custname, phone, email, pass_hash_1, pass_hash_2, created_time)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?)", config.customers, (ps, i) -> {
+                    int id = firstId + i;
+                    ps.setInt(1, id);
+                    ps.setString(2, "Customer " + id);
+                    ps.setString(3, String.valueOf(50_000_000 + id));
+                    ps.setString(4, "cust" + id + "@synthetic.test");
+                    ps.setString(5, LoadTestData.PASS_HASH_1);
+                    ps.setString(6, LoadTestData.PASS_HASH_2);
+                    ps.setTimestamp(7, now);
+                });
+        batch("INSERT INTO customer_addresses (addressid, custid, address_line1, city, postal_code, country, is_default)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?)", config.customers, (ps, i) -> {
+                    ps.setInt(1, firstAddressId + i);
+                    ps.setInt(2, firstId + i);
+                    ps.setString(3, (i % 300 + 1) + " Synthetic Road");
+                    ps.setString(4, "District " + (i % 18));
+                    ps.setString(5, "999077");
+                    ps.setString(6, "Hong Kong");
+                    ps.setBoolean(7, true);
+                });
+    }
+
+    private void insertRiders(int firstId) throws SQLException {
+        String[] vehicles = { "bike", "scooter", "car", "van" };
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        batch("INSERT INTO delivery_staff (staff_id, name, phone, email, pass_hash_1, pass_hash_2, vehicle_type, license_number, status, created_time)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", config.riders, (ps, i) -> {
+                    int id = firstId + i;
+                    ps.setInt(1, id);
+                    ps.setString(2, "Rider " + id);
+                    ps.setString(3, String.valueOf(60_000_000 + id));
+                    ps.setString(4, "rider" + id + "@synthetic.test");
+                    ps.setString(5, LoadTestData.PASS_HASH_1);
+                    ps.setString(6, LoadTestData.PASS_HASH_2);
+                    ps.setString(7, vehicles[i % vehicles.length]);
+                    ps.setString(8, "SYN" + id);
+                    ps.setString(9, i % 10 == 0 ? "inactive" : "active");
+                    ps.setTimestamp(10, now);
+                });
+    }
+
+    private long insertOrders(Result result, int firstAddressId, int firstOrderItemId) throws Exception {
+        int threads = Math.max(1, Math.min(config.threads, config.orders / Math.max(1, config.batchSize) + 1));
+        int perThread = (config.orders + threads - 1) / threads;
+        // order_items id 按每張單最多 5 個預留，唔同 thread 唔會撞
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int from = t * perThread;
+            int to = Math.min(config.orders, from + perThread);
+            long seed = config.seed + 100 + t;
+            futures.add(pool.submit(() -> insertOrderRange(result, firstAddressId, firstOrderItemId, from, to, seed)));
+        }
+        long items = 0;
+        try {
+            for (Future<Long> future : futures) {
+                items += future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return items;
+    }
+
+    private long insertOrderRange(Result result, int firstAddressId, int firstOrderItemId, int from, int to, long seed)
+            throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long now = System.currentTimeMillis();
+        long items = 0;
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement orders = connection.prepareStatement(
+                        "INSERT INTO orders (orderid, custid, restid, addressid, shipping_address, deliver_man_ID, start_deliver_time,"
+                                + " end_deliver_time, status, total_amount, discount_amount, created_time)"
+                                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                PreparedStatement orderItems = connection.prepareStatement(
+                        "INSERT INTO order_items (orderitemid, orderid, item_ID, quantity, price) VALUES (?, ?, ?, ?, ?)");
+                PreparedStatement payments = connection.prepareStatement(
+                        "INSERT INTO payments (invoiceID, orderid, payment_method, ext_ref_num, receive_amount, payment_status,"
+                                + " created_time) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            connection.setAutoCommit(false);
+            for (int i = from; i < to; i++) {
+                int orderid = result.firstOrderId + i;
+                int r = pickRestaurant(random);
+                // 熟客效應：細 id 嘅 customer 落單多
+                int c = (int) (config.customers * Math.pow(random.nextDouble(), 2.5));
+                long created = orderTime(random, now);
+                String status = orderStatus(random, now - created);
+
+                int lines = 1 + random.nextInt(5);
+                long totalCents = 0;
+                int menuSize = itemStart[r + 1] - itemStart[r];
+                for (int l = 0; l < lines; l++) {
+                    int item = itemStart[r] + (int) (menuSize * Math.pow(random.nextDouble(), 2));
+                    int quantity = random.nextInt(10) < 8 ? 1 : 2 + random.nextInt(3);
+                    totalCents += (long) itemPriceCents[item] * quantity;
+                    orderItems.setLong(1, firstOrderItemId + (long) i * 5 + l);
+                    orderItems.setInt(2, orderid);
+                    orderItems.setInt(3, result.firstItemId + item);
+                    orderItems.setInt(4, quantity);
+                    orderItems.setBigDecimal(5, BigDecimal.valueOf(itemPriceCents[item], 2));
+                    orderItems.addBatch();
+                    items++;
+                }
+
+                orders.setInt(1, orderid);
+                orders.setInt(2, result.firstCustomerId + c);
+                orders.setInt(3, result.firstRestaurantId + r);
+                orders.setInt(4, firstAddressId + c);
+                orders.setString(5, (c % 300 + 1) + " Synthetic Road, HK");
+                boolean assigned = status.equals("out_for_delivery") || status.equals("delivered");
+                if (assigned) {
+                    long start = created + (10 + random.nextInt(25)) * 60_000L;
+                    orders.setInt(6, result.firstRiderId + random.nextInt(config.riders));
+                    orders.setTimestamp(7, new Timestamp(start));
+                    orders.setTimestamp(8, status.equals("delivered")
+                            ? new Timestamp(start + (8 + random.nextInt(35)) * 60_000L) : null);
+                } else {
+                    orders.setNull(6, java.sql.Types.INTEGER);
+                    orders.setTimestamp(7, null);
+                    orders.setTimestamp(8, null);
+                }
+                orders.setString(9, status);
+                orders.setBigDecimal(10, BigDecimal.valueOf(totalCents, 2));
+                long discountCents = random.nextInt(10) == 0 ? Math.min(500, totalCents) : 0;
+                orders.setBigDecimal(11, BigDecimal.valueOf(discountCents, 2));
+                orders.setTimestamp(12, new Timestamp(created));
+                orders.addBatch();
+
+                int invoiceId = result.firstPaymentId + i;
+                String method = paymentMethod(random);
+                payments.setInt(1, invoiceId);
+                payments.setInt(2, orderid);
+                payments.setString(3, method);
+                payments.setString(4, method.equals("cash_on_delivery") ? null : "SYN-" + invoiceId);
+                payments.setBigDecimal(5, BigDecimal.valueOf(totalCents - discountCents, 2));
+                payments.setString(6, paymentStatus(random, status, method));
+                payments.setTimestamp(7, new Timestamp(created));
+                payments.addBatch();
+
+                if ((i - from + 1) % config.batchSize == 0) {
+                    orders.executeBatch();
+                    orderItems.executeBatch();
+                    payments.executeBatch();
+                    connection.commit();
+                }
+            }
+            orders.executeBatch();
+            orderItems.executeBatch();
+            payments.executeBatch();
+            connection.commit();
+        }
+        return items;
+    }
+
+    private int pickRestaurant(SplittableRandom random) {
+        int u = random.nextInt(Integer.MAX_VALUE);
+        int lo = 0;
+        int hi = restaurantCdf.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (restaurantCdf[mid] < u) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // 過去 90 日，集中喺午市 (12-14) 同晚市 (18-21)
+    static long orderTime(SplittableRandom random, long now) {
+        long dayStart = (now / DAY - random.nextInt(90)) * DAY;
+        int peak = random.nextInt(10);
+        double hour = peak < 4 ? 12 + random.nextDouble() * 2
+                : peak < 8 ? 18 + random.nextDouble() * 3
+                : random.nextDouble() * 24;
+        return Math.min(now - 60_000, dayStart + (long) (hour * 3_600_000L));
+    }
+
+    // 舊單大部分已送達；最近一個鐘嘅單先會仲喺 pending / preparing / ready / out_for_delivery
+    static String orderStatus(SplittableRandom random, long age) {
+        if (age > 3_600_000L) {
+            return random.nextInt(100) < 94 ? "delivered" : "cancelled";
+        }
+        return STATUS[random.nextInt(STATUS.length)];
+    }
+
+    static String paymentMethod(SplittableRandom random) {
+        int p = random.nextInt(10);
+        return p < 3 ? "cash_on_delivery" : p < 7 ? "credit_card" : p < 9 ? "paypal" : "debit_card";
+    }
+
+    // 送達 = 已付；取消 = 網上付咗就退款、貨到付款就 failed；未完成嘅網上付款大部分已付，貨到付款仲 pending
+    static String paymentStatus(SplittableRandom random, String orderStatus, String method) {
+        boolean cod = method.equals("cash_on_delivery");
+        switch (orderStatus) {
+            case "delivered":
+                return "paid";
+            case "cancelled":
+                return cod || random.nextBoolean() ? "failed" : "refunded";
+            default:
+                return cod || random.nextInt(10) < 2 ? "pending" : "paid";
+        }
+    }
+
+    private interface Row {
+        void bind(PreparedStatement ps, int index) throws SQLException;
+    }
+
+    private void batch(String sql, int rows, Row row) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < rows; i++) {
+                row.bind(ps, i);
+                ps.addBatch();
+                if ((i + 1) % config.batchSize == 0) {
+                    ps.executeBatch();
+                    connection.commit();
+                }
+            }
+            ps.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private static int nextId(Connection connection, String table, String column) throws SQLException {
+        try (Statement st = connection.createStatement();
+                ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    // MySQL 嘅 AUTO_INCREMENT 會自己跟；H2 identity 要手動 restart，否則之後 JPA insert 會撞 id
+    private static void restartIdentities(Connection connection) throws SQLException {
+        if (!connection.getMetaData().getDatabaseProductName().toLowerCase().contains("h2")) {
+            return;
+        }
+        String[][] identities = { { "restaurant", "restid" }, { "menu_items", "item_ID" }, { "customer", "custid" },
+                { "customer_addresses", "addressid" }, { "delivery_staff", "staff_id" }, { "orders", "orderid" },
+                { "order_items", "orderitemid" }, { "payments", "invoiceID" } };
+        for (String[] identity : identities) {
+            int next = nextId(connection, identity[0], identity[1]);
+            try (Statement st = connection.createStatement()) {
+                st.execute("ALTER TABLE " + identity[0] + " ALTER COLUMN " + identity[1] + " RESTART WITH " + next);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: SyntheticDataGenerator <jdbc-url> <user> [password] [orders]");
+            return;
+        }
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(args[0], args[1], args.length > 2 ? args[2] : "");
+        Config config = Config.forOrders(args.length > 3 ? Integer.parseInt(args[3]) : 1_000_000);
+        System.out.println(new SyntheticDataGenerator(dataSource, config).generate());
+    }
+}
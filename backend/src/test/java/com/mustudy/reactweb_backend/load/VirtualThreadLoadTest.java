@@ -0,0 +1,19 @@
+package com.mustudy.reactweb_backend.load;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+@ActiveProfiles("virtual-threads")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:load_virtual;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+class VirtualThreadLoadTest extends AbstractWebTierLoadTest {
+
+    @Override
+    String mode() {
+        return "[virtual]";
+    }
+}
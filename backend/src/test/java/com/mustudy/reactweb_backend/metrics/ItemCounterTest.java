@@ -0,0 +1,40 @@
+package com.mustudy.reactweb_backend.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ItemCounterTest {
+
+    @Test
+    void countsMatchAHashMapThroughResizes() {
+        ItemCounter counter = new ItemCounter();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int seq = 1; seq <= 10_000; seq++) {
+            int itemId = 1 + random.nextInt(500);
+            int quantity = 1 + random.nextInt(3);
+            counter.add(itemId, quantity, seq);
+            expected.merge(itemId, quantity, Integer::sum);
+        }
+        assertThat(counter.size()).isEqualTo(expected.size());
+        expected.forEach((itemId, count) -> assertThat(counter.count(itemId)).isEqualTo(count));
+        assertThat(counter.count(501)).isZero();
+    }
+
+    @Test
+    void topOrdersByCountThenRecency() {
+        ItemCounter counter = new ItemCounter();
+        counter.add(10, 2, 1);
+        counter.add(20, 5, 2);
+        counter.add(30, 2, 3);
+        counter.add(40, 1, 4);
+        // 10 同 30 都係 2 份，30 最近叫過排先
+        assertThat(counter.top(3)).containsExactly(20, 5, 30, 2, 10, 2);
+        assertThat(counter.top(10)).hasSize(8);
+    }
+}
@@ -0,0 +1,25 @@
+package com.mustudy.reactweb_backend.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class RollingAverageTest {
+
+    @Test
+    void averagesOnlyTheLatestSamples() {
+        RollingAverage average = new RollingAverage(3);
+        assertThat(average.mean()).isNaN();
+        assertThat(average.size()).isZero();
+
+        average.add(10);
+        average.add(20);
+        assertThat(average.mean()).isEqualTo(15.0);
+
+        average.add(30);
+        average.add(70);
+        // 10 已經被擠走：(20 + 30 + 70) / 3
+        assertThat(average.mean()).isEqualTo(40.0);
+        assertThat(average.size()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,31 @@
+package com.mustudy.reactweb_backend.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class RollingCounterTest {
+
+    @Test
+    void seriesAndSumRollOverOldBuckets() {
+        RollingCounter counter = new RollingCounter(3, 1000);
+        counter.increment(0);
+        counter.increment(1000);
+        counter.increment(1500);
+        assertThat(counter.series(1999, 3)).containsExactly(0L, 1L, 2L);
+        assertThat(counter.sum(3500, 3)).isEqualTo(2L);
+        counter.increment(3500);
+        assertThat(counter.series(3500, 3)).containsExactly(2L, 0L, 1L);
+    }
+
+    @Test
+    void lateIncrementsGoToTheirOwnSlotAndTooOldOnesAreIgnored() {
+        RollingCounter counter = new RollingCounter(3, 1000);
+        counter.increment(5500);
+        // 遲咗先到，但仲喺 window 入面：計返落 4000 嗰格
+        counter.increment(4200);
+        // 同 5500 用同一格但舊過佢：唔可以清咗新嘅數
+        counter.increment(2200);
+        assertThat(counter.series(5500, 3)).containsExactly(0L, 1L, 1L);
+    }
+}
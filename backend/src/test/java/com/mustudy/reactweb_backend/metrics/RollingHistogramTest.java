@@ -0,0 +1,39 @@
+package com.mustudy.reactweb_backend.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class RollingHistogramTest {
+
+    @Test
+    void bucketUpperBoundCoversEveryValue() {
+        for (long v = 0; v < 100_000; v++) {
+            int bucket = RollingHistogram.bucketOf(v);
+            assertThat(RollingHistogram.upperBound(bucket)).isGreaterThanOrEqualTo(v);
+            if (bucket > 0) {
+                assertThat(RollingHistogram.upperBound(bucket - 1)).isLessThan(v);
+            }
+        }
+    }
+
+    @Test
+    void percentilesAndWindowExpiry() {
+        RollingHistogram histogram = new RollingHistogram(5, 1000);
+        for (int v = 1; v <= 100; v++) {
+            histogram.record(10_000, v);
+        }
+        Map<String, Object> snapshot = histogram.snapshot(10_500, 5);
+        assertThat(snapshot.get("count")).isEqualTo(100L);
+        assertThat(snapshot.get("max")).isEqualTo(100L);
+        assertThat((long) snapshot.get("p50")).isBetween(50L, 63L);
+        assertThat((long) snapshot.get("p99")).isBetween(99L, 100L);
+
+        // 超出 window 之後唔再計
+        assertThat(histogram.snapshot(15_000, 5).get("count")).isEqualTo(0L);
+        histogram.record(15_000, 7);
+        assertThat(histogram.snapshot(15_000, 5).get("count")).isEqualTo(1L);
+    }
+}
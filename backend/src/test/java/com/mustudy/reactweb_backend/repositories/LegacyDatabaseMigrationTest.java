@@ -0,0 +1,67 @@
+package com.mustudy.reactweb_backend.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * 用 Food_Order_3.sql 建、之前用 ddl-auto=update 跑過嘅舊 database：baseline 做 V1 之後
+ * 要 migrate 得到，app 寫落 is_validate / latest_login_date 嘅值唔可以唔見，
+ * 最後嘅 columns 要同全新 migrate 嘅 database 一樣（咁 ddl-auto=validate 先過到）。
+ */
+class LegacyDatabaseMigrationTest {
+
+    private static final List<String> TABLES = List.of("customer", "restaurant", "delivery_staff", "order_items");
+
+    @Test
+    void baselinedLegacyDatabaseMigratesAndKeepsAppWrittenValues() {
+        DataSource legacy = dataSource();
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/common/V1__baseline_schema.sql"),
+                new ClassPathResource("db/legacy/ddl_auto_update_columns.sql")).execute(legacy);
+
+        flyway(legacy).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        JdbcTemplate jdbc = new JdbcTemplate(legacy);
+        Map<String, Object> frozen = jdbc.queryForMap("SELECT isvalidate, latestlogindate FROM customer WHERE custid = 1");
+        assertThat(frozen.get("isvalidate")).isEqualTo(false);
+        assertThat(frozen.get("latestlogindate")).isEqualTo(Timestamp.valueOf("2025-03-01 12:00:00"));
+        Map<String, Object> untouched = jdbc.queryForMap("SELECT isvalidate, latestlogindate FROM customer WHERE custid = 2");
+        assertThat(untouched.get("isvalidate")).isEqualTo(false);
+        assertThat(untouched.get("latestlogindate")).isEqualTo(Timestamp.valueOf("2024-01-01 08:00:00"));
+        assertThat(jdbc.queryForObject("SELECT isvalidate FROM restaurant WHERE restid = 1", Boolean.class)).isFalse();
+        assertThat(jdbc.queryForObject("SELECT isvalidate FROM delivery_staff WHERE staff_id = 1", Boolean.class)).isFalse();
+
+        DataSource fresh = dataSource();
+        flyway(fresh).load().migrate();
+        for (String table : TABLES) {
+            assertThat(columns(legacy, table)).as(table).isEqualTo(columns(fresh, table));
+        }
+    }
+
+    private static DataSource dataSource() {
+        return new DriverManagerDataSource("jdbc:h2:mem:legacy_" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static org.flywaydb.core.api.configuration.FluentConfiguration flyway(DataSource dataSource) {
+        return Flyway.configure().dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2");
+    }
+
+    private static List<String> columns(DataSource dataSource, String table) {
+        return new JdbcTemplate(dataSource).queryForList("SELECT column_name FROM information_schema.columns"
+                + " WHERE table_schema = 'public' AND table_name = ? ORDER BY column_name", String.class, table);
+    }
+}
@@ -0,0 +1,85 @@
+package com.mustudy.reactweb_backend.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+/**
+ * mysql/ 入面嘅 index DDL 一定要 online (ALGORITHM=INPLACE, LOCK=NONE)，
+ * 而且 mysql/ 同 h2/ 要有同一套 version，唔係 H2 測試就驗唔到 MySQL 嗰份 schema。
+ */
+class MigrationScriptsTest {
+
+    private static final Pattern INDEX_DDL = Pattern.compile(
+            "\\b(CREATE\\s+(UNIQUE\\s+)?INDEX|DROP\\s+INDEX|ADD\\s+(UNIQUE\\s+)?(INDEX|KEY))\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    @Test
+    void mysqlIndexChangesAreOnline() throws IOException {
+        List<String> offline = new ArrayList<>();
+        for (Resource script : resolver.getResources("classpath:db/migration/mysql/*.sql")) {
+            for (String statement : statements(script)) {
+                if (INDEX_DDL.matcher(statement).find()
+                        && !(statement.contains("ALGORITHM=INPLACE") && statement.contains("LOCK=NONE"))) {
+                    offline.add(script.getFilename() + ": " + statement);
+                }
+            }
+        }
+        assertThat(offline).isEmpty();
+    }
+
+    @Test
+    void vendorFoldersHaveTheSameVersions() throws IOException {
+        assertThat(filenames("mysql")).isNotEmpty();
+        assertThat(filenames("h2")).isEqualTo(filenames("mysql"));
+    }
+
+    @Test
+    void commonScriptsHaveNoIndexChanges() throws IOException {
+        for (Resource script : resolver.getResources("classpath:db/migration/common/V*.sql")) {
+            if ("V1__baseline_schema.sql".equals(script.getFilename())) {
+                continue; // 建 table 時嘅 index 唔使 online
+            }
+            for (String statement : statements(script)) {
+                assertThat(INDEX_DDL.matcher(statement).find()).as(script.getFilename() + ": " + statement).isFalse();
+            }
+        }
+    }
+
+    private Set<String> filenames(String vendor) throws IOException {
+        Set<String> names = new TreeSet<>();
+        for (Resource script : resolver.getResources("classpath:db/migration/" + vendor + "/*.sql")) {
+            names.add(script.getFilename());
+        }
+        return names;
+    }
+
+    private static List<String> statements(Resource script) throws IOException {
+        StringBuilder sql = new StringBuilder();
+        for (String line : script.getContentAsString(StandardCharsets.UTF_8).split("\n")) {
+            String trimmed = line.strip();
+            if (!trimmed.startsWith("--")) {
+                sql.append(trimmed).append(' ');
+            }
+        }
+        List<String> statements = new ArrayList<>();
+        for (String statement : sql.toString().split(";")) {
+            if (!statement.isBlank()) {
+                statements.add(statement.strip().replaceAll("\\s+", " ").toUpperCase());
+            }
+        }
+        return statements;
+    }
+}
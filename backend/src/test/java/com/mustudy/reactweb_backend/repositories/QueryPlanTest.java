@@ -0,0 +1,66 @@
+package com.mustudy.reactweb_backend.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+
+/**
+ * 用 Flyway 建出嚟嘅 schema 加兩萬張單，逐條 EXPLAIN 熱門 query，
+ * 確保 index 冇俾人改走之後變返 full table scan。
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:query_plan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbc;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(20_000);
+        config.threads = 2;
+        new SyntheticDataGenerator(dataSource, config).generate();
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("ANALYZE");
+    }
+
+    // 對應 OrderRepository / MenuItemsRepository / NotificationRepository / PaymentRepository / DeliveryRepository 嘅 query、付款對數、ETA warm-up 同人氣菜式 watermark
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT * FROM orders WHERE deliver_man_ID IS NULL AND status IN ('ready')",
+            "SELECT * FROM orders WHERE deliver_man_ID = 5",
+            "SELECT * FROM orders WHERE restid = 7 AND status = 'preparing'",
+            "SELECT * FROM orders WHERE custid = 11 AND status = 'delivered'",
+            "SELECT * FROM orders WHERE custid = 11",
+            "SELECT * FROM menu_items WHERE restid = 3 AND status = 'active'",
+            "SELECT * FROM order_items WHERE orderid = 100",
+            "SELECT * FROM order_items WHERE item_ID = 42",
+            "SELECT * FROM notifications WHERE recipient_type = 'customer' AND Receiver_ID = 11 "
+                    + "AND Notification_ID < 5000 ORDER BY Notification_ID DESC LIMIT 20",
+            "SELECT * FROM payments WHERE orderid = 100",
+            "SELECT * FROM deliveries WHERE orderid = 100 ORDER BY deliveryid DESC LIMIT 1",
+            "SELECT restid, start_deliver_time, end_deliver_time FROM orders "
+                    + "WHERE start_deliver_time >= DATEADD('DAY', -14, CURRENT_TIMESTAMP) AND end_deliver_time IS NOT NULL",
+            "UPDATE payments SET payment_status = 'paid' WHERE ext_ref_num = 'SYN-100' AND payment_status = 'pending'",
+            "SELECT p.invoiceID, o.status FROM payments p JOIN orders o ON o.orderid = p.orderid "
+                    + "WHERE p.payment_status = 'pending' AND p.invoiceID > 0 ORDER BY p.invoiceID LIMIT 1000",
+            "SELECT oi.orderitemid, oi.item_ID, oi.quantity, o.restid, o.custid, o.status FROM order_items oi "
+                    + "JOIN orders o ON o.orderid = oi.orderid WHERE oi.orderitemid > 5000 ORDER BY oi.orderitemid LIMIT 10000"
+    })
+    void hotQueriesUseAnIndex(String sql) {
+        String plan = jdbc.queryForObject("EXPLAIN " + sql, String.class);
+        assertThat(plan).as(plan).doesNotContainIgnoringCase("tableScan");
+    }
+}
@@ -0,0 +1,45 @@
+package com.mustudy.reactweb_backend.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AutocompleteIndexTest {
+
+    private final AutocompleteIndex index = new AutocompleteIndex.Builder()
+            .add(dish("Char Siu Rice", 120))
+            .add(dish("Char Siu Bao", 300))
+            .add(dish("Chicken Rice", 500))
+            .add(dish("Cheung Fun", 80))
+            .add(dish("叉燒飯", 200))
+            .add(new AutocompleteIndex.Suggestion(AutocompleteIndex.RESTAURANT, "Charlie's Noodles", 7, 50))
+            .build();
+
+    @Test
+    void mostPopularFirstForAnyWordPrefix() {
+        assertThat(texts("ch", 10)).containsExactly("Chicken Rice", "Char Siu Bao", "Char Siu Rice", "Cheung Fun",
+                "Charlie's Noodles");
+        assertThat(texts("CHAR  s", 10)).containsExactly("Char Siu Bao", "Char Siu Rice");
+        // 唔係第一個字開頭都搵到
+        assertThat(texts("ri", 10)).containsExactly("Chicken Rice", "Char Siu Rice");
+        assertThat(texts("燒", 10)).containsExactly("叉燒飯");
+    }
+
+    @Test
+    void limitAndEmptyPrefix() {
+        assertThat(texts("ch", 2)).containsExactly("Chicken Rice", "Char Siu Bao");
+        assertThat(texts("  ", 5)).isEmpty();
+        assertThat(texts("xyz", 5)).isEmpty();
+        assertThat(index.complete("charlie", 5).get(0).restid()).isEqualTo(7);
+    }
+
+    private static AutocompleteIndex.Suggestion dish(String name, long popularity) {
+        return new AutocompleteIndex.Suggestion(AutocompleteIndex.DISH, name, null, popularity);
+    }
+
+    private List<String> texts(String prefix, int limit) {
+        return index.complete(prefix, limit).stream().map(AutocompleteIndex.Suggestion::text).toList();
+    }
+}
@@ -0,0 +1,64 @@
+package com.mustudy.reactweb_backend.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class MenuSearchIndexTest {
+
+    private final MenuSearchIndex index = new MenuSearchIndex.Builder()
+            .add(item(1, 10, "Char Siu Rice", "Rice", "BBQ pork on rice"))
+            .add(item(2, 10, "Chicken Rice", "Rice", "Hainan style"))
+            .add(item(3, 11, "Beef Noodles", "Noodles", "Braised beef brisket"))
+            .add(item(4, 11, "Wonton Soup", "Soup", "Shrimp wontons with char siu"))
+            .add(item(5, 12, "叉燒飯", "飯類", "蜜汁叉燒"))
+            .add(item(6, 12, "Chicken Wings", "Snacks", null))
+            .build();
+
+    @Test
+    void everyWordMustMatchAndNameBeatsDescription() {
+        // 4 號嘅 char siu 喺描述，分數低過名入面有嘅 1 號
+        assertThat(ids(index.search("char siu", 10, doc -> true))).containsExactly(1, 4);
+        assertThat(ids(index.search("char noodles", 10, doc -> true))).isEmpty();
+    }
+
+    @Test
+    void lastWordIsPrefixWhileTyping() {
+        assertThat(ids(index.search("chick", 10, doc -> true))).containsExactlyInAnyOrder(2, 6);
+        assertThat(ids(index.search("beef noo", 10, doc -> true))).containsExactly(3);
+        // 打完個字（有空格）就唔再當 prefix
+        assertThat(ids(index.search("chick ", 10, doc -> true))).isEmpty();
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertThat(ids(index.search("chiken rice", 10, doc -> true))).containsExactly(2);
+        assertThat(ids(index.search("wontn soup", 10, doc -> true))).containsExactly(4);
+        assertThat(MenuSearchIndex.withinEdits("noodles", "nodles", 1)).isTrue();
+        assertThat(MenuSearchIndex.withinEdits("noodles", "needles", 1)).isFalse();
+    }
+
+    @Test
+    void chineseIsMatchedPerCharacter() {
+        assertThat(MenuSearchIndex.tokenize("叉燒飯 Rice")).containsExactly("叉", "燒", "飯", "rice");
+        assertThat(ids(index.search("叉燒", 10, doc -> true))).containsExactly(5);
+    }
+
+    @Test
+    void filterAndLimitApplyBeforeTopK() {
+        assertThat(ids(index.search("rice", 10, doc -> index.restidOf(doc) == 10))).containsExactlyInAnyOrder(1, 2);
+        assertThat(ids(index.search("rice", 10, doc -> index.itemIdOf(doc) != 1))).containsExactly(2);
+        assertThat(index.search("rice", 1, doc -> true)).hasSize(1);
+    }
+
+    private static MenuSearchIndex.Item item(int id, int restid, String name, String category, String description) {
+        return new MenuSearchIndex.Item(id, restid, name, category, description, BigDecimal.TEN);
+    }
+
+    private static List<Integer> ids(List<MenuSearchIndex.Hit> hits) {
+        return hits.stream().map(MenuSearchIndex.Hit::itemId).toList();
+    }
+}
@@ -0,0 +1,76 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+import com.mustudy.reactweb_backend.dto.AutocompleteSuggestion;
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+
+@ManualWorkersTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AutocompleteServiceTest {
+
+    // 同名菜式（唔理大細楷）叫過嘅總份數，只計 active
+    private static final String DISH_COUNTS_SQL = "SELECT LOWER(mi.item_name) AS name, SUM(oi.quantity) AS total"
+            + " FROM order_items oi JOIN menu_items mi ON mi.item_ID = oi.item_ID WHERE mi.status = 'active'"
+            + " AND LOWER(mi.item_name) LIKE 'char siu%' GROUP BY LOWER(mi.item_name) ORDER BY total DESC";
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(2000);
+        config.restaurants = 20;
+        config.menuItems = config.restaurants * 20;
+        config.threads = 1;
+        new SyntheticDataGenerator(dataSource, config).generate();
+        autocompleteService.rebuild();
+    }
+
+    @Test
+    void dishPopularityComesFromOrderItems() {
+        List<Map<String, Object>> expected = jdbcTemplate.queryForList(DISH_COUNTS_SQL);
+
+        List<AutocompleteSuggestion> suggestions = autocompleteService.complete("char siu", 20).stream()
+                .filter(s -> s.getType().equals("dish")).toList();
+
+        assertThat(suggestions).isNotEmpty();
+        AutocompleteSuggestion top = suggestions.get(0);
+        assertThat(top.getPopularity()).isEqualTo(((Number) expected.get(0).get("total")).longValue());
+        assertThat(suggestions).isSortedAccordingTo((a, b) -> Long.compare(b.getPopularity(), a.getPopularity()));
+    }
+
+    @Test
+    void newOrderItemsAreAddedOnRebuild() {
+        AutocompleteSuggestion before = autocompleteService.complete("char siu", 1).get(0);
+        Integer itemId = jdbcTemplate.queryForObject("SELECT MIN(item_ID) FROM menu_items WHERE status = 'active'"
+                + " AND LOWER(item_name) = ?", Integer.class, before.getText().toLowerCase());
+        Integer orderid = jdbcTemplate.queryForObject("SELECT MIN(orderid) FROM orders", Integer.class);
+        jdbcTemplate.update("INSERT INTO order_items (orderid, item_ID, quantity, price) VALUES (?, ?, 5, 10)",
+                orderid, itemId);
+
+        autocompleteService.rebuild();
+
+        AutocompleteSuggestion after = autocompleteService.complete(before.getText(), 1).get(0);
+        assertThat(after.getText()).isEqualTo(before.getText());
+        assertThat(after.getPopularity()).isEqualTo(before.getPopularity() + 5);
+    }
+}
@@ -0,0 +1,99 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+
+@ManualWorkersTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.minimum-idle=2",
+        // 等 connection 嘅 thread 要等夠耐，test 先有時間喺佢哋 timeout 之前睇到 pending = 3
+        "spring.datasource.hikari.connection-timeout=3000"
+})
+class ConnectionPoolSaturationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ConnectionPoolService connectionPoolService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saturatedPoolReportsPendingThreadsAndTimeouts() throws Exception {
+        List<Connection> held = new ArrayList<>();
+        ExecutorService waiters = Executors.newFixedThreadPool(3);
+        try {
+            held.add(dataSource.getConnection());
+            held.add(dataSource.getConnection());
+
+            List<Future<?>> blocked = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                blocked.add(waiters.submit(() -> {
+                    try (Connection c = dataSource.getConnection()) {
+                        return null;
+                    }
+                }));
+            }
+
+            long deadline = System.currentTimeMillis() + 2000;
+            while ((int) connectionPoolService.getPoolStats().get("pending") < 3
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Map<String, Object> stats = connectionPoolService.getPoolStats();
+            assertThat(stats.get("active")).isEqualTo(2);
+            assertThat(stats.get("idle")).isEqualTo(0);
+            assertThat((int) stats.get("pending")).isEqualTo(3);
+
+            for (Future<?> future : blocked) {
+                assertThatThrownBy(future::get).hasCauseInstanceOf(SQLTransientConnectionException.class);
+            }
+        } finally {
+            for (Connection c : held) {
+                c.close();
+            }
+            waiters.shutdownNow();
+        }
+
+        Map<String, Object> stats = connectionPoolService.getPoolStats();
+        assertThat((long) stats.get("timeouts")).isGreaterThanOrEqualTo(3);
+        Map<String, Object> acquire = (Map<String, Object>) stats.get("acquire");
+        assertThat((long) acquire.get("count")).isGreaterThanOrEqualTo(2);
+        assertThat((Map<String, Double>) acquire.get("buckets")).containsKeys("le_1", "le_500", "le_1000");
+
+        mockMvc.perform(get("/api/db-food_order_system/pool"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pending").value(0))
+                .andExpect(jsonPath("$.maximumPoolSize").value(2))
+                .andExpect(jsonPath("$.acquire.percentilesMs.p99").exists())
+                .andExpect(jsonPath("$.timeouts").value(Matchers.greaterThanOrEqualTo(3)));
+
+        mockMvc.perform(get("/actuator/metrics/hikaricp.connections.pending"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,133 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+import com.mustudy.reactweb_backend.config.SqlStatementCounter;
+import com.mustudy.reactweb_backend.dto.DeliveryTrackingResponse;
+import com.mustudy.reactweb_backend.dto.OrderSnapshot;
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+import com.mustudy.reactweb_backend.models.OrderEvent;
+import com.mustudy.reactweb_backend.models.Orders;
+
+// outbox dispatcher 關咗，由 test 自己 call dispatchBatch()；冇歷史 data 時預設 30 分鐘
+@ManualWorkersTest(properties = {
+        "app.delivery.eta.default-minutes=30",
+        "app.delivery.eta.min-samples=3"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DeliveryServiceTest {
+
+    @Autowired
+    private DeliveryService deliveryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderOutboxService orderOutboxService;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SyntheticDataGenerator.Result data;
+    private int nextOrder = 0;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(200);
+        config.threads = 1;
+        data = new SyntheticDataGenerator(dataSource, config).generate();
+    }
+
+    @Test
+    void assignmentGetsEtaAndTrackingIsServedFromMemory() {
+        Orders order = orderService.acceptOrder(readyOrder(), data.firstRiderId);
+        // 新餐廳冇樣本：用全部餐廳嘅平均，都冇就用預設 30 分鐘
+        long expected = deliveryService.estimateMillis(order.getRestid());
+
+        DeliveryTrackingResponse tracking = deliveryService.getTracking(order.getOrderid());
+        assertThat(tracking.getDeliveryStatus()).isEqualTo("in_transit");
+        assertThat(tracking.getDriverId()).isEqualTo(data.firstRiderId);
+        assertThat(tracking.getEta().getTime()).isEqualTo(order.getStartDeliverTime().getTime() + expected);
+
+        sqlStatementCounter.begin();
+        deliveryService.getTracking(order.getOrderid());
+        assertThat(sqlStatementCounter.end()).isZero();
+
+        Orders delivered = orderService.completeOrder(order.getOrderid());
+        orderOutboxService.dispatchBatch();
+
+        tracking = deliveryService.getTracking(order.getOrderid());
+        assertThat(tracking.getDeliveryStatus()).isEqualTo("delivered");
+        assertThat(tracking.getActualDeliveryTime()).isEqualTo(delivered.getEndDeliverTime());
+        assertThat(tracking.getRemainingMinutes()).isNull();
+    }
+
+    @Test
+    void estimateFollowsRecentDeliveriesOfTheRestaurant() {
+        // 只經 event 餵樣本，用一個其他 test 唔會用到嘅 id
+        int restid = 1_000_000;
+        for (int i = 0; i < 5; i++) {
+            deliveredEvent(restid, 40);
+        }
+        assertThat(deliveryService.getEstimate(restid).get("estimatedMinutes")).isEqualTo(40L);
+
+        // rolling window：最近 50 單，新樣本會慢慢拉低平均
+        for (int i = 0; i < 50; i++) {
+            deliveredEvent(restid, 20);
+        }
+        assertThat(deliveryService.getEstimate(restid).get("estimatedMinutes")).isEqualTo(20L);
+        assertThat(deliveryService.getEstimate(restid).get("samples")).isEqualTo(50);
+    }
+
+    @Test
+    void cancellingOnTheWayMarksDeliveryFailed() {
+        Orders order = orderService.acceptOrder(readyOrder(), data.firstRiderId);
+        deliveryService.getTracking(order.getOrderid());
+
+        orderService.cancelOrder(order.getOrderid());
+        orderOutboxService.dispatchBatch();
+
+        assertThat(deliveryService.getTracking(order.getOrderid()).getDeliveryStatus()).isEqualTo("failed");
+    }
+
+    private int readyOrder() {
+        int orderid = data.firstOrderId + nextOrder++;
+        jdbcTemplate.update("UPDATE orders SET status = 'ready', deliver_man_ID = NULL, start_deliver_time = NULL,"
+                + " end_deliver_time = NULL WHERE orderid = ?", orderid);
+        return orderid;
+    }
+
+    private void deliveredEvent(int restid, int minutes) {
+        long end = System.currentTimeMillis();
+        OrderSnapshot snapshot = new OrderSnapshot();
+        snapshot.setOrderid(-1);
+        snapshot.setRestid(restid);
+        snapshot.setStartDeliverTime(new Timestamp(end - minutes * 60_000L));
+        snapshot.setEndDeliverTime(new Timestamp(end));
+        OrderEvent event = new OrderEvent();
+        event.setOrderid(-1);
+        event.setEventType(OrderEvent.EventType.status_changed);
+        event.setOldStatus(Orders.OrderStatus.out_for_delivery);
+        event.setNewStatus(Orders.OrderStatus.delivered);
+        event.setOrder(snapshot);
+        deliveryService.onOrderEvent(event);
+    }
+}
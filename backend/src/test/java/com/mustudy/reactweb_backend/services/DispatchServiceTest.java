@@ -0,0 +1,191 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+import com.mustudy.reactweb_backend.models.DeliveryStaff;
+import com.mustudy.reactweb_backend.models.Orders;
+import com.mustudy.reactweb_backend.repositories.DeliveryStaffRepository;
+
+// 派單 thread 關咗：outbox 由 test call dispatchBatch()，超時由 test call expireOffers()
+@ManualWorkersTest(properties = "app.dispatch.offer-timeout-ms=200")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DispatchServiceTest {
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderOutboxService orderOutboxService;
+
+    @Autowired
+    private RestaurantDirectoryService restaurantDirectoryService;
+
+    @Autowired
+    private DeliveryStaffRepository deliveryStaffRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int restid;
+    private double lat;
+    private double lng;
+    private List<Integer> riders;
+    private List<Integer> orders;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(500);
+        config.riders = 20;
+        config.threads = 1;
+        SyntheticDataGenerator.Result data = new SyntheticDataGenerator(dataSource, config).generate();
+        // generator 直接寫 JDBC，餐廳位置要重新載入
+        restaurantDirectoryService.load();
+        orderOutboxService.dispatchBatch();
+
+        Map<String, Object> restaurant = jdbcTemplate.queryForMap("SELECT restid, latitude, longitude FROM restaurant"
+                + " WHERE latitude IS NOT NULL AND restid >= ? ORDER BY restid LIMIT 1", data.firstRestaurantId);
+        restid = (Integer) restaurant.get("restid");
+        lat = ((Number) restaurant.get("latitude")).doubleValue();
+        lng = ((Number) restaurant.get("longitude")).doubleValue();
+        // 同一個 DB 仲有其他 test class 寫嘅資料，只用呢度 generate 嘅
+        riders = jdbcTemplate.queryForList("SELECT staff_id FROM delivery_staff WHERE staff_id >= ?"
+                + " ORDER BY staff_id LIMIT 8", Integer.class, data.firstRiderId);
+        jdbcTemplate.update("UPDATE delivery_staff SET status = 'active', isvalidate = TRUE, deleted_time = NULL,"
+                + " vehicle_type = 'scooter' WHERE staff_id IN (?, ?, ?, ?, ?, ?, ?, ?)", riders.toArray());
+        orders = jdbcTemplate.queryForList("SELECT orderid FROM orders WHERE restid = ? ORDER BY orderid LIMIT 3",
+                Integer.class, restid);
+        jdbcTemplate.update("UPDATE orders SET status = 'preparing', deliver_man_ID = NULL, start_deliver_time = NULL"
+                + " WHERE orderid IN (?, ?, ?)", orders.toArray());
+    }
+
+    @Test
+    void offersGoToTheNearestRiderThenTheNextOnDeclineOrTimeout() throws Exception {
+        int near = riders.get(0);
+        int next = riders.get(1);
+        int bike = riders.get(2);
+        jdbcTemplate.update("UPDATE delivery_staff SET vehicle_type = 'bike' WHERE staff_id = ?", bike);
+        dispatchService.updateLocation(near, lat + 0.004, lng);
+        dispatchService.updateLocation(next, lat + 0.012, lng);
+        // 4 km 外，單車唔派
+        dispatchService.updateLocation(bike, lat - 0.036, lng);
+
+        int orderid = orders.get(0);
+        orderService.markOrderAsReady(orderid);
+        orderOutboxService.dispatchBatch();
+        assertThat(dispatchService.getOffer(near).getOrderid()).isEqualTo(orderid);
+        assertThat(dispatchService.getOffer(next)).isNull();
+
+        dispatchService.declineOffer(orderid, near);
+        assertThat(dispatchService.getOffer(near)).isNull();
+        assertThat(dispatchService.getOffer(next).getOrderid()).isEqualTo(orderid);
+
+        Thread.sleep(300);
+        dispatchService.expireOffers();
+        assertThat(dispatchService.getOffer(next)).isNull();
+        assertThat(dispatchService.getOffer(bike)).isNull();
+        assertThatThrownBy(() -> dispatchService.acceptOffer(orderid, next))
+                .hasMessageContaining("冇派俾你");
+
+        for (int rider : List.of(near, next, bike)) {
+            dispatchService.goOffline(rider);
+        }
+    }
+
+    @Test
+    void acceptedOfferAssignsTheOrderAndMakesTheRiderBusy() {
+        int rider = riders.get(3);
+        int other = riders.get(4);
+        dispatchService.updateLocation(rider, lat, lng + 0.002);
+        int orderid = orders.get(1);
+        orderService.markOrderAsReady(orderid);
+        orderOutboxService.dispatchBatch();
+
+        Orders order = dispatchService.acceptOffer(orderid, rider);
+        assertThat(order.getStatus()).isEqualTo(Orders.OrderStatus.out_for_delivery);
+        assertThat(order.getDeliverManId()).isEqualTo(rider);
+        orderOutboxService.dispatchBatch();
+
+        // 送緊單嘅外賣員唔會再收到派單
+        dispatchService.updateLocation(other, lat + 0.02, lng);
+        int second = orders.get(2);
+        orderService.markOrderAsReady(second);
+        orderOutboxService.dispatchBatch();
+        assertThat(dispatchService.getOffer(rider)).isNull();
+        assertThat(dispatchService.getOffer(other).getOrderid()).isEqualTo(second);
+        dispatchService.goOffline(rider);
+        dispatchService.goOffline(other);
+    }
+
+    @Test
+    void deactivatedRidersStopReceivingOffers() {
+        // 經 JPA 停用：commit 之後即刻踢走
+        int viaJpa = riders.get(6);
+        dispatchService.updateLocation(viaJpa, lat, lng + 0.001);
+        DeliveryStaff staff = deliveryStaffRepository.findById(viaJpa).orElseThrow();
+        staff.setStatus(DeliveryStaff.StaffStatus.inactive);
+        deliveryStaffRepository.save(staff);
+        assertThat(dispatchService.positionOf(viaJpa)).isNull();
+        assertThatThrownBy(() -> dispatchService.updateLocation(viaJpa, lat, lng)).hasMessage("外賣員不存在或已停用");
+
+        // 直接改 DB：下次 refresh 踢走，派緊俾佢嘅單轉派
+        int viaDb = riders.get(7);
+        dispatchService.updateLocation(viaDb, lat, lng + 0.001);
+        jdbcTemplate.update("UPDATE delivery_staff SET deleted_time = CURRENT_TIMESTAMP WHERE staff_id = ?", viaDb);
+        dispatchService.refreshRiders();
+        assertThat(dispatchService.positionOf(viaDb)).isNull();
+        assertThatThrownBy(() -> dispatchService.updateLocation(viaDb, lat, lng)).hasMessage("外賣員不存在或已停用");
+    }
+
+    @Test
+    void concurrentAcceptsAssignTheOrderOnce() throws Exception {
+        int orderid = jdbcTemplate.queryForObject("SELECT MAX(orderid) FROM orders", Integer.class);
+        jdbcTemplate.update("UPDATE orders SET status = 'ready', deliver_man_ID = NULL WHERE orderid = ?", orderid);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        try {
+            List<Future<Object>> futures = riders.subList(0, 4).stream().map(rider -> pool.submit(() -> {
+                start.await();
+                try {
+                    orderService.acceptOrder(orderid, rider);
+                    accepted.incrementAndGet();
+                } catch (RuntimeException e) {
+                    assertThat(e.getMessage()).contains("已被其他外賣員接單");
+                }
+                return null;
+            })).toList();
+            start.countDown();
+            for (Future<Object> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(accepted.get()).isEqualTo(1);
+    }
+}
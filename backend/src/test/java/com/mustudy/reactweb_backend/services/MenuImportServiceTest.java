@@ -0,0 +1,155 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+import com.mustudy.reactweb_backend.dto.MenuImportResult;
+import com.mustudy.reactweb_backend.dto.MenuSearchResult;
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+
+// batch-size 細啲，幾行都會分幾批寫；索引 thread 關咗，test 自己 rebuild() 一次
+@ManualWorkersTest(properties = "app.menu-import.batch-size=2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MenuImportServiceTest {
+
+    @Autowired
+    private MenuImportService menuImportService;
+
+    @Autowired
+    private MenuSearchService menuSearchService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int restid;
+    private int otherRestid;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(200);
+        config.restaurants = 3;
+        config.menuItems = 60;
+        config.threads = 1;
+        restid = new SyntheticDataGenerator(dataSource, config).generate().firstRestaurantId;
+        otherRestid = restid + 1;
+        menuSearchService.rebuild();
+    }
+
+    @Test
+    void csvInsertsNewItemsAndUpdatesByIdOrName() throws Exception {
+        Map<String, Object> byId = firstItem(restid, 0);
+        Map<String, Object> byName = firstItem(restid, 1);
+        String csv = "itemName,category,price,itemId,description\n"
+                + "Pandan Chiffon Cake,Dessert,38.00,,Light and fluffy\n"
+                + "\"Salted Egg Yolk Wings, 6 pcs\",Snacks,58.5,,\n"
+                + "," + ",12.30," + byId.get("item_id") + ",\n"
+                + "  " + byName.get("item_name").toString().toUpperCase() + " ,,99,,Now with more sauce\n";
+
+        mockMvc.perform(post("/api/menu/restaurant/{restid}/import", restid)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.rows").value(4))
+                .andExpect(jsonPath("$.result.inserted").value(2))
+                .andExpect(jsonPath("$.result.updated").value(2));
+
+        // 冇填嘅欄位保留原本嘅值
+        Map<String, Object> updated = item(byId.get("item_id"));
+        assertThat(updated.get("price")).isEqualTo(new BigDecimal("12.30"));
+        assertThat(updated.get("item_name")).isEqualTo(byId.get("item_name"));
+        assertThat(updated.get("category")).isEqualTo(byId.get("category"));
+        Map<String, Object> renamed = item(byName.get("item_id"));
+        assertThat(renamed.get("price")).isEqualTo(new BigDecimal("99.00"));
+        assertThat(renamed.get("description")).isEqualTo("Now with more sauce");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM menu_items WHERE restid = ?"
+                + " AND item_name = 'Salted Egg Yolk Wings, 6 pcs' AND status = 'active'", Integer.class, restid))
+                .isEqualTo(1);
+
+        // commit 之後一次過更新搜尋 index
+        assertThat(menuSearchService.search("pandan chiffon", restid, 5))
+                .extracting(MenuSearchResult::getItemName).containsExactly("Pandan Chiffon Cake");
+        assertThat(menuSearchService.search("pandan", restid, 5).get(0).getPrice())
+                .isEqualByComparingTo("38");
+    }
+
+    @Test
+    void anyInvalidRowRollsBackTheWholeImport() throws Exception {
+        int before = count(restid);
+        Object foreignItem = firstItem(otherRestid, 0).get("item_id");
+        String json = "[{\"itemName\":\"Mango Pudding\",\"price\":28},"
+                + "{\"itemName\":\"Lemon Chicken\",\"price\":48},"
+                + "{\"itemName\":\"Lemon Chicken\",\"price\":48},"
+                + "{\"itemName\":\"Free Soup\",\"price\":0},"
+                + "{\"itemName\":\"Typo\",\"price\":12.345},"
+                + "{\"itemName\":\"Spring Rolls\",\"price\":30,\"status\":\"sold_out\"},"
+                + "{\"itemId\":" + foreignItem + ",\"price\":30},"
+                + "{\"category\":\"Drinks\"}]";
+
+        MenuImportResult result = importJson(json);
+        assertThat(result.getRows()).isEqualTo(8);
+        assertThat(result.getErrors()).containsExactly(
+                "第 3 筆：菜式重複",
+                "第 4 筆：價錢要大過 0、少過 100000，最多兩個小數位",
+                "第 5 筆：價錢要大過 0、少過 100000，最多兩個小數位",
+                "第 6 筆：狀態要係 active、inactive 或者 out_of_stock",
+                "第 7 筆：菜式 " + foreignItem + " 不屬於呢間餐廳",
+                "第 8 筆：新菜式要有名");
+        // batch-size = 2，頭兩筆已經寫咗一批，都要 rollback
+        assertThat(result.getInserted()).isZero();
+        assertThat(count(restid)).isEqualTo(before);
+        assertThat(menuSearchService.search("mango pudding", restid, 5)).isEmpty();
+    }
+
+    @Test
+    void malformedInputStopsAtTheBadRecord() throws Exception {
+        int before = count(restid);
+        MenuImportResult result = importJson("[{\"itemName\":\"Egg Waffle\",\"price\":22},"
+                + "{\"itemName\":\"Fish Balls\",\"price\":\"cheap\"}]");
+        assertThat(result.getErrors()).containsExactly("第 2 筆：格式不正確");
+        assertThat(count(restid)).isEqualTo(before);
+
+        assertThat(importJson("[]").getErrors()).containsExactly("冇菜式資料");
+    }
+
+    private MenuImportResult importJson(String json) throws Exception {
+        return menuImportService.importMenu(restid, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                false);
+    }
+
+    private Map<String, Object> firstItem(int restid, int offset) {
+        return jdbcTemplate.queryForMap("SELECT item_id, item_name, category, price FROM menu_items WHERE restid = ?"
+                + " ORDER BY item_id LIMIT 1 OFFSET ?", restid, offset);
+    }
+
+    private Map<String, Object> item(Object itemId) {
+        return jdbcTemplate.queryForMap("SELECT item_name, category, description, price FROM menu_items"
+                + " WHERE item_id = ?", itemId);
+    }
+
+    private int count(int restid) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM menu_items WHERE restid = ?", Integer.class, restid);
+    }
+}
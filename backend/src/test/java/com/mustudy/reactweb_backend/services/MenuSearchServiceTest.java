@@ -0,0 +1,92 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+import com.mustudy.reactweb_backend.dto.MenuSearchResult;
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+import com.mustudy.reactweb_backend.models.MenuItems;
+import com.mustudy.reactweb_backend.repositories.MenuItemsRepository;
+
+@ManualWorkersTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MenuSearchServiceTest {
+
+    @Autowired
+    private MenuSearchService menuSearchService;
+
+    @Autowired
+    private MenuItemsRepository menuItemsRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int restid;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(200);
+        config.restaurants = 50;
+        config.menuItems = config.restaurants * 20;
+        config.threads = 1;
+        new SyntheticDataGenerator(dataSource, config).generate();
+        menuSearchService.rebuild();
+        restid = jdbcTemplate.queryForObject("SELECT MIN(restid) FROM restaurant", Integer.class);
+    }
+
+    @Test
+    void matchesTheActiveItemsFoundBySql() {
+        List<Integer> expected = jdbcTemplate.queryForList("SELECT item_id FROM menu_items WHERE status = 'active'"
+                + " AND restid = ? AND item_name LIKE 'Char Siu %'", Integer.class, restid);
+
+        List<MenuSearchResult> results = menuSearchService.search("char siu", restid, 50);
+
+        // Char Siu Bao / Char Siu Rice 名入面有，排喺描述先有嘅前面
+        assertThat(results.stream().filter(r -> r.getItemName().startsWith("Char Siu")).map(MenuSearchResult::getItemId))
+                .containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(results.subList(0, expected.size())).allMatch(r -> r.getItemName().startsWith("Char Siu"));
+        assertThat(results).allMatch(r -> r.getRestid() == restid);
+    }
+
+    @Test
+    void committedChangesAreSearchableBeforeAndAfterRebuild() {
+        MenuItems item = new MenuItems();
+        item.setRestid(restid);
+        item.setCategory("Dim Sum");
+        item.setItemName("Truffle Siu Mai");
+        item.setDescription("Black truffle pork dumplings");
+        item.setPrice(new BigDecimal("48.00"));
+        item = menuItemsRepository.save(item);
+
+        assertThat(names("trufle siu")).containsExactly("Truffle Siu Mai");
+
+        item.setItemName("Truffle Har Gow");
+        item = menuItemsRepository.save(item);
+        assertThat(names("truffle")).containsExactly("Truffle Har Gow");
+
+        menuSearchService.rebuild();
+        assertThat(names("truffle")).containsExactly("Truffle Har Gow");
+
+        item.setStatus(MenuItems.ItemStatus.inactive);
+        menuItemsRepository.save(item);
+        assertThat(names("truffle")).isEmpty();
+    }
+
+    private List<String> names(String query) {
+        return menuSearchService.search(query, null, 10).stream().map(MenuSearchResult::getItemName).toList();
+    }
+}
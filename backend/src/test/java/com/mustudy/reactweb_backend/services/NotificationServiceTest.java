@@ -0,0 +1,87 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mustudy.reactweb_backend.dto.OrderSnapshot;
+import com.mustudy.reactweb_backend.models.OrderEvent;
+import com.mustudy.reactweb_backend.models.Orders;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class NotificationServiceTest {
+
+    // 唔會撞到其他 test 落單產生嘅通知
+    private static final int CUSTID = 900_001;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void statusChangesAreWrittenInBackgroundAndPagedByKeyset() throws Exception {
+        OrderSnapshot order = new OrderSnapshot();
+        order.setCustid(CUSTID);
+        order.setRestid(1);
+        order.setTotalAmount(BigDecimal.TEN);
+        for (int i = 1; i <= 250; i++) {
+            order.setOrderid(i);
+            OrderEvent event = new OrderEvent();
+            event.setEventType(OrderEvent.EventType.status_changed);
+            event.setNewStatus(i % 2 == 0 ? Orders.OrderStatus.out_for_delivery : Orders.OrderStatus.preparing);
+            event.setOrder(order);
+            notificationService.onOrderEvent(event);
+        }
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (countForCustomer() < 250 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(countForCustomer()).isEqualTo(250);
+
+        List<Integer> seen = new ArrayList<>();
+        String cursor = null;
+        List<Integer> pageSizes = new ArrayList<>();
+        do {
+            String url = "/api/notifications/customer/" + CUSTID + "?limit=100" + (cursor == null ? "" : "&before=" + cursor);
+            String body = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            Map<String, Object> page = objectMapper.readValue(body, Map.class);
+            List<Map<String, Object>> notifications = (List<Map<String, Object>>) page.get("notifications");
+            pageSizes.add(notifications.size());
+            notifications.forEach(n -> seen.add((Integer) n.get("notificationId")));
+            cursor = page.containsKey("nextCursor") ? String.valueOf(page.get("nextCursor")) : null;
+        } while (cursor != null);
+
+        assertThat(pageSizes).containsExactly(100, 100, 50);
+        assertThat(seen).doesNotHaveDuplicates().isSortedAccordingTo((a, b) -> Integer.compare(b, a));
+    }
+
+    private int countForCustomer() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications WHERE recipient_type = 'customer' AND Receiver_ID = ?",
+                Integer.class, CUSTID);
+    }
+}
@@ -0,0 +1,228 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+import com.mustudy.reactweb_backend.models.OrderEvent;
+import com.mustudy.reactweb_backend.models.Orders;
+import com.mustudy.reactweb_backend.repositories.OrderEventRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// dispatcher thread 關咗，由 test 自己 call dispatchBatch()，結果先穩定
+@ManualWorkersTest(properties = "app.outbox.max-attempts=3")
+class OrderOutboxServiceTest {
+
+    @TestConfiguration
+    static class RecordingListenerConfig {
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+
+        @Bean
+        SteadyListener steadyListener() {
+            return new SteadyListener();
+        }
+    }
+
+    static class RecordingListener implements OrderEventListener {
+        final List<OrderEvent> received = new CopyOnWriteArrayList<>();
+        // 之後幾多次 call 會出錯
+        final AtomicInteger failNext = new AtomicInteger();
+        // 有嘅話就經 repository 出錯（Spring Data 會 mark 個 transaction rollback-only）
+        volatile OrderEventRepository failThrough;
+
+        @Override
+        public void onOrderEvent(OrderEvent event) {
+            if (failNext.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                if (failThrough != null) {
+                    failThrough.findById(null);
+                }
+                throw new IllegalStateException("listener down");
+            }
+            received.add(event);
+        }
+    }
+
+    // 永遠成功，用嚟睇其他 listener 出錯時會唔會收多次
+    static class SteadyListener implements OrderEventListener {
+        final List<OrderEvent> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onOrderEvent(OrderEvent event) {
+            received.add(event);
+        }
+    }
+
+    @Autowired
+    private OrderOutboxService orderOutboxService;
+
+    @Autowired
+    private RecordingListener listener;
+
+    @Autowired
+    private SteadyListener steadyListener;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void reset() {
+        jdbcTemplate.update("DELETE FROM order_events");
+        listener.received.clear();
+        listener.failNext.set(0);
+        listener.failThrough = null;
+        steadyListener.received.clear();
+    }
+
+    @Test
+    void onlyCommittedEventsAreDispatchedWithTheirSnapshot() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> orderOutboxService.orderCreated(order(1, Orders.OrderStatus.pending)));
+        tx.executeWithoutResult(status -> {
+            orderOutboxService.statusChanged(order(2, Orders.OrderStatus.ready), Orders.OrderStatus.preparing);
+            status.setRollbackOnly();
+        });
+
+        assertThat(orderOutboxService.dispatchBatch()).isEqualTo(1);
+        assertThat(orderOutboxService.dispatchBatch()).isZero();
+
+        assertThat(listener.received).hasSize(1);
+        OrderEvent event = listener.received.get(0);
+        assertThat(event.getEventType()).isEqualTo(OrderEvent.EventType.order_created);
+        assertThat(event.getOrder().getOrderid()).isEqualTo(1);
+        assertThat(event.getOrder().getRestid()).isEqualTo(7);
+        assertThat(event.getOrder().getTotalAmount()).isEqualByComparingTo("12.50");
+    }
+
+    @Test
+    void appendOutsideATransactionIsRejected() {
+        assertThatThrownBy(() -> orderOutboxService.orderCreated(order(3, Orders.OrderStatus.pending)))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    @Test
+    void failedDeliveryIsRetriedOnlyForTheFailingListener() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> orderOutboxService.statusChanged(
+                order(4, Orders.OrderStatus.delivered), Orders.OrderStatus.out_for_delivery));
+
+        listener.failNext.set(1);
+        orderOutboxService.dispatchBatch();
+        assertThat(listener.received).isEmpty();
+        assertThat(steadyListener.received).hasSize(1);
+
+        orderOutboxService.dispatchBatch();
+        assertThat(listener.received).hasSize(1);
+        assertThat(steadyListener.received).hasSize(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT attempts FROM order_events", Integer.class)).isEqualTo(2);
+        assertThat(orderOutboxService.dispatchBatch()).isZero();
+    }
+
+    @Test
+    void listenerFailingInsideARepositoryCallDoesNotUndoTheOtherListeners() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> orderOutboxService.orderCreated(order(9, Orders.OrderStatus.pending)));
+
+        listener.failThrough = orderEventRepository;
+        listener.failNext.set(1);
+        assertThat(orderOutboxService.dispatchBatch()).isEqualTo(1);
+        assertThat(steadyListener.received).hasSize(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT delivered_to FROM order_events", String.class))
+                .contains("SteadyListener").doesNotContain("RecordingListener");
+
+        orderOutboxService.dispatchBatch();
+        assertThat(listener.received).hasSize(1);
+        assertThat(steadyListener.received).hasSize(1);
+    }
+
+    @Test
+    void eventsClaimedByAnotherDispatcherWaitForTheLease() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> orderOutboxService.orderCreated(order(10, Orders.OrderStatus.pending)));
+
+        // 另一個 node 攞咗，未記結果
+        jdbcTemplate.update("UPDATE order_events SET claimed_until = ?", new Timestamp(System.currentTimeMillis() + 60_000));
+        assertThat(orderOutboxService.dispatchBatch()).isZero();
+
+        // 過咗租約：當佢死咗，重新派
+        jdbcTemplate.update("UPDATE order_events SET claimed_until = ?", new Timestamp(System.currentTimeMillis() - 1));
+        assertThat(orderOutboxService.dispatchBatch()).isEqualTo(1);
+        assertThat(listener.received).hasSize(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT claimed_until FROM order_events", Timestamp.class)).isNull();
+    }
+
+    @Test
+    void eventsFailingMaxAttemptsAreCountedAndPurgedAsDeadLetters() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> orderOutboxService.orderCreated(order(8, Orders.OrderStatus.pending)));
+
+        listener.failNext.set(Integer.MAX_VALUE);
+        for (int i = 0; i < 3; i++) {
+            assertThat(orderOutboxService.dispatchBatch()).isEqualTo(1);
+        }
+        assertThat(orderOutboxService.dispatchBatch()).isZero();
+        assertThat(steadyListener.received).hasSize(1);
+
+        assertThat(orderOutboxService.purgeDead()).isZero();
+        assertThat(meterRegistry.get("outbox.events.dead").gauge().value()).isEqualTo(1);
+
+        jdbcTemplate.update("UPDATE order_events SET created_time = ?",
+                new Timestamp(System.currentTimeMillis() - 200L * 3600_000));
+        assertThat(orderOutboxService.purgeDead()).isEqualTo(1);
+        assertThat(meterRegistry.get("outbox.events.dead").gauge().value()).isZero();
+    }
+
+    @Test
+    void purgeRemovesOnlyOldDispatchedEvents() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            orderOutboxService.orderCreated(order(5, Orders.OrderStatus.pending));
+            orderOutboxService.orderCreated(order(6, Orders.OrderStatus.pending));
+        });
+        orderOutboxService.dispatchBatch();
+        jdbcTemplate.update("UPDATE order_events SET dispatched_time = ? WHERE orderid = 5",
+                new Timestamp(System.currentTimeMillis() - 48L * 3600_000));
+
+        assertThat(orderOutboxService.purgeDispatched()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT orderid FROM order_events", Integer.class)).isEqualTo(6);
+    }
+
+    private static Orders order(int orderid, Orders.OrderStatus status) {
+        Orders order = new Orders();
+        order.setOrderid(orderid);
+        order.setCustid(3);
+        order.setRestid(7);
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal("12.50"));
+        order.setCreatedTime(new Timestamp(System.currentTimeMillis()));
+        return order;
+    }
+}
@@ -0,0 +1,204 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+import com.mustudy.reactweb_backend.dto.PaymentCallback;
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+import com.mustudy.reactweb_backend.models.Payment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// 背景 thread 關咗，由 test 自己 call reconcile()；grace 0 即係所有 pending 都會拎去對數
+@ManualWorkersTest(properties = {
+        "app.payments.reconcile-grace-ms=0",
+        "app.payments.reconcile-batch-size=50",
+        "app.payments.gateway.callback-delay-ms=0",
+        "app.payments.gateway.failure-rate=0",
+        "app.payments.callback-secret=test-secret"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PaymentServiceTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private LocalPaymentGateway gateway;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int firstOrderId;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(200);
+        config.threads = 1;
+        firstOrderId = new SyntheticDataGenerator(dataSource, config).generate().firstOrderId;
+    }
+
+    @Test
+    void gatewayCallbackMarksPaymentPaid() throws Exception {
+        int orderid = order("pending");
+        jdbcTemplate.update("DELETE FROM payments WHERE orderid = ?", orderid);
+
+        Payment payment = paymentService.createPayment(orderid, "credit_card");
+        assertThat(payment.getExtRefNum()).startsWith("LOCAL-");
+        assertThatThrownBy(() -> paymentService.createPayment(orderid, "paypal"))
+                .hasMessage("訂單已有付款紀錄");
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (status(payment.getInvoiceId()) == Payment.PaymentStatus.pending && System.currentTimeMillis() < deadline) {
+            paymentService.applyCallbacks();
+            Thread.sleep(20);
+        }
+        assertThat(status(payment.getInvoiceId())).isEqualTo(Payment.PaymentStatus.paid);
+    }
+
+    @Test
+    void concurrentCreatePaymentSubmitsOnlyOnce() throws Exception {
+        int orderid = order("pending");
+        jdbcTemplate.update("DELETE FROM payments WHERE orderid = ?", orderid);
+
+        // 模擬 client 連撳幾下：同時開始
+        int requests = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(requests);
+        List<Future<Payment>> results = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return paymentService.createPayment(orderid, "credit_card");
+            }));
+        }
+        start.countDown();
+        int created = 0;
+        for (Future<Payment> result : results) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                created++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).hasMessage("訂單已有付款紀錄");
+            }
+        }
+        pool.shutdown();
+
+        assertThat(created).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments WHERE orderid = ?", Integer.class, orderid))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void lateCallbackCannotOverrideSettledPayment() {
+        int invoiceId = pendingPayment(order("preparing"), "credit_card", "EXT-LATE");
+        gateway.record("EXT-LATE", Payment.PaymentStatus.paid);
+        // 先清走其他 test 留低嘅 callback，下面先數得準
+        paymentService.applyCallbacks();
+        assertThat(paymentService.acceptCallback(new PaymentCallback("EXT-LATE", "paid"))).isTrue();
+        assertThat(paymentService.acceptCallback(new PaymentCallback("EXT-LATE", "failed"))).isTrue();
+        double applied = meterRegistry.counter("payments.callbacks.applied").count();
+
+        assertThat(paymentService.applyCallbacks()).isEqualTo(1);
+
+        assertThat(status(invoiceId)).isEqualTo(Payment.PaymentStatus.paid);
+        // 第二個 callback 冇改到任何嘢，唔計
+        assertThat(meterRegistry.counter("payments.callbacks.applied").count() - applied).isEqualTo(1);
+    }
+
+    @Test
+    void onlyCallbacksSignedWithTheSecretAreAccepted() {
+        byte[] body = "{\"extRefNum\":\"EXT-SIGNED\",\"status\":\"paid\"}".getBytes(StandardCharsets.UTF_8);
+        String signature = HexFormat.of().formatHex(paymentService.sign(body));
+
+        assertThat(paymentService.verifyCallbackSignature(body, signature)).isTrue();
+        assertThat(paymentService.verifyCallbackSignature(body, signature.toUpperCase())).isTrue();
+        assertThat(paymentService.verifyCallbackSignature(body, null)).isFalse();
+        assertThat(paymentService.verifyCallbackSignature(body, "not-hex")).isFalse();
+        byte[] tampered = "{\"extRefNum\":\"EXT-SIGNED\",\"status\":\"refunded\"}".getBytes(StandardCharsets.UTF_8);
+        assertThat(paymentService.verifyCallbackSignature(tampered, signature)).isFalse();
+    }
+
+    @Test
+    void reconciliationSettlesPaymentsWithoutCallback() {
+        int paid = pendingPayment(order("preparing"), "credit_card", "EXT-PAID");
+        int declined = pendingPayment(order("preparing"), "paypal", "EXT-DECLINED");
+        int inFlight = pendingPayment(order("preparing"), "debit_card", "EXT-IN-FLIGHT");
+        int unknown = pendingPayment(order("preparing"), "credit_card", "EXT-UNKNOWN");
+        gateway.record("EXT-PAID", Payment.PaymentStatus.paid);
+        gateway.record("EXT-DECLINED", Payment.PaymentStatus.failed);
+        gateway.record("EXT-IN-FLIGHT", Payment.PaymentStatus.pending);
+
+        paymentService.reconcile();
+
+        assertThat(status(paid)).isEqualTo(Payment.PaymentStatus.paid);
+        assertThat(status(declined)).isEqualTo(Payment.PaymentStatus.failed);
+        assertThat(status(inFlight)).isEqualTo(Payment.PaymentStatus.pending);
+        assertThat(status(unknown)).isEqualTo(Payment.PaymentStatus.failed);
+    }
+
+    @Test
+    void cashOnDeliveryFollowsOrderAndAmountMustMatch() {
+        int delivered = pendingPayment(order("delivered"), "cash_on_delivery", null);
+        int cancelled = pendingPayment(order("cancelled"), "cash_on_delivery", null);
+        int onTheWay = pendingPayment(order("out_for_delivery"), "cash_on_delivery", null);
+        int mismatched = pendingPayment(order("delivered"), "cash_on_delivery", null);
+        jdbcTemplate.update("UPDATE payments SET receive_amount = receive_amount + 1 WHERE invoiceID = ?", mismatched);
+
+        paymentService.reconcile();
+
+        assertThat(status(delivered)).isEqualTo(Payment.PaymentStatus.paid);
+        assertThat(status(cancelled)).isEqualTo(Payment.PaymentStatus.failed);
+        assertThat(status(onTheWay)).isEqualTo(Payment.PaymentStatus.pending);
+        assertThat(status(mismatched)).isEqualTo(Payment.PaymentStatus.failed);
+    }
+
+    // 每個 test 攞一張未用過嘅單，改成指定狀態
+    private int nextOrder = 0;
+
+    private int order(String status) {
+        int orderid = firstOrderId + nextOrder++;
+        jdbcTemplate.update("UPDATE orders SET status = ? WHERE orderid = ?", status, orderid);
+        return orderid;
+    }
+
+    private int pendingPayment(int orderid, String method, String extRefNum) {
+        jdbcTemplate.update("DELETE FROM payments WHERE orderid = ?", orderid);
+        jdbcTemplate.update("INSERT INTO payments (orderid, payment_method, ext_ref_num, receive_amount, payment_status,"
+                + " created_time) SELECT orderid, ?, ?, total_amount - discount_amount, 'pending', ? FROM orders"
+                + " WHERE orderid = ?", method, extRefNum, new Timestamp(System.currentTimeMillis() - 60_000), orderid);
+        return jdbcTemplate.queryForObject("SELECT invoiceID FROM payments WHERE orderid = ?", Integer.class, orderid);
+    }
+
+    private Payment.PaymentStatus status(int invoiceId) {
+        return Payment.PaymentStatus.valueOf(jdbcTemplate.queryForObject(
+                "SELECT payment_status FROM payments WHERE invoiceID = ?", String.class, invoiceId));
+    }
+}
@@ -0,0 +1,112 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+import com.mustudy.reactweb_backend.dto.PopularItem;
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+
+@ManualWorkersTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PopularItemsServiceTest {
+
+    // 唔計取消咗嘅單，只計仲 active 嘅菜
+    private static final String COUNTS_SQL = "SELECT oi.item_ID AS item, SUM(oi.quantity) AS total"
+            + " FROM order_items oi JOIN orders o ON o.orderid = oi.orderid JOIN menu_items mi ON mi.item_ID = oi.item_ID"
+            + " WHERE o.%s = ? AND o.status <> 'cancelled' AND mi.status = 'active'"
+            + " GROUP BY oi.item_ID ORDER BY total DESC";
+
+    @Autowired
+    private PopularItemsService popularItemsService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int restid;
+    private int custid;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(3000);
+        config.restaurants = 10;
+        config.menuItems = config.restaurants * 20;
+        config.customers = 50;
+        config.threads = 1;
+        new SyntheticDataGenerator(dataSource, config).generate();
+        assertThat(popularItemsService.aggregate()).isPositive();
+        restid = jdbcTemplate.queryForObject("SELECT MIN(restid) FROM restaurant", Integer.class);
+        custid = jdbcTemplate.queryForObject("SELECT MIN(custid) FROM orders", Integer.class);
+    }
+
+    @Test
+    void countsMatchAFullScan() {
+        assertCounts(popularItemsService.getBestSellers(restid, 10), "restid", restid);
+        assertCounts(popularItemsService.getReorderItems(custid, 10), "custid", custid);
+    }
+
+    @Test
+    void onlyNewRowsAreReadAfterTheWatermark() {
+        assertThat(popularItemsService.aggregate()).isZero();
+
+        PopularItem last = popularItemsService.getBestSellers(restid, 20).get(0);
+        Integer orderid = jdbcTemplate.queryForObject("SELECT MIN(orderid) FROM orders WHERE restid = ?"
+                + " AND status <> 'cancelled'", Integer.class, restid);
+        jdbcTemplate.update("INSERT INTO order_items (orderid, item_ID, quantity, price) VALUES (?, ?, 1000, 10)",
+                orderid, last.getItemId());
+
+        assertThat(popularItemsService.aggregate()).isEqualTo(1);
+        assertThat(popularItemsService.getBestSellers(restid, 1).get(0).getOrderCount())
+                .isEqualTo(last.getOrderCount() + 1000);
+    }
+
+    @Test
+    void watermarkWaitsForRowsInsideTheCommitLag() {
+        popularItemsService.aggregate();
+        List<Integer> orders = jdbcTemplate.queryForList("SELECT orderid FROM orders WHERE restid = ?"
+                + " AND status <> 'cancelled' ORDER BY orderid LIMIT 2", Integer.class, restid);
+        Integer itemId = popularItemsService.getBestSellers(restid, 1).get(0).getItemId();
+        Timestamp created = jdbcTemplate.queryForObject("SELECT created_time FROM orders WHERE orderid = ?",
+                Timestamp.class, orders.get(0));
+
+        // 第一張單當啱啱落（未夠 commit-lag），佢之後嘅紀錄都唔好計住
+        jdbcTemplate.update("UPDATE orders SET created_time = ? WHERE orderid = ?",
+                new Timestamp(System.currentTimeMillis() + 60_000), orders.get(0));
+        jdbcTemplate.update("INSERT INTO order_items (orderid, item_ID, quantity, price) VALUES (?, ?, 1, 10)",
+                orders.get(0), itemId);
+        jdbcTemplate.update("INSERT INTO order_items (orderid, item_ID, quantity, price) VALUES (?, ?, 1, 10)",
+                orders.get(1), itemId);
+        assertThat(popularItemsService.aggregate()).isZero();
+
+        jdbcTemplate.update("UPDATE orders SET created_time = ? WHERE orderid = ?", created, orders.get(0));
+        assertThat(popularItemsService.aggregate()).isEqualTo(2);
+        assertCounts(popularItemsService.getBestSellers(restid, 10), "restid", restid);
+    }
+
+    private void assertCounts(List<PopularItem> items, String column, int id) {
+        List<Map<String, Object>> expected = jdbcTemplate.queryForList(String.format(COUNTS_SQL, column), id);
+        assertThat(items).isNotEmpty();
+        assertThat(items).isSortedAccordingTo((a, b) -> Integer.compare(b.getOrderCount(), a.getOrderCount()));
+        for (PopularItem item : items) {
+            long total = expected.stream().filter(row -> item.getItemId().equals(row.get("item")))
+                    .mapToLong(row -> ((Number) row.get("total")).longValue()).findFirst().orElse(-1);
+            assertThat(item.getOrderCount()).isEqualTo((int) total);
+        }
+        // 第一位同 SQL 嘅最高份數一樣
+        assertThat(items.get(0).getOrderCount()).isEqualTo(((Number) expected.get(0).get("total")).intValue());
+    }
+}
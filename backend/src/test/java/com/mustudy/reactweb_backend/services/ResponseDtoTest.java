@@ -0,0 +1,142 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+import com.mustudy.reactweb_backend.config.SqlStatementCounter;
+import com.mustudy.reactweb_backend.dto.MenuItemResponse;
+import com.mustudy.reactweb_backend.dto.OrderSummary;
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+import com.mustudy.reactweb_backend.models.Orders;
+
+// 外賣員 / 分類頁嘅 response：一句 SQL 攞晒，之後 Jackson serialize 唔可以再有 lazy load
+@ManualWorkersTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ResponseDtoTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private RestaurantDirectoryService restaurantDirectoryService;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SyntheticDataGenerator.Result data;
+    private List<Integer> ready;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(300);
+        config.threads = 1;
+        data = new SyntheticDataGenerator(dataSource, config).generate();
+        restaurantDirectoryService.load();
+        ready = jdbcTemplate.queryForList("SELECT orderid FROM orders ORDER BY orderid LIMIT 5", Integer.class);
+        jdbcTemplate.update("UPDATE orders SET status = 'ready', deliver_man_ID = NULL, start_deliver_time = NULL,"
+                + " end_deliver_time = NULL WHERE orderid IN (?, ?, ?, ?, ?)", ready.toArray());
+    }
+
+    // fail-on-empty-beans=false 會遮住 serialize 到 Hibernate proxy 嘅錯，呢度嘅檢查唔可以喺嗰個設定下跑
+    @Test
+    void emptyBeansStillFailSerialization() {
+        assertThat(objectMapper.isEnabled(SerializationFeature.FAIL_ON_EMPTY_BEANS)).isTrue();
+    }
+
+    @Test
+    void availableOrdersAreOneQueryAndSerializeWithoutLazyLoads() throws Exception {
+        sqlStatementCounter.begin();
+        List<OrderSummary> available = orderService.getAvailableOrders();
+        assertThat(sqlStatementCounter.end()).isEqualTo(1);
+        assertThat(available).extracting(OrderSummary::getOrderid).containsAll(ready.subList(0, 4));
+        assertThat(available).allSatisfy(order -> assertThat(order.getRestaurantName()).isNotBlank());
+
+        assertNoQueriesWhileSerializing(Map.of("success", true, "orders", available));
+    }
+
+    @Test
+    void deliveryManOrdersAndAcceptResponseSerializeWithoutLazyLoads() throws Exception {
+        // 最後一張俾呢個 test 接咗，其他 test 只睇頭四張
+        int orderid = ready.get(4);
+        Orders accepted = orderService.acceptOrder(orderid, data.firstRiderId);
+
+        sqlStatementCounter.begin();
+        OrderSummary summary = orderService.toSummary(accepted);
+        String json = objectMapper.writeValueAsString(Map.of("success", true, "order", summary));
+        assertThat(sqlStatementCounter.end()).isZero();
+        assertThat(json).contains("\"status\":\"out_for_delivery\"").doesNotContain("passHash");
+
+        sqlStatementCounter.begin();
+        List<OrderSummary> orders = orderService.getOrdersByDeliveryMan(data.firstRiderId);
+        assertThat(sqlStatementCounter.end()).isEqualTo(1);
+        assertThat(orders).extracting(OrderSummary::getOrderid).contains(orderid);
+
+        assertNoQueriesWhileSerializing(Map.of("success", true, "orders", orders));
+    }
+
+    @Test
+    void categoryMenuIsProjectedStraightIntoDtos() throws Exception {
+        String category = jdbcTemplate.queryForObject("SELECT category FROM menu_items ORDER BY item_ID LIMIT 1",
+                String.class);
+        sqlStatementCounter.begin();
+        List<MenuItemResponse> items = menuService.getMenuByCategory(category);
+        assertThat(sqlStatementCounter.end()).isEqualTo(1);
+        assertThat(items).isNotEmpty().allSatisfy(item -> {
+            assertThat(item.getCategory()).isEqualTo(category);
+            assertThat(item.getRestid()).isNotNull();
+        });
+
+        assertNoQueriesWhileSerializing(items);
+    }
+
+    @Test
+    void endpointsServeTheFlatShape() throws Exception {
+        mockMvc.perform(get("/api/orders/available"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders[0].restaurantName").exists())
+                .andExpect(jsonPath("$.orders[0].restaurant").doesNotExist())
+                .andExpect(jsonPath("$.orders[0].customer").doesNotExist());
+        mockMvc.perform(get("/api/menu/category/{category}", "Dim Sum"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].restaurant").doesNotExist());
+    }
+
+    private void assertNoQueriesWhileSerializing(Object body) throws Exception {
+        sqlStatementCounter.begin();
+        String json = objectMapper.writeValueAsString(body);
+        assertThat(sqlStatementCounter.end()).isZero();
+        assertThat(json).doesNotContain("passHash").doesNotContain("hibernateLazyInitializer");
+    }
+}
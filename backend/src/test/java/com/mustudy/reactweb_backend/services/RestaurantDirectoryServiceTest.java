@@ -0,0 +1,134 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+import com.mustudy.reactweb_backend.dto.RestaurantCard;
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+import com.mustudy.reactweb_backend.models.Restaurant;
+import com.mustudy.reactweb_backend.repositories.RestaurantRepository;
+
+@ManualWorkersTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RestaurantDirectoryServiceTest {
+
+    private static final double LAT = 22.28;
+    private static final double LNG = 114.16;
+
+    @Autowired
+    private RestaurantDirectoryService directory;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(500);
+        config.restaurants = 300;
+        config.menuItems = config.restaurants * 20;
+        config.threads = 1;
+        new SyntheticDataGenerator(dataSource, config).generate();
+        // generator 直接寫 JDBC，唔會經 entity listener，所以重新載入一次
+        directory.load();
+    }
+
+    @Test
+    void pagesByRatingMatchTheTable() {
+        List<Integer> expected = jdbcTemplate.queryForList("SELECT restid FROM restaurant"
+                + " WHERE isvalidate = TRUE AND deleted_time IS NULL"
+                + " ORDER BY CASE WHEN rating_count = 0 THEN 1 ELSE 0 END,"
+                + " CAST(rating_sum AS DOUBLE) / NULLIF(rating_count, 0) DESC, rating_count DESC, restid", Integer.class);
+
+        assertThat(ids(0, "rating")).isEqualTo(expected.subList(0, 20));
+        assertThat(ids(3, "rating")).isEqualTo(expected.subList(60, 80));
+        assertThat(directory.browse(false, "rating", null, null, 0, 20).get("total")).isEqualTo(expected.size());
+    }
+
+    @Test
+    void distancePagesMatchBruteForce() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT restid, latitude, longitude FROM restaurant"
+                + " WHERE isvalidate = TRUE AND deleted_time IS NULL AND latitude IS NOT NULL");
+        Map<Integer, Double> distances = rows.stream().collect(Collectors.toMap(r -> (Integer) r.get("restid"),
+                r -> RestaurantDirectoryService.distanceKm(LAT, LNG, ((BigDecimal) r.get("latitude")).doubleValue(),
+                        ((BigDecimal) r.get("longitude")).doubleValue())));
+        List<Double> expected = distances.values().stream().sorted().toList();
+
+        // 其他 test class 用同一個 seed 寫咗同位置嘅餐廳，距離一樣嗰啲次序唔固定，所以比距離唔比 id
+        assertThat(ids(0, "distance")).extracting(distances::get).isEqualTo(expected.subList(0, 20));
+        assertThat(ids(2, "distance")).extracting(distances::get).isEqualTo(expected.subList(40, 60));
+        assertThatThrownBy(() -> directory.browse(false, "distance", null, null, 0, 20))
+                .hasMessage("按距離排序需要提供位置");
+    }
+
+    @Test
+    void committedChangesMoveOneRestaurantAndRollbacksDont() {
+        Integer top = ids(0, "rating").get(0);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // rollback：列表唔變
+        tx.executeWithoutResult(status -> {
+            Restaurant restaurant = restaurantRepository.findById(top).orElseThrow();
+            restaurant.setIsValidate(false);
+            restaurantRepository.save(restaurant);
+            status.setRollbackOnly();
+        });
+        assertThat(ids(0, "rating").get(0)).isEqualTo(top);
+
+        // 停用：由營業中列表消失，但 includeInactive 仲見到
+        Restaurant restaurant = restaurantRepository.findById(top).orElseThrow();
+        restaurant.setIsValidate(false);
+        restaurantRepository.save(restaurant);
+        assertThat(ids(0, "rating")).doesNotContain(top);
+        assertThat(directory.getRestaurant(top).getIsValidate()).isFalse();
+
+        // 重新啟用兼搬到旁邊：距離排第一
+        restaurant.setIsValidate(true);
+        restaurant.setLatitude(BigDecimal.valueOf(LAT));
+        restaurant.setLongitude(BigDecimal.valueOf(LNG));
+        restaurantRepository.save(restaurant);
+        assertThat(ids(0, "distance").get(0)).isEqualTo(top);
+
+        // 評分跌到最低：排到評分列表最尾（冇評分嗰啲之前）
+        Integer second = ids(0, "rating").get(1);
+        directory.updateRating(top, 1.0, 1_000);
+        List<Integer> firstPage = ids(0, "rating");
+        assertThat(firstPage).doesNotContain(top).contains(second);
+        RestaurantCard card = directory.getRestaurant(top);
+        assertThat(card.getAverageRating()).isEqualTo(1.0);
+        assertThat(card.getRatingCount()).isEqualTo(1_000L);
+
+        // 評分只改咗 memory，重新載入返 DB 嘅數，唔影響其他 test
+        directory.load();
+    }
+
+    private List<Integer> ids(int page, String sort) {
+        @SuppressWarnings("unchecked")
+        List<RestaurantCard> cards = (List<RestaurantCard>) directory.browse(false, sort, LAT, LNG, page, 20).get("restaurants");
+        return cards.stream().map(RestaurantCard::getRestid).toList();
+    }
+}
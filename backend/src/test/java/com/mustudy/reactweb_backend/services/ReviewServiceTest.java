@@ -0,0 +1,180 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+import com.mustudy.reactweb_backend.models.Restaurant;
+import com.mustudy.reactweb_backend.repositories.RestaurantRepository;
+
+// flush thread 關咗，由 test 自己 call flush()
+@ManualWorkersTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReviewServiceTest {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SyntheticDataGenerator.Result data;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(400);
+        // 每個 test 用自己嘅餐廳
+        config.restaurants = 6;
+        config.menuItems = config.restaurants * 20;
+        config.threads = 1;
+        data = new SyntheticDataGenerator(dataSource, config).generate();
+        // generator 會填隨機評分；由零開始，結果先容易對（只改自己 generate 嘅餐廳）
+        jdbcTemplate.update("UPDATE restaurant SET rating_sum = 0, rating_count = 0, rating = NULL WHERE restid >= ?",
+                data.firstRestaurantId);
+    }
+
+    @Test
+    void newAndEditedReviewsUpdateTheRunningAggregate() {
+        int restid = data.firstRestaurantId;
+        List<Map<String, Object>> orders = deliveredOrders(restid, 3);
+
+        submit(orders.get(0), 5);
+        submit(orders.get(1), 4);
+        submit(orders.get(2), 2);
+        assertThat(reviewService.getRating(restid)).containsEntry("count", 3L).containsEntry("average", 3.67);
+
+        // 改評價：count 唔變，只係換分
+        submit(orders.get(2), 5);
+        assertThat(reviewService.getRating(restid)).containsEntry("count", 3L).containsEntry("average", 4.67);
+
+        assertThat(reviewService.flush()).isEqualTo(1);
+        assertThat(reviewService.flush()).isZero();
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT rating_sum, rating_count, rating FROM restaurant WHERE restid = ?", restid);
+        assertThat(((Number) row.get("rating_sum")).intValue()).isEqualTo(14);
+        assertThat(((Number) row.get("rating_count")).intValue()).isEqualTo(3);
+        assertThat(((Number) row.get("rating")).intValue()).isEqualTo(5);
+    }
+
+    @Test
+    void concurrentReviewsMatchAggregationOverTheTable() throws Exception {
+        int restid = data.firstRestaurantId + 1;
+        List<Map<String, Object>> orders = deliveredOrders(restid, 40);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        // 每張單提交兩次（第二次係修改），八條 thread 同時做
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < orders.size(); i++) {
+                Map<String, Object> order = orders.get(i);
+                int rating = 1 + (i + round) % 5;
+                futures.add(pool.submit(() -> submit(order, rating)));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        reviewService.flush();
+
+        Map<String, Object> expected = jdbcTemplate.queryForMap("SELECT SUM(r.rating) AS s, COUNT(*) AS c"
+                + " FROM order_reviews r JOIN orders o ON o.orderid = r.orderid WHERE o.restid = ?", restid);
+        Map<String, Object> stored = jdbcTemplate.queryForMap(
+                "SELECT rating_sum, rating_count FROM restaurant WHERE restid = ?", restid);
+        assertThat(((Number) expected.get("c")).longValue()).isEqualTo(orders.size());
+        assertThat(((Number) stored.get("rating_count")).longValue()).isEqualTo(((Number) expected.get("c")).longValue());
+        assertThat(((Number) stored.get("rating_sum")).longValue()).isEqualTo(((Number) expected.get("s")).longValue());
+        assertThat(reviewService.getRating(restid).get("count")).isEqualTo((long) orders.size());
+    }
+
+    @Test
+    void savingAStaleRestaurantKeepsFlushedAggregates() {
+        int restid = data.firstRestaurantId + 3;
+        // 好似登入咁：先 load，期間 flush 咗新評分，之後先 save
+        Restaurant loaded = restaurantRepository.findById(restid).orElseThrow();
+        submit(deliveredOrders(restid, 1).get(0), 4);
+        reviewService.flush();
+
+        loaded.setChangeLog("login");
+        restaurantRepository.save(loaded);
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT rating_sum, rating_count, change_log FROM restaurant WHERE restid = ?", restid);
+        assertThat(((Number) row.get("rating_sum")).intValue()).isEqualTo(4);
+        assertThat(((Number) row.get("rating_count")).intValue()).isEqualTo(1);
+        assertThat(row.get("change_log")).isEqualTo("login");
+    }
+
+    @Test
+    void failedFlushRollsBackTheWholeBatchAndAveragesComeFromTheTable() {
+        int restid = data.firstRestaurantId + 4;
+        int broken = data.firstRestaurantId + 5;
+        submit(deliveredOrders(restid, 1).get(0), 4);
+        submit(deliveredOrders(broken, 1).get(0), 3);
+        // 平均分超出 1 至 5 嘅 CHECK，呢行 UPDATE 會失敗
+        jdbcTemplate.update("UPDATE restaurant SET rating_sum = 1000, rating_count = 1 WHERE restid = ?", broken);
+
+        assertThatThrownBy(reviewService::flush).isInstanceOf(RuntimeException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT rating_count FROM restaurant WHERE restid = ?", Integer.class,
+                restid)).isZero();
+
+        // 修好之後再 flush：每個差額只加一次；另一個 node 已經寫咗嘅評分都計埋入平均分
+        jdbcTemplate.update("UPDATE restaurant SET rating_sum = 0, rating_count = 0 WHERE restid = ?", broken);
+        jdbcTemplate.update("UPDATE restaurant SET rating_sum = 1, rating_count = 1 WHERE restid = ?", restid);
+        assertThat(reviewService.flush()).isEqualTo(2);
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT rating_sum, rating_count, rating FROM restaurant WHERE restid = ?", restid);
+        assertThat(((Number) row.get("rating_sum")).intValue()).isEqualTo(5);
+        assertThat(((Number) row.get("rating_count")).intValue()).isEqualTo(2);
+        assertThat(((Number) row.get("rating")).intValue()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT rating_sum FROM restaurant WHERE restid = ?", Integer.class,
+                broken)).isEqualTo(3);
+    }
+
+    @Test
+    void onlyTheCustomerOfADeliveredOrderCanReview() {
+        Map<String, Object> order = deliveredOrders(data.firstRestaurantId + 2, 1).get(0);
+        Integer orderid = (Integer) order.get("orderid");
+        Integer custid = (Integer) order.get("custid");
+
+        assertThatThrownBy(() -> reviewService.submitReview(orderid, custid, 6, null)).hasMessage("評分必須係 1 至 5");
+        assertThatThrownBy(() -> reviewService.submitReview(orderid, custid + 1, 4, null)).hasMessage("只可以評價自己嘅訂單");
+        jdbcTemplate.update("UPDATE orders SET status = 'preparing' WHERE orderid = ?", orderid);
+        assertThatThrownBy(() -> reviewService.submitReview(orderid, custid, 4, null)).hasMessage("訂單未送達，暫時未可以評價");
+    }
+
+    private List<Map<String, Object>> deliveredOrders(int restid, int count) {
+        List<Map<String, Object>> orders = jdbcTemplate.queryForList(
+                "SELECT orderid, custid FROM orders WHERE restid = ? ORDER BY orderid LIMIT ?", restid, count);
+        assertThat(orders).hasSize(count);
+        for (Map<String, Object> order : orders) {
+            jdbcTemplate.update("UPDATE orders SET status = 'delivered' WHERE orderid = ?", order.get("orderid"));
+        }
+        return orders;
+    }
+
+    private void submit(Map<String, Object> order, int rating) {
+        reviewService.submitReview((Integer) order.get("orderid"), (Integer) order.get("custid"), rating, "好味");
+    }
+}
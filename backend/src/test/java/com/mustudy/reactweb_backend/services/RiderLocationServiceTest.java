@@ -0,0 +1,168 @@
+package com.mustudy.reactweb_backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mustudy.reactweb_backend.ManualWorkersTest;
+import com.mustudy.reactweb_backend.dispatch.RiderGrid;
+import com.mustudy.reactweb_backend.dto.LocationPoint;
+import com.mustudy.reactweb_backend.dto.RiderTrackResponse;
+import com.mustudy.reactweb_backend.load.SyntheticDataGenerator;
+import com.mustudy.reactweb_backend.models.Orders;
+
+// 寫 DB thread 同 outbox dispatcher 關咗，由 test call flush() / dispatchBatch()；下面數 row 靠每 30 秒寫一點
+@ManualWorkersTest(properties = "app.rider-locations.persist-sample-ms=30000")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RiderLocationServiceTest {
+
+    @Autowired
+    private RiderLocationService riderLocationService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private OrderOutboxService orderOutboxService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SyntheticDataGenerator.Result data;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticDataGenerator.Config config = SyntheticDataGenerator.Config.forOrders(200);
+        config.threads = 1;
+        data = new SyntheticDataGenerator(dataSource, config).generate();
+        jdbcTemplate.update("UPDATE delivery_staff SET status = 'active', isvalidate = TRUE, deleted_time = NULL"
+                + " WHERE staff_id IN (?, ?)", data.firstRiderId, data.firstRiderId + 1);
+    }
+
+    @Test
+    void pointsAreDownsampledBeforeTheyAreWritten() {
+        int rider = data.firstRiderId + 1;
+        long start = System.currentTimeMillis() - 120_000;
+        // 兩分鐘，每 5 秒一點
+        List<LocationPoint> points = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            points.add(LocationPoint.of(start + i * 5_000L, 22.3 + i * 0.0001, 114.17));
+        }
+        assertThat(riderLocationService.record(rider, points)).isEqualTo(24);
+        // 重送唔會再收
+        assertThat(riderLocationService.record(rider, points.subList(20, 24))).isZero();
+
+        riderLocationService.flush();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rider_locations WHERE staff_id = ?",
+                Integer.class, rider)).isEqualTo(4);
+        riderLocationService.flush();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rider_locations WHERE staff_id = ?",
+                Integer.class, rider)).isEqualTo(4);
+    }
+
+    @Test
+    void pointsAreKeptWhenTheWriteFails() {
+        int rider = data.firstRiderId + 3;
+        jdbcTemplate.update("UPDATE delivery_staff SET status = 'active', isvalidate = TRUE, deleted_time = NULL"
+                + " WHERE staff_id = ?", rider);
+        long start = System.currentTimeMillis() - 90_000;
+        List<LocationPoint> points = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            points.add(LocationPoint.of(start + i * 30_000L, 22.3, 114.17));
+        }
+        riderLocationService.record(rider, points);
+
+        // 個 table 暫時用唔到：flush 失敗，啲點唔可以當咗寫咗
+        jdbcTemplate.execute("ALTER TABLE rider_locations RENAME TO rider_locations_offline");
+        try {
+            assertThatThrownBy(riderLocationService::flush).isInstanceOf(RuntimeException.class);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE rider_locations_offline RENAME TO rider_locations");
+        }
+
+        riderLocationService.flush();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rider_locations WHERE staff_id = ?",
+                Integer.class, rider)).isEqualTo(3);
+    }
+
+    @Test
+    void resentOldPointsDoNotMoveTheRiderInTheDispatchGrid() {
+        int rider = data.firstRiderId + 2;
+        jdbcTemplate.update("UPDATE delivery_staff SET status = 'active', isvalidate = TRUE, deleted_time = NULL"
+                + " WHERE staff_id = ?", rider);
+        long now = System.currentTimeMillis();
+        riderLocationService.record(rider, List.of(LocationPoint.of(now - 1_000, 22.31, 114.17)));
+
+        // 離線補傳 / 重送嘅舊點：唔收，grid 都唔郁
+        assertThat(riderLocationService.record(rider, List.of(
+                LocationPoint.of(now - 60_000, 22.20, 114.10),
+                LocationPoint.of(now - 30_000, 22.25, 114.12)))).isZero();
+        RiderGrid.Position position = dispatchService.positionOf(rider);
+        assertThat(position.latitude()).isEqualTo(22.31);
+        assertThat(position.updatedAt()).isEqualTo(now - 1_000);
+
+        // 新嘅點用佢自己嘅時間，唔係收到嘅時間
+        riderLocationService.record(rider, List.of(LocationPoint.of(now - 500, 22.32, 114.17)));
+        position = dispatchService.positionOf(rider);
+        assertThat(position.latitude()).isEqualTo(22.32);
+        assertThat(position.updatedAt()).isEqualTo(now - 500);
+    }
+
+    @Test
+    void reportsAreValidated() {
+        assertThatThrownBy(() -> riderLocationService.record(data.firstRiderId, List.of()))
+                .hasMessageContaining("冇位置資料");
+        assertThatThrownBy(() -> riderLocationService.record(data.firstRiderId,
+                List.of(LocationPoint.of(System.currentTimeMillis(), 95, 114.17))))
+                .hasMessageContaining("位置資料不正確");
+        assertThatThrownBy(() -> riderLocationService.record(-1,
+                List.of(LocationPoint.of(System.currentTimeMillis(), 22.3, 114.17))))
+                .hasMessageContaining("外賣員不存在或已停用");
+    }
+
+    @Test
+    void customerSeesTheRiderWhileTheOrderIsOnTheWay() {
+        int rider = data.firstRiderId;
+        int orderid = data.firstOrderId;
+        jdbcTemplate.update("UPDATE orders SET status = 'ready', deliver_man_ID = NULL, start_deliver_time = NULL,"
+                + " end_deliver_time = NULL WHERE orderid = ?", orderid);
+        assertThatThrownBy(() -> riderLocationService.getTrack(orderid, null))
+                .hasMessageContaining("外送紀錄");
+
+        Orders order = orderService.acceptOrder(orderid, rider);
+        long now = System.currentTimeMillis();
+        riderLocationService.record(rider, List.of(
+                LocationPoint.of(now - 2_000, 22.30, 114.17),
+                LocationPoint.of(now - 1_000, 22.31, 114.17)));
+
+        RiderTrackResponse track = riderLocationService.getTrack(order.getOrderid(), null);
+        assertThat(track.getDriverId()).isEqualTo(rider);
+        assertThat(track.getLatest().getLatitude()).isEqualTo(22.31);
+        assertThat(track.getPath()).hasSize(2);
+
+        // 只攞上次之後嘅點
+        RiderTrackResponse next = riderLocationService.getTrack(order.getOrderid(), now - 1_500);
+        assertThat(next.getPath()).extracting(LocationPoint::getRecordedTime).containsExactly(now - 1_000);
+
+        orderService.completeOrder(order.getOrderid());
+        orderOutboxService.dispatchBatch();
+        assertThatThrownBy(() -> riderLocationService.getTrack(order.getOrderid(), null))
+                .hasMessageContaining("未開始外送或者已經送達");
+    }
+}
@@ -0,0 +1,22 @@
+-- Food_Order_3.sql database after the pre-Flyway app ran on it with ddl-auto=update:
+-- the audit columns it added, plus is_validate/latest_login_date from mapping
+-- isValidate/latestLoginDate through the camel-case naming strategy.
+ALTER TABLE customer ADD COLUMN updated_time TIMESTAMP(6);
+ALTER TABLE customer ADD COLUMN deleted_time TIMESTAMP(6);
+ALTER TABLE customer ADD COLUMN is_validate BOOLEAN;
+ALTER TABLE customer ADD COLUMN latest_login_date TIMESTAMP(6);
+ALTER TABLE restaurant ADD COLUMN deleted_time TIMESTAMP(6);
+ALTER TABLE restaurant ADD COLUMN is_validate BOOLEAN;
+ALTER TABLE restaurant ADD COLUMN latest_login_date TIMESTAMP(6);
+ALTER TABLE delivery_staff ADD COLUMN is_validate BOOLEAN;
+ALTER TABLE delivery_staff ADD COLUMN latest_login_date TIMESTAMP(6);
+ALTER TABLE order_items ADD COLUMN created_time TIMESTAMP(6);
+
+-- 1: seed row the app froze and logged in; 2: seed row the app never saved
+INSERT INTO customer (custid, custname, pass_hash_1, pass_hash_2, isValidate, latestLoginDate, is_validate, latest_login_date)
+VALUES (1, 'frozen', 'x', 'x', TRUE, NULL, FALSE, TIMESTAMP '2025-03-01 12:00:00'),
+       (2, 'untouched', 'x', 'x', FALSE, TIMESTAMP '2024-01-01 08:00:00', NULL, NULL);
+INSERT INTO restaurant (restid, restname, email, pass_hash_1, pass_hash_2, isValidate, is_validate, latest_login_date)
+VALUES (1, 'frozen', 'r1@test', 'x', 'x', TRUE, FALSE, TIMESTAMP '2025-03-02 12:00:00');
+INSERT INTO delivery_staff (staff_id, name, pass_hash_1, pass_hash_2, isValidate, is_validate, latest_login_date)
+VALUES (1, 'frozen', 'x', 'x', TRUE, FALSE, TIMESTAMP '2025-03-03 12:00:00');
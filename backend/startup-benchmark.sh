@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# 量度冷啟動時間（JVM 起身 → Spring context refresh 完，包括 Flyway、Hibernate、Tomcat）
+#
+#   ./mvnw -Pfast-startup -DskipTests package
+#   ./startup-benchmark.sh [runs]
+#
+# 用 application.properties / SPRING_DATASOURCE_* 嘅 database（同正常啟動一樣要連到 MySQL）。
+# 冇 MySQL 都可以用 H2 試：
+#   EXTRA_CLASSPATH=~/.m2/repository/com/h2database/h2/2.3.232/h2-2.3.232.jar \
+#   JAVA_OPTS="-Dspring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE -Dspring.datasource.username=sa \
+#     -Dspring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect" ./startup-benchmark.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+RUNS=${1:-5}
+MAIN=com.mustudy.reactweb_backend.ReactwebBackendApplication
+DIR=target/fast-startup
+JAR=$(ls "$DIR"/reactweb-backend-*.jar 2>/dev/null | head -1 || true)
+if [[ -z "$JAR" || ! -f "$DIR/application.jsa" ]]; then
+    echo "run ./mvnw -Pfast-startup -DskipTests package first" >&2
+    exit 1
+fi
+# CDS archive 記低嘅 classpath 係 training run 時嘅相對路徑，所以一定要喺 $DIR 入面跑
+cd "$DIR"
+CP="$(basename "$JAR")${EXTRA_CLASSPATH:+:$EXTRA_CLASSPATH}"
+COMMON="-Dspring.context.exit=onRefresh -Dlogging.level.root=WARN -Dlogging.level.com.mustudy.reactweb_backend=WARN \
+-Dlogging.level.org.springframework.web=WARN -Dlogging.level.org.hibernate.SQL=WARN ${JAVA_OPTS:-}"
+
+declare -A MODES=(
+    [1-default]=""
+    [2-fast-startup]="-Dspring.profiles.active=fast-startup"
+    [3-fast-startup+aot]="-Dspring.profiles.active=fast-startup -Dspring.aot.enabled=true"
+    [4-fast-startup+aot+cds]="-Dspring.profiles.active=fast-startup -Dspring.aot.enabled=true -XX:SharedArchiveFile=application.jsa -Xshare:auto"
+)
+
+printf '%-26s %8s %8s %8s\n' mode min_ms median_ms max_ms
+for mode in $(printf '%s\n' "${!MODES[@]}" | sort); do
+    times=()
+    for ((i = 0; i < RUNS; i++)); do
+        start=$(date +%s%N)
+        # shellcheck disable=SC2086
+        if ! java $COMMON ${MODES[$mode]} -cp "$CP" $MAIN > "../startup-$mode.log" 2>&1; then
+            echo "$mode failed, see target/startup-$mode.log" >&2
+            exit 1
+        fi
+        times+=($(( ($(date +%s%N) - start) / 1000000 )))
+    done
+    sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+    printf '%-26s %8d %8d %8d\n' "$mode" "${sorted[0]}" "${sorted[$((RUNS / 2))]}" "${sorted[$((RUNS - 1))]}"
+done